@@ -0,0 +1,39 @@
+package com.tangwangwang.spring.data.ultipa.annotation;
+
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Annotation to cache the targets of a {@link Left} or {@link Right} reference, e.g. of rarely changing reference
+ * data like categories. Initializing the reference of an entity whose targets are cached does not query the server.
+ * <p>
+ * The cached targets of an entity are evicted when an edge of the between schema is saved from or to the entity, or
+ * when an entity of the source, between or target schema is removed. Updates of the targets themselves are not
+ * tracked, they are visible once the entries expire. Not applied to references loaded in chunks.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+@Documented
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdjacencyCache {
+
+    /**
+     * (Optional) The maximum number of entities whose targets are cached, the least recently used ones are evicted
+     * first.
+     */
+    int maxSize() default 1000;
+
+    /**
+     * (Optional) The time the targets of an entity are cached after loading them, a non-positive value caches them
+     * until they are evicted.
+     */
+    long ttl() default 60;
+
+    /**
+     * (Optional) The unit of {@link #ttl()}.
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+}
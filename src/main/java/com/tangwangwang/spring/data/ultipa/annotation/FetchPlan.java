@@ -0,0 +1,23 @@
+package com.tangwangwang.spring.data.ultipa.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation to load references of the entities returned by a query method up front, e.g.
+ * {@code @FetchPlan({"friends", "friends.posts"})}. The references of each path are loaded level by level with one
+ * query per reference property and level, instead of one query per entity when the references are read.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ * @see com.tangwangwang.spring.data.ultipa.core.proxy.UltipaFetchPlan
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Documented
+public @interface FetchPlan {
+
+    /**
+     * The dot separated reference paths to load.
+     */
+    String[] value();
+}
@@ -50,4 +50,38 @@ public @interface Left {
      */
     FetchType fetch() default FetchType.LAZY;
 
+    /**
+     * (Optional) The number of targets a {@link java.util.List} reference loads per query. A positive chunk size
+     * loads the targets in chunks ordered by the {@code _uuid} of their edges while the list is iterated, and answers
+     * {@code size()} and {@code isEmpty()} without loading the targets, the list is read-only. Not applied together
+     * with {@link #orderBy()} or {@link #limit()}.
+     * <p> By default all targets are loaded at once.
+     */
+    int chunkSize() default 0;
+
+    /**
+     * (Optional) A uql filter the targets must match, e.g. {@code @order.status == "PAID"}. Rendered into the filter
+     * of the target node or edge, so only the matching targets are loaded.
+     */
+    String filter() default "";
+
+    /**
+     * (Optional) A uql filter the between edge must match, e.g. {@code @follow.since > 2020}. Only applies to the
+     * references between two node schemas.
+     */
+    String edgeFilter() default "";
+
+    /**
+     * (Optional) The order of the targets as comma separated target properties with an optional direction, e.g.
+     * {@code "createdAt DESC, _uuid"}. The targets are ordered by {@code _uuid} by default.
+     */
+    String orderBy() default "";
+
+    /**
+     * (Optional) The maximum number of targets to load, e.g. together with {@link #orderBy()} to load the most recent
+     * targets only. A limited reference is loaded on its own, not together with the same reference of other entities.
+     * <p> By default all targets are loaded.
+     */
+    int limit() default 0;
+
 }
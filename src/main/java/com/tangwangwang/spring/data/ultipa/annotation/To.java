@@ -29,4 +29,10 @@ public @interface To {
      */
     FetchType fetch() default FetchType.LAZY;
 
+    /**
+     * (Optional) A uql filter the node must match, e.g. {@code @account.status == "ACTIVE"}. Rendered into the filter
+     * of the node, the reference is {@literal null} if the node does not match.
+     */
+    String filter() default "";
+
 }
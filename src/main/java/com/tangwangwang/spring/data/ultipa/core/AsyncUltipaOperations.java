@@ -0,0 +1,41 @@
+package com.tangwangwang.spring.data.ultipa.core;
+
+import com.tangwangwang.spring.data.ultipa.core.query.Query;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Interface that specifies a basic set of Ultipa operations executed asynchronously. Implemented by
+ * {@link AsyncUltipaTemplate} and obtained from {@link UltipaOperations#async()}. Independent reads can be started
+ * together and joined afterwards instead of running one after another.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public interface AsyncUltipaOperations {
+
+    <T> CompletableFuture<T> save(T entity);
+
+    <T> CompletableFuture<T> getById(Object id, Class<T> entityClass);
+
+    CompletableFuture<Void> execute(String uql);
+
+    CompletableFuture<Void> execute(Query query);
+
+    <T> CompletableFuture<T> findOne(String uql, Class<T> entityClass);
+
+    <T> CompletableFuture<T> findOne(Query query, Class<T> entityClass);
+
+    <T> CompletableFuture<List<T>> findAll(String uql, Class<T> entityClass);
+
+    <T> CompletableFuture<List<T>> findAll(Query query, Class<T> entityClass);
+
+    /**
+     * Returns the {@link Executor} the operations are run on.
+     *
+     * @return never {@literal null}.
+     */
+    Executor getExecutor();
+}
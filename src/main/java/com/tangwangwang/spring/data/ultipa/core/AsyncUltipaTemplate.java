@@ -0,0 +1,138 @@
+package com.tangwangwang.spring.data.ultipa.core;
+
+import com.tangwangwang.spring.data.ultipa.core.query.Query;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Implementation of {@link AsyncUltipaOperations} running the blocking {@link UltipaOperations} on an
+ * {@link Executor}. Without a configured executor, a virtual thread per task executor is created on first use when
+ * running on JDK 21 or later, otherwise a cached pool of daemon threads. That executor is owned by this template and
+ * shut down by {@link #destroy()}, a configured executor is left to its owner.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class AsyncUltipaTemplate implements AsyncUltipaOperations, DisposableBean {
+
+    private final UltipaOperations operations;
+    private final @Nullable Executor executor;
+    private @Nullable ExecutorService defaultExecutor;
+    private boolean destroyed;
+
+    public AsyncUltipaTemplate(UltipaOperations operations) {
+
+        Assert.notNull(operations, "UltipaOperations is required");
+
+        this.operations = operations;
+        this.executor = null;
+    }
+
+    public AsyncUltipaTemplate(UltipaOperations operations, Executor executor) {
+
+        Assert.notNull(operations, "UltipaOperations is required");
+        Assert.notNull(executor, "Executor is required");
+
+        this.operations = operations;
+        this.executor = executor;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> save(T entity) {
+        Assert.notNull(entity, "Entity must not be null!");
+        return CompletableFuture.supplyAsync(() -> operations.save(entity), getExecutor());
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getById(Object id, Class<T> entityClass) {
+        Assert.notNull(id, "Id must not be null!");
+        return CompletableFuture.supplyAsync(() -> operations.getById(id, entityClass), getExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Void> execute(String uql) {
+        return CompletableFuture.runAsync(() -> operations.execute(uql), getExecutor());
+    }
+
+    @Override
+    public CompletableFuture<Void> execute(Query query) {
+        Assert.notNull(query, "Query must not be null!");
+        return CompletableFuture.runAsync(query::execute, getExecutor());
+    }
+
+    @Override
+    public <T> CompletableFuture<T> findOne(String uql, Class<T> entityClass) {
+        return CompletableFuture.supplyAsync(() -> operations.findOne(uql, entityClass), getExecutor());
+    }
+
+    @Override
+    public <T> CompletableFuture<T> findOne(Query query, Class<T> entityClass) {
+        Assert.notNull(query, "Query must not be null!");
+        return CompletableFuture.supplyAsync(() -> query.findOne(entityClass), getExecutor());
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> findAll(String uql, Class<T> entityClass) {
+        return CompletableFuture.supplyAsync(() -> operations.findAll(uql, entityClass), getExecutor());
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> findAll(Query query, Class<T> entityClass) {
+        Assert.notNull(query, "Query must not be null!");
+        return CompletableFuture.supplyAsync(() -> query.findAll(entityClass), getExecutor());
+    }
+
+    @Override
+    public Executor getExecutor() {
+        if (executor != null) {
+            return executor;
+        }
+
+        synchronized (this) {
+            if (destroyed) {
+                throw new IllegalStateException("AsyncUltipaTemplate has been destroyed!");
+            }
+            if (defaultExecutor == null) {
+                defaultExecutor = createDefaultExecutor();
+            }
+            return defaultExecutor;
+        }
+    }
+
+    /**
+     * Shuts down the executor created by this template, tasks already submitted are still completed. An executor
+     * passed to the constructor is not shut down.
+     */
+    @Override
+    public synchronized void destroy() {
+        destroyed = true;
+        if (defaultExecutor != null) {
+            defaultExecutor.shutdown();
+            defaultExecutor = null;
+        }
+    }
+
+    private static ExecutorService createDefaultExecutor() {
+        Method virtualThreadExecutor = ReflectionUtils.findMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+        if (virtualThreadExecutor != null) {
+            Object executor = ReflectionUtils.invokeMethod(virtualThreadExecutor, null);
+            if (executor instanceof ExecutorService) {
+                return (ExecutorService) executor;
+            }
+        }
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ultipa-async-");
+        threadFactory.setDaemon(true);
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+}
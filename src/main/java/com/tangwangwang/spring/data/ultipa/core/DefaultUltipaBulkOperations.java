@@ -0,0 +1,304 @@
+package com.tangwangwang.spring.data.ultipa.core;
+
+import com.tangwangwang.spring.data.ultipa.annotation.PropertyType;
+import com.tangwangwang.spring.data.ultipa.core.convert.UltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.exception.BulkWriteException;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentEntity;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
+import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaPropertyTypeHolder;
+import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaSystemProperty;
+import com.tangwangwang.spring.data.ultipa.core.proxy.UltipaProxy;
+import com.tangwangwang.spring.data.ultipa.core.schema.Schema;
+import com.ultipa.Ultipa;
+import com.ultipa.sdk.operate.entity.Edge;
+import com.ultipa.sdk.operate.entity.Node;
+import com.ultipa.sdk.operate.entity.Property;
+import com.ultipa.sdk.operate.response.InsertResponse;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.mapping.MappingException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Default implementation for {@link UltipaBulkOperations}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class DefaultUltipaBulkOperations implements UltipaBulkOperations {
+
+    private final UltipaTemplate template;
+    private final UltipaConverter converter;
+    private final ConversionService conversionService;
+    private final UltipaPersistentEntity<?> entity;
+    private final Ultipa.InsertType insertType;
+    private final int batchSize;
+    private final Map<String, UltipaPersistentProperty> properties = new HashMap<>();
+    private final List<Object> entities = new ArrayList<>();
+
+    DefaultUltipaBulkOperations(UltipaTemplate template, UltipaPersistentEntity<?> entity, InsertType insertType, int batchSize) {
+
+        Assert.notNull(template, "UltipaTemplate must not be null!");
+        Assert.notNull(entity, "UltipaPersistentEntity must not be null!");
+        Assert.notNull(insertType, "InsertType must not be null!");
+
+        this.template = template;
+        this.converter = template.getConverter();
+        this.conversionService = converter.getConversionService();
+        this.entity = entity;
+        this.insertType = Ultipa.InsertType.valueOf(insertType.name());
+        this.batchSize = batchSize;
+
+        for (UltipaPersistentProperty property : entity) {
+            if (!property.isReferenceProperty()) {
+                properties.put(property.getPropertyName(), property);
+            }
+        }
+    }
+
+    @Override
+    public UltipaBulkOperations insert(Object entity) {
+        Assert.notNull(entity, "Entity must not be null!");
+
+        Class<?> entityType = ClassUtils.getUserClass(entity);
+        if (!this.entity.getType().isAssignableFrom(entityType)) {
+            throw new IllegalArgumentException(String.format("%s can not be inserted into schema %s!", entityType.getName(),
+                    this.entity.getSchemaName()));
+        }
+
+        this.entities.add(entity);
+        return this;
+    }
+
+    @Override
+    public UltipaBulkOperations insert(List<?> entities) {
+        Assert.notNull(entities, "Entities must not be null!");
+
+        entities.forEach(this::insert);
+        return this;
+    }
+
+    @Override
+    public UltipaBulkWriteResult execute() {
+        com.ultipa.sdk.operate.entity.Schema schema = createSchema();
+
+        // the added inserts are consumed, so executing again only inserts the entities added in the meantime
+        List<Object> entities = new ArrayList<>(this.entities);
+        this.entities.clear();
+
+        int insertedCount = 0;
+        List<String> ids = new ArrayList<>(entities.size());
+        List<Long> uuids = new ArrayList<>(entities.size());
+        Map<Integer, Integer> errors = new TreeMap<>();
+
+        for (int offset = 0; offset < entities.size(); offset += batchSize) {
+            List<Object> chunk = entities.subList(offset, Math.min(offset + batchSize, entities.size()));
+
+            InsertResponse response;
+            try {
+                if (entity.isNode()) {
+                    List<Node> nodes = chunk.stream().map(this::createNode).collect(Collectors.toList());
+                    response = template.doInsertNodes(schema, nodes, insertType);
+                } else {
+                    List<Edge> edges = chunk.stream().map(this::createEdge).collect(Collectors.toList());
+                    response = template.doInsertEdges(schema, edges, insertType);
+                }
+            } catch (BulkWriteException e) {
+                throw new BulkWriteException(String.format("Batch insert of entities %d to %d into %s failed: %s", offset,
+                        offset + chunk.size() - 1, entity.getSchemaName(), e.getMessage()), e, e.getSchema(),
+                        new UltipaBulkWriteResult(insertedCount, ids, uuids, errors));
+            }
+
+            Map<Integer, Integer> errorItem = Optional.ofNullable(response.getErrorItem()).orElse(Collections.emptyMap());
+            alignToChunk(response.getIds(), chunk.size(), errorItem.keySet(), ids);
+            alignToChunk(response.getUuids(), chunk.size(), errorItem.keySet(), uuids);
+
+            for (Map.Entry<Integer, Integer> error : errorItem.entrySet()) {
+                errors.put(offset + error.getKey(), error.getValue());
+            }
+            insertedCount += chunk.size() - errorItem.size();
+        }
+
+        return new UltipaBulkWriteResult(insertedCount, ids, uuids, errors);
+    }
+
+    /**
+     * Appends one value per row of a chunk to the target, {@literal null} for the failed rows. The response holds
+     * either a value for each row of the chunk or only the values of the inserted rows.
+     */
+    static <T> void alignToChunk(@Nullable List<T> values, int chunkSize, Set<Integer> failed, List<T> target) {
+        List<T> source = values == null ? Collections.<T>emptyList() : values;
+        boolean perRow = source.size() == chunkSize;
+        Iterator<T> inserted = source.iterator();
+        for (int i = 0; i < chunkSize; i++) {
+            if (perRow) {
+                T value = inserted.next();
+                target.add(failed.contains(i) ? null : value);
+            } else if (failed.contains(i)) {
+                target.add(null);
+            } else {
+                target.add(inserted.hasNext() ? inserted.next() : null);
+            }
+        }
+    }
+
+    private com.ultipa.sdk.operate.entity.Schema createSchema() {
+        List<Property> schemaProperties = new ArrayList<>();
+
+        for (UltipaPersistentProperty property : properties.values()) {
+            if (property.isSystemProperty()) {
+                continue;
+            }
+
+            PropertyType propertyType = property.getPropertyType();
+            if (UltipaPropertyTypeHolder.getSimpleType(propertyType) != null) {
+                throw new IllegalArgumentException(String.format("Array property %s of %s is not supported by bulk operations, use saveAll instead.",
+                        property.getPropertyName(), entity.getSchemaName()));
+            }
+
+            Property schemaProperty = new Property();
+            schemaProperty.setName(property.getPropertyName());
+            schemaProperty.setType(Ultipa.PropertyType.valueOf(propertyType.name()));
+            schemaProperties.add(schemaProperty);
+        }
+
+        com.ultipa.sdk.operate.entity.Schema schema = new com.ultipa.sdk.operate.entity.Schema();
+        schema.setName(entity.getSchemaName());
+        schema.setProperties(schemaProperties);
+        return schema;
+    }
+
+    private Node createNode(Object source) {
+        Node node = new Node();
+        node.setSchema(entity.getSchemaName());
+
+        writeValues(source).forEach((name, value) -> {
+            if (UltipaSystemProperty.ID.getMappedName().equals(name)) {
+                node.setID(String.valueOf(value));
+            } else if (UltipaSystemProperty.UUID.getMappedName().equals(name)) {
+                node.setUUID(conversionService.convert(value, Long.class));
+            } else {
+                node.set(name, getPotentiallyConvertedValue(name, value));
+            }
+        });
+        return node;
+    }
+
+    private Edge createEdge(Object source) {
+        Edge edge = new Edge();
+        edge.setSchema(entity.getSchemaName());
+
+        writeValues(source).forEach((name, value) -> {
+            if (UltipaSystemProperty.UUID.getMappedName().equals(name)) {
+                edge.setUUID(conversionService.convert(value, Long.class));
+            } else if (!UltipaSystemProperty.isSystemProperty(name)) {
+                edge.set(name, getPotentiallyConvertedValue(name, value));
+            }
+        });
+
+        PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(source);
+        for (UltipaPersistentProperty property : entity) {
+            if (property.isFromProperty() || property.isToProperty()) {
+                writeEndpoint(edge, property, accessor.getProperty(property));
+            }
+        }
+        return edge;
+    }
+
+    private Map<String, Object> writeValues(Object source) {
+        Object entity = template.maybeCallBeforeConvert(source, this.entity.getSchemaName());
+        Schema sink = Schema.of(new LinkedHashMap<>());
+        if (entity != null) {
+            try {
+                converter.writeValues(entity, sink);
+            } catch (ConversionException e) {
+                throw new MappingException(String.format("Can not write %s into %s: %s", ClassUtils.getUserClass(entity).getName(),
+                        this.entity.getSchemaName(), e.getMessage()), e);
+            }
+        }
+        return sink.toMap();
+    }
+
+    private void writeEndpoint(Edge edge, UltipaPersistentProperty property, @Nullable Object value) {
+        Object node = value instanceof UltipaProxy ? ((UltipaProxy) value).getTarget() : value;
+        UltipaPersistentEntity<?> nodeEntity = node == null ? null
+                : converter.getMappingContext().getPersistentEntity(ClassUtils.getUserClass(node));
+        UltipaPersistentProperty idProperty = nodeEntity == null ? null : nodeEntity.getIdProperty();
+        Object id = idProperty == null ? null : nodeEntity.getIdentifierAccessor(node).getIdentifier();
+        UltipaSystemProperty systemProperty = idProperty == null ? null : idProperty.getSystemProperty();
+
+        if (id == null || systemProperty == null || !systemProperty.isUniqueIdentifier()) {
+            throw new IllegalArgumentException(String.format("%s of %s must reference a persisted node identified by %s or %s!",
+                    property.getName(), entity.getSchemaName(), UltipaSystemProperty.ID.getMappedName(),
+                    UltipaSystemProperty.UUID.getMappedName()));
+        }
+
+        if (systemProperty == UltipaSystemProperty.ID) {
+            if (property.isFromProperty()) {
+                edge.setFrom(id.toString());
+            } else {
+                edge.setTo(id.toString());
+            }
+        } else {
+            Long uuid = conversionService.convert(id, Long.class);
+            if (property.isFromProperty()) {
+                edge.setFromUUID(uuid);
+            } else {
+                edge.setToUUID(uuid);
+            }
+        }
+    }
+
+    @Nullable
+    private Object getPotentiallyConvertedValue(String name, @Nullable Object value) {
+        UltipaPersistentProperty property = properties.get(name);
+        if (property == null) {
+            return value;
+        }
+
+        switch (property.getPropertyType()) {
+            case INT32:
+            case UINT32:
+                return convert(property, value, Integer.class);
+            case INT64:
+            case UINT64:
+                return convert(property, value, Long.class);
+            case FLOAT:
+                return convert(property, value, Float.class);
+            case DOUBLE:
+                return convert(property, value, Double.class);
+            case POINT:
+            case DATETIME:
+                return conversionService.convert(value, String.class);
+            default:
+                return value;
+        }
+    }
+
+    @Nullable
+    private <T> T convert(UltipaPersistentProperty property, @Nullable Object value, Class<T> targetType) {
+        if (value == null) {
+            return null;
+        }
+
+        T converted = null;
+        ConversionException cause = null;
+        try {
+            converted = conversionService.convert(value, targetType);
+        } catch (ConversionException e) {
+            cause = e;
+        }
+
+        if (converted == null) {
+            throw new MappingException(String.format("Can not convert value %s of property %s of %s to %s!", value,
+                    property.getPropertyName(), entity.getSchemaName(), property.getPropertyType()), cause);
+        }
+        return converted;
+    }
+}
@@ -0,0 +1,139 @@
+package com.tangwangwang.spring.data.ultipa.core;
+
+import com.tangwangwang.spring.data.ultipa.core.convert.UltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.proxy.UltipaAdjacencyCache;
+import com.tangwangwang.spring.data.ultipa.core.query.PreparedQuery;
+import com.tangwangwang.spring.data.ultipa.core.query.Query;
+import com.tangwangwang.spring.data.ultipa.core.query.Window;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Interface that specifies a basic set of Ultipa operations with reactive types. Implemented by
+ * {@link ReactiveUltipaTemplate}. Queries are rendered the same way as for {@link UltipaOperations}.
+ * <p>
+ * The Ultipa client is blocking, so this is an adapter running blocking calls off the subscribing thread, not a
+ * non-blocking driver. There is no end-to-end backpressure: the response of a query is received in full before the
+ * first element is emitted, subscriber demand only paces the conversion of the received rows.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public interface ReactiveUltipaOperations {
+
+    Query createQuery(String uql);
+
+    Query createQuery(String uql, Map<String, Object> paramMap);
+
+    Query createQuery(String uql, Sort sort, @Nullable String sortPrefix);
+
+    Query createQuery(String uql, Map<String, Object> paramMap, Sort sort, @Nullable String sortPrefix);
+
+    /**
+     * Compiles the given uql string into a {@link PreparedQuery}, see {@link UltipaOperations#prepare(String)}.
+     *
+     * @param uql must not be {@literal null}.
+     * @return a new {@link PreparedQuery}.
+     */
+    PreparedQuery prepare(String uql);
+
+    /**
+     * Compiles the given uql string into a {@link PreparedQuery}, see {@link UltipaOperations#prepare(String, String)}.
+     *
+     * @param uql        must not be {@literal null}.
+     * @param sortPrefix the alias the sort properties are prefixed with, can be {@literal null}.
+     * @return a new {@link PreparedQuery}.
+     */
+    PreparedQuery prepare(String uql, @Nullable String sortPrefix);
+
+    <T> Mono<T> save(T entity);
+
+    <T> Mono<T> update(T entity);
+
+    <T> Flux<T> saveAll(Iterable<T> entities);
+
+    <T> Mono<Void> remove(T entity);
+
+    <T> Mono<T> getById(Object id, Class<T> entityClass);
+
+    <T> Mono<Boolean> existsById(Object id, Class<T> entityClass);
+
+    <T> Flux<T> getAll(Class<T> entityClass);
+
+    Mono<Void> execute(String uql);
+
+    <T> Mono<T> findOne(String uql, Class<T> entityClass);
+
+    <T> Flux<T> findAll(String uql, Class<T> entityClass);
+
+    /**
+     * Executes the given {@link Query}.
+     *
+     * @param query must not be {@literal null}.
+     * @return a {@link Mono} completing when the query was executed.
+     */
+    Mono<Void> execute(Query query);
+
+    /**
+     * Executes the given {@link Query} and converts the single result into the given type.
+     *
+     * @param query       must not be {@literal null}.
+     * @param entityClass the type to convert the result into.
+     * @return a {@link Mono} emitting the result or completing empty if there is none.
+     */
+    <T> Mono<T> findOne(Query query, Class<T> entityClass);
+
+    /**
+     * Executes the given {@link Query} and converts the results into the given type as they are requested, the
+     * response is received in full up front.
+     *
+     * @param query       must not be {@literal null}.
+     * @param entityClass the type to convert the results into.
+     * @return a {@link Flux} of the converted results.
+     */
+    <T> Flux<T> findAll(Query query, Class<T> entityClass);
+
+    /**
+     * Executes the given count {@link Query}.
+     *
+     * @param query must not be {@literal null}.
+     * @return a {@link Mono} emitting the count.
+     */
+    Mono<Long> count(Query query);
+
+    /**
+     * Executes the given exists {@link Query}.
+     *
+     * @param query must not be {@literal null}.
+     * @return a {@link Mono} emitting whether the query has a result.
+     */
+    Mono<Boolean> exists(Query query);
+
+    /**
+     * Executes the given keyset {@link Query} and converts the window of at most {@code size} results into the given
+     * type, see {@link Query#scroll(Class, int)}.
+     *
+     * @param query must not be {@literal null}.
+     * @param size  the maximum number of results, must be greater than zero.
+     * @return a {@link Mono} emitting the window.
+     */
+    <T> Mono<Window<T>> scroll(Query query, Class<T> entityClass, int size);
+
+    /**
+     * Returns the underlying {@link UltipaConverter}.
+     *
+     * @return never {@literal null}.
+     */
+    UltipaConverter getConverter();
+
+    /**
+     * Returns the {@link UltipaAdjacencyCache} shared with the underlying {@link UltipaOperations}.
+     *
+     * @return never {@literal null}.
+     */
+    UltipaAdjacencyCache getAdjacencyCache();
+}
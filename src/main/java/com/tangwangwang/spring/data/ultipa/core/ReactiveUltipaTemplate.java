@@ -0,0 +1,181 @@
+package com.tangwangwang.spring.data.ultipa.core;
+
+import com.tangwangwang.spring.data.ultipa.core.convert.UltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.proxy.UltipaAdjacencyCache;
+import com.tangwangwang.spring.data.ultipa.core.query.PreparedQuery;
+import com.tangwangwang.spring.data.ultipa.core.query.Query;
+import com.tangwangwang.spring.data.ultipa.core.query.Window;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+
+/**
+ * Implementation of {@link ReactiveUltipaOperations} on top of {@link UltipaOperations}. The Ultipa client is
+ * blocking, so every operation is a blocking call subscribed on a {@link Scheduler} suited for blocking work, by
+ * default {@link Schedulers#boundedElastic()}. Each call occupies a thread of the scheduler until its response is
+ * received in full. Query rendering, the entity statements and entity conversion are shared with the given
+ * {@link UltipaOperations}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class ReactiveUltipaTemplate implements ReactiveUltipaOperations {
+
+    private final UltipaOperations operations;
+    private final Scheduler scheduler;
+
+    public ReactiveUltipaTemplate(UltipaOperations operations) {
+        this(operations, Schedulers.boundedElastic());
+    }
+
+    public ReactiveUltipaTemplate(UltipaOperations operations, Scheduler scheduler) {
+
+        Assert.notNull(operations, "UltipaOperations is required");
+        Assert.notNull(scheduler, "Scheduler is required");
+
+        this.operations = operations;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Query createQuery(String uql) {
+        return operations.createQuery(uql);
+    }
+
+    @Override
+    public Query createQuery(String uql, Map<String, Object> paramMap) {
+        return operations.createQuery(uql, paramMap);
+    }
+
+    @Override
+    public Query createQuery(String uql, Sort sort, @Nullable String sortPrefix) {
+        return operations.createQuery(uql, sort, sortPrefix);
+    }
+
+    @Override
+    public Query createQuery(String uql, Map<String, Object> paramMap, Sort sort, @Nullable String sortPrefix) {
+        return operations.createQuery(uql, paramMap, sort, sortPrefix);
+    }
+
+    @Override
+    public PreparedQuery prepare(String uql) {
+        return operations.prepare(uql);
+    }
+
+    @Override
+    public PreparedQuery prepare(String uql, @Nullable String sortPrefix) {
+        return operations.prepare(uql, sortPrefix);
+    }
+
+    @Override
+    public <T> Mono<T> save(T entity) {
+        Assert.notNull(entity, "Entity must not be null!");
+        return Mono.fromCallable(() -> operations.save(entity)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public <T> Mono<T> update(T entity) {
+        Assert.notNull(entity, "Entity must not be null!");
+        return Mono.fromCallable(() -> operations.update(entity)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public <T> Flux<T> saveAll(Iterable<T> entities) {
+        Assert.notNull(entities, "Entities must not be null!");
+        return Mono.fromCallable(() -> operations.saveAll(entities))
+                .flatMapIterable(saved -> saved)
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public <T> Mono<Void> remove(T entity) {
+        Assert.notNull(entity, "Entity must not be null!");
+        return Mono.<Void>fromRunnable(() -> operations.remove(entity)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public <T> Mono<T> getById(Object id, Class<T> entityClass) {
+        Assert.notNull(id, "Id must not be null!");
+        return Mono.fromCallable(() -> operations.getById(id, entityClass)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public <T> Mono<Boolean> existsById(Object id, Class<T> entityClass) {
+        Assert.notNull(id, "Id must not be null!");
+        return Mono.fromCallable(() -> operations.existsById(id, entityClass)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public <T> Flux<T> getAll(Class<T> entityClass) {
+        return Mono.fromCallable(() -> operations.getAll(entityClass))
+                .flatMapIterable(all -> all)
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Void> execute(String uql) {
+        return Mono.<Void>fromRunnable(() -> operations.execute(uql)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public <T> Mono<T> findOne(String uql, Class<T> entityClass) {
+        return Mono.fromCallable(() -> operations.findOne(uql, entityClass)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public <T> Flux<T> findAll(String uql, Class<T> entityClass) {
+        return Flux.fromStream(() -> operations.stream(uql, entityClass)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Void> execute(Query query) {
+        Assert.notNull(query, "Query must not be null!");
+        return Mono.<Void>fromRunnable(query::execute).subscribeOn(scheduler);
+    }
+
+    @Override
+    public <T> Mono<T> findOne(Query query, Class<T> entityClass) {
+        Assert.notNull(query, "Query must not be null!");
+        return Mono.fromCallable(() -> query.findOne(entityClass)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public <T> Flux<T> findAll(Query query, Class<T> entityClass) {
+        Assert.notNull(query, "Query must not be null!");
+        return Flux.fromStream(() -> query.stream(entityClass)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Long> count(Query query) {
+        Assert.notNull(query, "Query must not be null!");
+        return Mono.fromCallable(query::count).subscribeOn(scheduler);
+    }
+
+    @Override
+    public Mono<Boolean> exists(Query query) {
+        Assert.notNull(query, "Query must not be null!");
+        return Mono.fromCallable(query::exists).subscribeOn(scheduler);
+    }
+
+    @Override
+    public <T> Mono<Window<T>> scroll(Query query, Class<T> entityClass, int size) {
+        Assert.notNull(query, "Query must not be null!");
+        return Mono.fromCallable(() -> query.scroll(entityClass, size)).subscribeOn(scheduler);
+    }
+
+    @Override
+    public UltipaConverter getConverter() {
+        return operations.getConverter();
+    }
+
+    @Override
+    public UltipaAdjacencyCache getAdjacencyCache() {
+        return operations.getAdjacencyCache();
+    }
+}
@@ -0,0 +1,62 @@
+package com.tangwangwang.spring.data.ultipa.core;
+
+import java.util.List;
+
+/**
+ * Bulk operations for inserting entities of a single schema. The entities are mapped to typed rows and sent with the
+ * batch insert calls of the Ultipa client instead of being rendered into uql. Obtained from
+ * {@link UltipaOperations#bulkOps(InsertType, Class)}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public interface UltipaBulkOperations {
+
+    /**
+     * Add a single insert to the bulk operation.
+     *
+     * @param entity the entity to insert, must not be {@literal null}.
+     * @return the current {@link UltipaBulkOperations} instance with the insert added, will never be {@literal null}.
+     */
+    UltipaBulkOperations insert(Object entity);
+
+    /**
+     * Add a list of inserts to the bulk operation.
+     *
+     * @param entities the entities to insert, must not be {@literal null}.
+     * @return the current {@link UltipaBulkOperations} instance with the inserts added, will never be {@literal null}.
+     */
+    UltipaBulkOperations insert(List<?> entities);
+
+    /**
+     * Execute all inserts added to the bulk operation. The inserts are consumed, executing again only inserts the
+     * entities added afterwards.
+     *
+     * @return the result of the bulk operation, will never be {@literal null}.
+     * @throws com.tangwangwang.spring.data.ultipa.core.exception.BulkWriteException if a batch is rejected as a whole,
+     *                                                                             carrying the result of the batches
+     *                                                                             inserted before.
+     */
+    UltipaBulkWriteResult execute();
+
+    /**
+     * Mode for the batch insert.
+     */
+    enum InsertType {
+
+        /**
+         * Insert new rows, fails for rows whose identifier already exists.
+         */
+        NORMAL,
+
+        /**
+         * Insert new rows and replace existing rows with the same identifier.
+         */
+        OVERWRITE,
+
+        /**
+         * Insert new rows and update the given properties of existing rows with the same identifier.
+         */
+        UPSERT
+    }
+}
@@ -0,0 +1,61 @@
+package com.tangwangwang.spring.data.ultipa.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of {@link UltipaBulkOperations#execute()}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class UltipaBulkWriteResult {
+
+    private final int insertedCount;
+    private final List<String> ids;
+    private final List<Long> uuids;
+    private final Map<Integer, Integer> errors;
+
+    public UltipaBulkWriteResult(int insertedCount, List<String> ids, List<Long> uuids, Map<Integer, Integer> errors) {
+        this.insertedCount = insertedCount;
+        this.ids = Collections.unmodifiableList(ids);
+        this.uuids = Collections.unmodifiableList(uuids);
+        this.errors = Collections.unmodifiableMap(errors);
+    }
+
+    /**
+     * Returns the number of rows inserted without error.
+     */
+    public int getInsertedCount() {
+        return insertedCount;
+    }
+
+    /**
+     * Returns the {@code _id} of each row, indexed like the added entities, {@literal null} for the failed rows.
+     */
+    public List<String> getIds() {
+        return ids;
+    }
+
+    /**
+     * Returns the {@code _uuid} of each row, indexed like the added entities, {@literal null} for the failed rows.
+     */
+    public List<Long> getUuids() {
+        return uuids;
+    }
+
+    /**
+     * Returns the error code of each failed row, keyed by the index of the entity in the bulk operation.
+     */
+    public Map<Integer, Integer> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Whether any row of the bulk operation failed.
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
@@ -1,13 +1,17 @@
 package com.tangwangwang.spring.data.ultipa.core;
 
 import com.tangwangwang.spring.data.ultipa.core.convert.UltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.proxy.UltipaAdjacencyCache;
+import com.tangwangwang.spring.data.ultipa.core.query.PreparedQuery;
 import com.tangwangwang.spring.data.ultipa.core.query.Query;
+import com.tangwangwang.spring.data.ultipa.core.schema.Schema;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.Nullable;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Interface that specifies a basic set of Ultipa operations. Implemented by {@link UltipaTemplate}. Not often used but
@@ -39,10 +43,48 @@ public interface UltipaOperations {
 
     Query createQuery(String uql, Map<String, Object> paramMap, Pageable pageable, @Nullable String sortPrefix);
 
+    /**
+     * Compiles the given uql string into a {@link PreparedQuery} that can be shared across threads and bound to
+     * parameters per execution.
+     *
+     * @param uql must not be {@literal null}.
+     * @return a new {@link PreparedQuery}.
+     */
+    PreparedQuery prepare(String uql);
+
+    /**
+     * Compiles the given uql string into a {@link PreparedQuery} that can be shared across threads and bound to
+     * parameters per execution.
+     *
+     * @param uql        must not be {@literal null}.
+     * @param sortPrefix the alias the sort properties are prefixed with, can be {@literal null}.
+     * @return a new {@link PreparedQuery}.
+     */
+    PreparedQuery prepare(String uql, @Nullable String sortPrefix);
+
     <T> T save(T entity);
 
     <T> T update(T entity);
 
+    /**
+     * Saves all given entities. New entities are grouped by schema and inserted with multi-row insert statements,
+     * entities that are not new are updated one by one.
+     *
+     * @param entities must not be {@literal null} nor contain {@literal null} elements.
+     * @return the saved entities in the order of the given entities.
+     */
+    <T> List<T> saveAll(Iterable<T> entities);
+
+    /**
+     * Returns a new {@link UltipaBulkOperations} for inserting entities of the given type with the batch insert calls
+     * of the Ultipa client.
+     *
+     * @param insertType  the mode of the batch insert, must not be {@literal null}.
+     * @param entityClass the node or edge type, must not be {@literal null}.
+     * @return a new {@link UltipaBulkOperations}.
+     */
+    UltipaBulkOperations bulkOps(UltipaBulkOperations.InsertType insertType, Class<?> entityClass);
+
     <T> void remove(T entity);
 
     @Nullable
@@ -59,6 +101,18 @@ public interface UltipaOperations {
 
     <T> List<T> findAll(String uql, Class<T> entityClass);
 
+    /**
+     * Executes the uql and returns a {@link Stream} that converts the results into the given type one at a time
+     * while it is consumed, instead of building a list of all converted results up front. The Ultipa client receives
+     * the whole response before the stream is returned, so the rows of the result are held in memory regardless of
+     * how far the stream is consumed, only the converted entities are not.
+     *
+     * @param uql         the uql to execute.
+     * @param entityClass the type to convert the results into.
+     * @return a {@link Stream} of the converted results.
+     */
+    <T> Stream<T> stream(String uql, Class<T> entityClass);
+
     @Nullable
     Map<String, Object> findOne(String uql);
 
@@ -69,10 +123,34 @@ public interface UltipaOperations {
 
     List<List<Object>> findArrays(String uql);
 
+    /**
+     * Executes the uql and returns the unconverted results of each returned alias. The rows of aliases returned from
+     * the same path are in path order, so the n-th rows of these aliases belong to the same path.
+     *
+     * @param uql the uql to execute.
+     * @return the rows by alias in the order the aliases are returned, never {@literal null}.
+     */
+    Map<String, List<Schema>> findAllByAlias(String uql);
+
+    /**
+     * Returns the {@link AsyncUltipaOperations} running the operations of this instance asynchronously.
+     *
+     * @return never {@literal null}.
+     */
+    AsyncUltipaOperations async();
+
     /**
      * Returns the underlying {@link UltipaConverter}.
      *
      * @return never {@literal null}.
      */
     UltipaConverter getConverter();
+
+    /**
+     * Returns the {@link UltipaAdjacencyCache} caching the targets of the references annotated with
+     * {@link com.tangwangwang.spring.data.ultipa.annotation.AdjacencyCache}.
+     *
+     * @return never {@literal null}.
+     */
+    UltipaAdjacencyCache getAdjacencyCache();
 }
@@ -0,0 +1,235 @@
+package com.tangwangwang.spring.data.ultipa.core;
+
+import com.tangwangwang.spring.data.ultipa.core.exception.LazyLoadingThresholdException;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of the queries executed, the rows mapped and the lazy loads per property within one scope of the current
+ * thread, e.g. one request. A scope is opened by {@link #start()} and closed by {@link #stop()}, nothing is collected
+ * outside a scope, so the overhead outside sampled scopes is one thread local lookup per query.
+ * <p>
+ * The {@link Mode} decides what happens when the lazy loads of one property exceed the threshold, which usually is
+ * a N+1 pattern: nothing, a warning naming the triggering stack frame, or a
+ * {@link LazyLoadingThresholdException}.
+ *
+ * <pre class="code">
+ * UltipaStatistics.setMode(UltipaStatistics.Mode.LOG);
+ * UltipaStatistics.setSampleRate(0.01);
+ *
+ * UltipaStatistics.start();
+ * try {
+ *     // handle the request
+ * } finally {
+ *     UltipaStatistics statistics = UltipaStatistics.stop();
+ * }
+ * </pre>
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public final class UltipaStatistics {
+
+    private static final Log LOG = LogFactory.getLog(UltipaStatistics.class);
+    private static final String LIBRARY_PACKAGE = "com.tangwangwang.spring.data.ultipa.";
+    private static final ThreadLocal<UltipaStatistics> CURRENT = new ThreadLocal<>();
+
+    private static volatile Mode mode = Mode.OFF;
+    private static volatile int lazyLoadThreshold = 10;
+    private static volatile double sampleRate = 1.0d;
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final Map<String, AtomicInteger> lazyLoads = new ConcurrentHashMap<>();
+
+    private UltipaStatistics() {
+    }
+
+    /**
+     * Sets what happens when the lazy loads of one property exceed the threshold, defaults to {@link Mode#OFF}.
+     *
+     * @param mode must not be {@literal null}.
+     */
+    public static void setMode(Mode mode) {
+        Assert.notNull(mode, "Mode must not be null!");
+
+        UltipaStatistics.mode = mode;
+    }
+
+    /**
+     * Sets the number of lazy loads of one property within one scope which is still accepted, defaults to 10.
+     *
+     * @param lazyLoadThreshold must be greater than zero.
+     */
+    public static void setLazyLoadThreshold(int lazyLoadThreshold) {
+        Assert.isTrue(lazyLoadThreshold > 0, "Lazy load threshold must be greater than 0!");
+
+        UltipaStatistics.lazyLoadThreshold = lazyLoadThreshold;
+    }
+
+    /**
+     * Sets the share of the scopes which are collected, defaults to {@literal 1.0} collecting every scope.
+     *
+     * @param sampleRate between {@literal 0.0} and {@literal 1.0}.
+     */
+    public static void setSampleRate(double sampleRate) {
+        Assert.isTrue(sampleRate >= 0.0d && sampleRate <= 1.0d, "Sample rate must be between 0 and 1!");
+
+        UltipaStatistics.sampleRate = sampleRate;
+    }
+
+    /**
+     * Opens a scope on the current thread, replacing the scope opened before. The scope is not collected if it is not
+     * sampled.
+     *
+     * @return {@literal true} if the scope is collected.
+     */
+    public static boolean start() {
+        double sampleRate = UltipaStatistics.sampleRate;
+        if (sampleRate < 1.0d && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            CURRENT.remove();
+            return false;
+        }
+        CURRENT.set(new UltipaStatistics());
+        return true;
+    }
+
+    /**
+     * Closes the scope of the current thread.
+     *
+     * @return the statistics of the scope, or {@literal null} if the scope was not collected.
+     */
+    @Nullable
+    public static UltipaStatistics stop() {
+        UltipaStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    /**
+     * Returns the statistics of the scope of the current thread.
+     *
+     * @return {@literal null} if no scope is collected.
+     */
+    @Nullable
+    public static UltipaStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Records an executed query in the scope of the current thread.
+     */
+    public static void recordQuery() {
+        UltipaStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.queries.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records mapped rows in the scope of the current thread.
+     */
+    public static void recordRows(int count) {
+        UltipaStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.rows.addAndGet(count);
+        }
+    }
+
+    void recordRow() {
+        rows.incrementAndGet();
+    }
+
+    /**
+     * Records a lazy load of the given property in the scope of the current thread, and reports it once the lazy
+     * loads of the property exceed the threshold.
+     *
+     * @throws LazyLoadingThresholdException if the threshold is exceeded in {@link Mode#FAIL}.
+     */
+    public static void recordLazyLoad(UltipaPersistentProperty property) {
+        UltipaStatistics statistics = CURRENT.get();
+        if (statistics == null) {
+            return;
+        }
+
+        String name = property.getOwner().getType().getSimpleName() + "." + property.getName();
+        int count = statistics.lazyLoads.computeIfAbsent(name, it -> new AtomicInteger()).incrementAndGet();
+        Mode mode = UltipaStatistics.mode;
+        if (mode == Mode.OFF || count != lazyLoadThreshold + 1) {
+            return;
+        }
+
+        String message = String.format("Property %s was lazily loaded more than %s times, triggered at %s.", name,
+                lazyLoadThreshold, getTriggeringFrame());
+        if (mode == Mode.FAIL) {
+            throw new LazyLoadingThresholdException(message, name, count);
+        }
+        LOG.warn(message);
+    }
+
+    private static String getTriggeringFrame() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            String className = element.getClassName();
+            if (!className.startsWith(LIBRARY_PACKAGE) && !className.contains("$$")
+                    && !className.startsWith("java.") && !className.startsWith("jdk.") && !className.startsWith("sun.")
+                    && !className.startsWith("org.springframework.cglib.")) {
+                return element.toString();
+            }
+        }
+        return "unknown";
+    }
+
+    public long getQueries() {
+        return queries.get();
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    /**
+     * Returns the lazy loads per property, keyed by the simple owner type name and the property name.
+     */
+    public Map<String, Integer> getLazyLoads() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        lazyLoads.forEach((property, count) -> result.put(property, count.get()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public String toString() {
+        return "UltipaStatistics{queries=" + queries + ", rows=" + rows + ", lazyLoads=" + getLazyLoads() + "}";
+    }
+
+    /**
+     * What happens when the lazy loads of one property exceed the threshold.
+     */
+    public enum Mode {
+
+        /**
+         * Only collects the statistics.
+         */
+        OFF,
+
+        /**
+         * Logs a warning naming the stack frame triggering the lazy load.
+         */
+        LOG,
+
+        /**
+         * Throws a {@link LazyLoadingThresholdException} naming the stack frame triggering the lazy load.
+         */
+        FAIL
+    }
+}
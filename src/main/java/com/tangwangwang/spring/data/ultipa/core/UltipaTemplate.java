@@ -2,27 +2,33 @@ package com.tangwangwang.spring.data.ultipa.core;
 
 import com.tangwangwang.spring.data.ultipa.annotation.CascadeType;
 import com.tangwangwang.spring.data.ultipa.core.convert.UltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.exception.BulkWriteException;
 import com.tangwangwang.spring.data.ultipa.core.exception.QueryException;
 import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
 import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentEntity;
 import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
 import com.tangwangwang.spring.data.ultipa.core.mapping.event.BeforeConvertCallback;
 import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaSystemProperty;
+import com.tangwangwang.spring.data.ultipa.core.proxy.UltipaAdjacencyCache;
+import com.tangwangwang.spring.data.ultipa.core.query.PreparedQuery;
 import com.tangwangwang.spring.data.ultipa.core.query.Query;
 import com.tangwangwang.spring.data.ultipa.core.schema.EdgeSchema;
 import com.tangwangwang.spring.data.ultipa.core.schema.NodeSchema;
 import com.tangwangwang.spring.data.ultipa.core.schema.PersistSchema;
 import com.tangwangwang.spring.data.ultipa.core.schema.Schema;
-import com.tangwangwang.spring.data.ultipa.repository.support.UltipaEntityInformation;
 import com.tangwangwang.spring.data.ultipa.repository.support.UltipaEntityInformationSupport;
+import com.tangwangwang.spring.data.ultipa.repository.support.UltipaEntityStatements;
 import com.ultipa.Ultipa;
 import com.ultipa.sdk.connect.Connection;
+import com.ultipa.sdk.connect.conf.InsertRequestConfig;
 import com.ultipa.sdk.connect.conf.RequestConfig;
 import com.ultipa.sdk.connect.driver.UltipaClientDriver;
 import com.ultipa.sdk.operate.entity.*;
 import com.ultipa.sdk.operate.exception.UqlExecutionException;
+import com.ultipa.sdk.operate.response.InsertResponse;
 import com.ultipa.sdk.operate.response.Response;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -40,7 +46,10 @@ import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of {@link UltipaOperations} using the new Ultipa client.
@@ -48,19 +57,25 @@ import java.util.stream.Collectors;
  * @author Wangwang Tang
  * @since 1.0
  */
-public class UltipaTemplate implements UltipaOperations, ApplicationContextAware, InitializingBean {
+public class UltipaTemplate implements UltipaOperations, ApplicationContextAware, InitializingBean, DisposableBean {
 
     private final static String ENTITY_MUST_NOT_BE_NULL = "Entity must not be null!";
-    private final static String FIND_NODES_UQL = "find().nodes({ %s }) as nodes return nodes{*}";
-    private final static String FIND_EDGES_UQL = "find().edges({ %s }) as edges return edges{*}";
-    private final static String REMOVE_NODES_UQL = "delete().nodes({ %s })";
-    private final static String REMOVE_EDGES_UQL = "delete().edges({ %s })";
+    private final static String INSERT_NODES_UQL = "insert().into(@%s).nodes([ %s ]) as nodes return nodes{*}";
+    private final static String INSERT_EDGES_UQL = "insert().into(@%s).edges([ %s ]) as edges return edges{*}";
+    private final static String INSERT_VALUE_DELIMITER = ", ";
+    private final static int DEFAULT_BATCH_SIZE = 1000;
+    private final static int DEFAULT_MAX_UQL_LENGTH = 4 * 1024 * 1024;
     private static final SpelExpressionParser PARSER = new SpelExpressionParser(new SpelParserConfiguration(true, true));
     private final UltipaClientDriver clientDriver;
     private final MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> mappingContext;
     private final UltipaConverter converter;
     private final boolean useLeader;
     private @Nullable EntityCallbacks entityCallbacks;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int maxUqlLength = DEFAULT_MAX_UQL_LENGTH;
+    private AsyncUltipaTemplate asyncOperations;
+    private final Map<Class<?>, UltipaEntityStatements<?, Object>> statements = new ConcurrentHashMap<>();
+    private final UltipaAdjacencyCache adjacencyCache = new UltipaAdjacencyCache();
 
     public UltipaTemplate(UltipaClientDriver clientDriver, UltipaConverter converter) {
         this(clientDriver, converter, false);
@@ -75,6 +90,43 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
         this.converter = converter;
         this.mappingContext = converter.getMappingContext();
         this.useLeader = useLeader;
+        this.asyncOperations = new AsyncUltipaTemplate(this);
+    }
+
+    /**
+     * Configures the maximum number of entities rendered into one multi-row insert by {@link #saveAll(Iterable)}.
+     * Defaults to 1000.
+     *
+     * @param batchSize must be greater than zero.
+     */
+    public void setBatchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0, "Batch size must be greater than 0!");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Configures the maximum size in bytes of a multi-row insert rendered by {@link #saveAll(Iterable)}. A chunk is
+     * split before it grows beyond this size, so it should not exceed the maximum message size of the client driver.
+     * Defaults to 4 MB.
+     *
+     * @param maxUqlLength must be greater than zero.
+     */
+    public void setMaxUqlLength(int maxUqlLength) {
+        Assert.isTrue(maxUqlLength > 0, "Max uql length must be greater than 0!");
+        this.maxUqlLength = maxUqlLength;
+    }
+
+    /**
+     * Configures the {@link Executor} used by {@link #async()}. Defaults to virtual threads when running on JDK 21 or
+     * later, otherwise to a cached pool of daemon threads which is shut down when this template is destroyed. The
+     * given executor is not shut down by this template.
+     *
+     * @param asyncExecutor must not be {@literal null}.
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        AsyncUltipaTemplate previous = this.asyncOperations;
+        this.asyncOperations = new AsyncUltipaTemplate(this, asyncExecutor);
+        previous.destroy();
     }
 
     @Override
@@ -128,6 +180,16 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
         return new AnonymityQuery(this, uql, PARSER, paramMap, pageable, sortPrefix);
     }
 
+    @Override
+    public PreparedQuery prepare(String uql) {
+        return PreparedQuery.of(this, uql, PARSER, null);
+    }
+
+    @Override
+    public PreparedQuery prepare(String uql, @Nullable String sortPrefix) {
+        return PreparedQuery.of(this, uql, PARSER, sortPrefix);
+    }
+
     @Override
     public <T> T save(T entity) {
         return doSave(entity, true);
@@ -138,16 +200,140 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
         return doSave(entity, false);
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> T doSave(T entity, boolean isNew) {
-        Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
+    @Override
+    public <T> List<T> saveAll(Iterable<T> entities) {
+        Assert.notNull(entities, "Entities must not be null!");
 
-        Class<?> entityType = ClassUtils.getUserClass(entity);
-        UltipaPersistentEntity<T> entityMetadata = (UltipaPersistentEntity<T>) mappingContext.getRequiredPersistentEntity(entityType);
+        List<T> result = new ArrayList<>();
+        Map<String, List<PendingSave<T>>> nodeBatches = new LinkedHashMap<>();
+        Map<String, List<PendingSave<T>>> edgeBatches = new LinkedHashMap<>();
 
-        if (!entityMetadata.isSchema()) {
-            throw new IllegalArgumentException(String.format("%s must be a valid Node or a valid Edge!", entityType.getName()));
+        for (T entity : entities) {
+            Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
+
+            UltipaPersistentEntity<T> entityMetadata = getRequiredSchemaEntity(entity);
+            int index = result.size();
+            result.add(null);
+
+            if (!entityMetadata.isNew(entity)) {
+                doSaveBatches(INSERT_NODES_UQL, nodeBatches, result);
+                doSaveBatches(INSERT_EDGES_UQL, edgeBatches, result);
+                result.set(index, doSave(entity, entityMetadata, CascadeType.UPDATE));
+                continue;
+            }
+
+            if (entityMetadata.isNode()) {
+                NodeSchema node = NodeSchema.of(entity);
+                this.converter.write(entity, node, CascadeType.PERSIST);
+
+                // nodes with cascaded references must be saved in order together with their edges
+                if (node.around().findAny().isPresent()) {
+                    doSaveBatches(INSERT_NODES_UQL, nodeBatches, result);
+                    doSaveBatches(INSERT_EDGES_UQL, edgeBatches, result);
+                    result.set(index, this.converter.read(entityMetadata.getType(), doSaveNode(node)));
+                    continue;
+                }
+
+                preparePersistSchema(node);
+                nodeBatches.computeIfAbsent(entityMetadata.getSchemaName(), key -> new ArrayList<>())
+                        .add(new PendingSave<>(index, entityMetadata, node));
+            } else {
+                EdgeSchema edge = EdgeSchema.of(entity);
+                this.converter.write(entity, edge, CascadeType.PERSIST);
+
+                // persist from and to, they may reference nodes saved by the pending batches
+                doSaveBatches(INSERT_NODES_UQL, nodeBatches, result);
+                edge.around().forEach(this::doSaveNode);
+
+                preparePersistSchema(edge);
+                edgeBatches.computeIfAbsent(entityMetadata.getSchemaName(), key -> new ArrayList<>())
+                        .add(new PendingSave<>(index, entityMetadata, edge));
+            }
+        }
+
+        doSaveBatches(INSERT_NODES_UQL, nodeBatches, result);
+        doSaveBatches(INSERT_EDGES_UQL, edgeBatches, result);
+        return result;
+    }
+
+    private <T> void doSaveBatches(String template, Map<String, List<PendingSave<T>>> batches, List<T> result) {
+        batches.forEach((schemaName, batch) -> doSaveBatch(template, schemaName, batch, result));
+        batches.clear();
+    }
+
+    private <T> void doSaveBatch(String template, String schemaName, List<PendingSave<T>> batch, List<T> result) {
+        int templateLength = getUtf8Length(String.format(template, schemaName, ""));
+        List<PendingSave<T>> chunk = new ArrayList<>();
+        StringJoiner values = new StringJoiner(INSERT_VALUE_DELIMITER);
+        int chunkLength = templateLength;
+
+        for (PendingSave<T> pendingSave : batch) {
+            String value = pendingSave.schema.toValueUqlString();
+            int valueLength = getUtf8Length(value) + INSERT_VALUE_DELIMITER.length();
+
+            if (!chunk.isEmpty() && (chunk.size() >= batchSize || chunkLength + valueLength > maxUqlLength)) {
+                doSaveChunk(String.format(template, schemaName, values), chunk, result);
+                chunk = new ArrayList<>();
+                values = new StringJoiner(INSERT_VALUE_DELIMITER);
+                chunkLength = templateLength;
+            }
+
+            chunk.add(pendingSave);
+            values.add(value);
+            chunkLength += valueLength;
+        }
+
+        if (!chunk.isEmpty()) {
+            doSaveChunk(String.format(template, schemaName, values), chunk, result);
         }
+    }
+
+    private <T> void doSaveChunk(String uql, List<PendingSave<T>> chunk, List<T> result) {
+        List<Schema> savedSchemas = doExecute(uql);
+        if (savedSchemas.size() != chunk.size()) {
+            throw new QueryException(String.format("Persist entities error, expected %s rows but got %s.", chunk.size(),
+                    savedSchemas.size()), uql);
+        }
+
+        for (int index = 0; index < chunk.size(); index++) {
+            PendingSave<T> pendingSave = chunk.get(index);
+            Schema savedSchema = savedSchemas.get(index);
+
+            pendingSave.schema.setSystemUuid((Long) savedSchema.get(UltipaSystemProperty.UUID.getMappedName()));
+            if (pendingSave.schema instanceof NodeSchema) {
+                ((NodeSchema) pendingSave.schema).setSystemId((String) savedSchema.get(UltipaSystemProperty.ID.getMappedName()));
+            }
+            pendingSave.schema.persisted();
+            if (pendingSave.schema instanceof EdgeSchema) {
+                evictAdjacency((EdgeSchema) pendingSave.schema);
+            }
+
+            result.set(pendingSave.index, this.converter.read(pendingSave.entityMetadata.getType(), savedSchema));
+        }
+    }
+
+    private static int getUtf8Length(CharSequence value) {
+        int length = 0;
+        for (int index = 0; index < value.length(); index++) {
+            char c = value.charAt(index);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                index++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private <T> T doSave(T entity, boolean isNew) {
+        Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
+
+        UltipaPersistentEntity<T> entityMetadata = getRequiredSchemaEntity(entity);
 
         if (isNew != entityMetadata.isNew(entity)) {
             String message = isNew ? "Entity must be new object!" : "Entity must not be new object!";
@@ -156,6 +342,17 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
         return doSave(entity, entityMetadata, isNew ? CascadeType.PERSIST : CascadeType.UPDATE);
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> UltipaPersistentEntity<T> getRequiredSchemaEntity(T entity) {
+        Class<?> entityType = ClassUtils.getUserClass(entity);
+        UltipaPersistentEntity<T> entityMetadata = (UltipaPersistentEntity<T>) mappingContext.getRequiredPersistentEntity(entityType);
+
+        if (!entityMetadata.isSchema()) {
+            throw new IllegalArgumentException(String.format("%s must be a valid Node or a valid Edge!", entityType.getName()));
+        }
+        return entityMetadata;
+    }
+
     private <T> T doSave(T entity, UltipaPersistentEntity<T> entityMetadata, CascadeType cascade) {
         Schema savedSchema = null;
         if (entityMetadata.isNode()) {
@@ -207,15 +404,31 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
         Long uuid = (Long) savedSchema.get(UltipaSystemProperty.UUID.getMappedName());
         edge.setSystemUuid(uuid);
         edge.persisted();
+        evictAdjacency(edge);
 
         return savedSchema;
     }
 
-    private Schema doSavePersistSchema(PersistSchema schema) {
-        Object entity = maybeCallBeforeConvert(schema.getSource(), schema.getSchema());
-        if (entity != null) {
-            this.converter.write(entity, schema);
+    /**
+     * Evicts the cached targets of the endpoints of the given saved edge.
+     */
+    private void evictAdjacency(EdgeSchema edge) {
+        adjacencyCache.evictEdge(edge.getSchema(), edge.from().getSchema(), getEntityId(edge.from().getSource()),
+                edge.to().getSchema(), getEntityId(edge.to().getSource()));
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private Object getEntityId(@Nullable Object entity) {
+        if (entity == null) {
+            return null;
         }
+        Class<Object> entityType = (Class<Object>) ClassUtils.getUserClass(entity);
+        return getStatements(entityType).getInformation().getId(entity);
+    }
+
+    private Schema doSavePersistSchema(PersistSchema schema) {
+        preparePersistSchema(schema);
 
         String uql = schema.toUqlString();
         List<Schema> result = doExecute(uql);
@@ -230,8 +443,15 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
         return result.get(0);
     }
 
+    private void preparePersistSchema(PersistSchema schema) {
+        Object entity = maybeCallBeforeConvert(schema.getSource(), schema.getSchema());
+        if (entity != null) {
+            this.converter.write(entity, schema);
+        }
+    }
+
     @Nullable
-    private <T> T maybeCallBeforeConvert(@Nullable T entity, @Nullable String schema) {
+    <T> T maybeCallBeforeConvert(@Nullable T entity, @Nullable String schema) {
         if (entity == null) {
             return null;
         }
@@ -243,68 +463,92 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
         return entity;
     }
 
+    @Override
+    public UltipaBulkOperations bulkOps(UltipaBulkOperations.InsertType insertType, Class<?> entityClass) {
+        Assert.notNull(entityClass, "EntityClass must not be null!");
+
+        UltipaPersistentEntity<?> entityMetadata = mappingContext.getRequiredPersistentEntity(entityClass);
+        if (!entityMetadata.isSchema()) {
+            throw new IllegalArgumentException(String.format("%s must be a valid Node or a valid Edge!", entityClass.getName()));
+        }
+        return new DefaultUltipaBulkOperations(this, entityMetadata, insertType, batchSize);
+    }
+
+    InsertResponse doInsertNodes(com.ultipa.sdk.operate.entity.Schema schema, List<Node> nodes, Ultipa.InsertType insertType) {
+        try {
+            Connection connection = clientDriver.getConnection();
+            InsertResponse response = connection.insertNodesBatchBySchema(schema, nodes, createInsertRequestConfig(connection, insertType));
+            return checkInsertResponse(response, schema);
+        } catch (UqlExecutionException e) {
+            throw new BulkWriteException(e.getErrorMsg(), e, schema.getName());
+        }
+    }
+
+    InsertResponse doInsertEdges(com.ultipa.sdk.operate.entity.Schema schema, List<Edge> edges, Ultipa.InsertType insertType) {
+        try {
+            Connection connection = clientDriver.getConnection();
+            InsertResponse response = connection.insertEdgesBatchBySchema(schema, edges, createInsertRequestConfig(connection, insertType));
+            return checkInsertResponse(response, schema);
+        } catch (UqlExecutionException e) {
+            throw new BulkWriteException(e.getErrorMsg(), e, schema.getName());
+        } finally {
+            // a failed batch may still have inserted some of the edges
+            adjacencyCache.evictSchema(schema.getName());
+        }
+    }
+
+    private InsertRequestConfig createInsertRequestConfig(Connection connection, Ultipa.InsertType insertType) {
+        InsertRequestConfig insertRequestConfig = new InsertRequestConfig();
+        insertRequestConfig.setInsertType(insertType);
+        if (useLeader) {
+            insertRequestConfig.setUseMaster(true).setHost(connection.getLeader().getHost());
+        }
+        return insertRequestConfig;
+    }
+
+    private InsertResponse checkInsertResponse(InsertResponse response, com.ultipa.sdk.operate.entity.Schema schema) {
+        if (response.getStatus().getErrorCode() != Ultipa.ErrorCode.SUCCESS) {
+            throw new BulkWriteException(String.format("error code: %s, message: %s", response.getStatus().getErrorCode(),
+                    response.getStatus().getMsg()), schema.getName());
+        }
+        return response;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <T> void remove(T entity) {
         Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
 
         Class<T> entityType = (Class<T>) ClassUtils.getUserClass(entity);
-        UltipaEntityInformation<T, Object> information = UltipaEntityInformationSupport.getEntityInformation(entityType, this);
-        Object id = information.getId(entity);
+        UltipaEntityStatements<T, Object> statements = getStatements(entityType);
+        Object id = statements.getInformation().getId(entity);
         if (id == null) {
             return;
         }
 
-        String schemaFilter = "@" + information.getSchemaName();
-        String idFilter = generateIdFilter(information, schemaFilter);
-        Map<String, Object> paramMap = new HashMap<>();
-        paramMap.put("id", id);
-        if (information.isNode()) {
-            createQuery(String.format(REMOVE_NODES_UQL, schemaFilter + " && " + idFilter), paramMap).execute();
-        } else {
-            createQuery(String.format(REMOVE_EDGES_UQL, schemaFilter + " && " + idFilter), paramMap).execute();
-        }
+        statements.deleteById(id).execute();
+        adjacencyCache.evictSchema(statements.getInformation().getSchemaName());
     }
 
     @Override
     public <T> T getById(Object id, Class<T> entityClass) {
-        UltipaEntityInformation<T, Object> information = UltipaEntityInformationSupport.getEntityInformation(entityClass, this);
-        String schemaFilter = "@" + information.getSchemaName();
-        String idFilter = generateIdFilter(information, schemaFilter);
-        Map<String, Object> paramMap = new HashMap<>();
-        paramMap.put("id", id);
-        if (information.isNode()) {
-            return createQuery(String.format(FIND_NODES_UQL, schemaFilter + " && " + idFilter), paramMap).findOne(entityClass);
-        } else {
-            return createQuery(String.format(FIND_EDGES_UQL, schemaFilter + " && " + idFilter), paramMap).findOne(entityClass);
-        }
-    }
-
-    private <T> String generateIdFilter(UltipaEntityInformation<T, Object> information, String schemaFilter) {
-        String idFilter;
-        if (information.isSystemId()) {
-            idFilter = information.getIdPropertyName() + " == #{id} ";
-        } else {
-            idFilter = schemaFilter + "." + information.getIdPropertyName() + " == #{id} ";
-        }
-        return idFilter;
+        return getStatements(entityClass).findById(id).findOne(entityClass);
     }
 
     @Override
     public <T> boolean existsById(Object id, Class<T> entityClass) {
-        return getById(id, entityClass) != null;
+        return getStatements(entityClass).existsById(id).exists();
     }
 
     @Override
     public <T> List<T> getAll(Class<T> entityClass) {
-        UltipaEntityInformation<T, Object> information = UltipaEntityInformationSupport.getEntityInformation(entityClass, this);
-        String schemaFilter = "@" + information.getSchemaName();
+        return getStatements(entityClass).findAll().findAll(entityClass);
+    }
 
-        if (information.isNode()) {
-            return createQuery(String.format(FIND_NODES_UQL, schemaFilter)).findAll(entityClass);
-        } else {
-            return createQuery(String.format(FIND_EDGES_UQL, schemaFilter)).findAll(entityClass);
-        }
+    @SuppressWarnings("unchecked")
+    private <T> UltipaEntityStatements<T, Object> getStatements(Class<T> entityClass) {
+        return (UltipaEntityStatements<T, Object>) statements.computeIfAbsent(entityClass, type ->
+                new UltipaEntityStatements<>(UltipaEntityInformationSupport.getEntityInformation(type, this), this));
     }
 
     @Override
@@ -314,7 +558,7 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
 
     @Override
     public <T> T findOne(String uql, Class<T> entityClass) {
-        List<Schema> schemas = doExecute(uql);
+        List<Schema> schemas = doExecuteAtMost(uql, 2);
         if (schemas.size() > 1) {
             throw new IncorrectResultSizeDataAccessException(1, schemas.size());
         }
@@ -323,13 +567,17 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
 
     @Override
     public <T> List<T> findAll(String uql, Class<T> entityClass) {
-        List<Schema> schemas = doExecute(uql);
-        return schemas.stream().map(schema -> this.converter.read(entityClass, schema)).collect(Collectors.toList());
+        return this.converter.readAll(entityClass, doStream(uql));
+    }
+
+    @Override
+    public <T> Stream<T> stream(String uql, Class<T> entityClass) {
+        return doStream(uql).map(schema -> this.converter.read(entityClass, schema));
     }
 
     @Override
     public Map<String, Object> findOne(String uql) {
-        List<Schema> schemas = doExecute(uql);
+        List<Schema> schemas = doExecuteAtMost(uql, 2);
         if (schemas.size() > 1) {
             throw new IncorrectResultSizeDataAccessException(1, schemas.size());
         }
@@ -338,13 +586,12 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
 
     @Override
     public List<Map<String, Object>> findAll(String uql) {
-        List<Schema> schemas = doExecute(uql);
-        return schemas.stream().map(this.converter::readMap).collect(Collectors.toList());
+        return doStream(uql).map(this.converter::readMap).collect(Collectors.toList());
     }
 
     @Override
     public List<Object> findArray(String uql) {
-        List<Schema> schemas = doExecute(uql);
+        List<Schema> schemas = doExecuteAtMost(uql, 2);
         if (schemas.size() > 1) {
             throw new IncorrectResultSizeDataAccessException(1, schemas.size());
         }
@@ -353,11 +600,42 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
 
     @Override
     public List<List<Object>> findArrays(String uql) {
-        List<Schema> schemas = doExecute(uql);
-        return schemas.stream().map(this.converter::readArray).collect(Collectors.toList());
+        return doStream(uql).map(this.converter::readArray).collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<String, List<Schema>> findAllByAlias(String uql) {
+        Map<String, List<Schema>> result = new LinkedHashMap<>();
+        doQuery(uql).forEach((alias, dataItem) -> result.put(alias, convertSchema(dataItem).collect(Collectors.toList())));
+        result.values().forEach(schemas -> UltipaStatistics.recordRows(schemas.size()));
+        return result;
     }
 
     private List<Schema> doExecute(String uql) {
+        return doStream(uql).collect(Collectors.toList());
+    }
+
+    /**
+     * Converts at most the given number of rows, enough to tell a single result from an ambiguous one.
+     */
+    private List<Schema> doExecuteAtMost(String uql, int limit) {
+        return doStream(uql).limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * Executes the uql and returns the results as a lazily converted {@link Stream}, each returned entity is converted
+     * into a {@link Schema} only when the stream reaches it. The response itself is received in full by the client.
+     */
+    private Stream<Schema> doStream(String uql) {
+        Stream<Schema> stream = doQuery(uql).values().stream()
+                .flatMap(this::convertSchema);
+        // the stream may be consumed after the scope of the current thread is closed
+        UltipaStatistics statistics = UltipaStatistics.current();
+        return statistics == null ? stream : stream.peek(schema -> statistics.recordRow());
+    }
+
+    private Map<String, DataItem> doQuery(String uql) {
+        UltipaStatistics.recordQuery();
         try {
             Connection connection = clientDriver.getConnection();
             Response response;
@@ -376,43 +654,38 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
             }
 
             if (CollectionUtils.isEmpty(response.getItems())) {
-                return Collections.emptyList();
+                return Collections.emptyMap();
             }
 
-            return response.getItems().values().stream()
-                    .map(this::convertSchema)
-                    .flatMap(Collection::stream)
-                    .collect(Collectors.toList());
+            return response.getItems();
         } catch (UqlExecutionException e) {
             throw new QueryException(e.getErrorMsg(), e, uql);
         }
     }
 
-    private List<Schema> convertSchema(DataItem dataItem) {
+    private Stream<Schema> convertSchema(DataItem dataItem) {
         if (CollectionUtils.isEmpty(dataItem.getEntities())) {
-            return Collections.emptyList();
+            return Stream.empty();
         }
-        List<Schema> result = new ArrayList<>();
-        dataItem.getEntities().forEach(uqlEntity -> {
+        return dataItem.getEntities().stream().flatMap(uqlEntity -> {
             if (uqlEntity instanceof Node) {
-                result.add(Schema.of((Node) uqlEntity));
+                return Stream.of(Schema.of((Node) uqlEntity));
             }
             if (uqlEntity instanceof Edge) {
-                result.add(Schema.of((Edge) uqlEntity));
+                return Stream.of(Schema.of((Edge) uqlEntity));
             }
             if (uqlEntity instanceof Attr) {
                 String name = ((Attr) uqlEntity).getName();
-                List<Schema> mapList = ((Attr) uqlEntity).getValues().stream()
+                return ((Attr) uqlEntity).getValues().stream()
                         .map(value -> {
                             Map<String, Object> map = new HashMap<>();
                             map.put(name, value);
                             return Schema.of(map);
-                        }).collect(Collectors.toList());
-                result.addAll(mapList);
+                        });
             }
             if (uqlEntity instanceof Table) {
                 List<String> headers = ((Table) uqlEntity).getHeaders().stream().map(Header::getPropertyName).collect(Collectors.toList());
-                List<Schema> mapList = ((Table) uqlEntity).getRows().stream()
+                return ((Table) uqlEntity).getRows().stream()
                         .map(row -> {
                             Map<String, Object> map = new HashMap<>();
                             for (int index = 0; index < headers.size(); index++) {
@@ -421,15 +694,15 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
                                 }
                             }
                             return Schema.of(map);
-                        })
-                        .collect(Collectors.toList());
-                result.addAll(mapList);
+                        });
             }
             if (uqlEntity instanceof UqlArray) {
+                List<Schema> result = new ArrayList<>();
                 ((UqlArray) uqlEntity).forEach(element -> result.add(Schema.of(element)));
+                return result.stream();
             }
+            return Stream.empty();
         });
-        return result;
     }
 
     @Override
@@ -448,11 +721,39 @@ public class UltipaTemplate implements UltipaOperations, ApplicationContextAware
         }
     }
 
+    @Override
+    public void destroy() {
+        this.asyncOperations.destroy();
+    }
+
+    @Override
+    public AsyncUltipaOperations async() {
+        return asyncOperations;
+    }
+
     @Override
     public UltipaConverter getConverter() {
         return converter;
     }
 
+    @Override
+    public UltipaAdjacencyCache getAdjacencyCache() {
+        return adjacencyCache;
+    }
+
+    private static final class PendingSave<T> {
+
+        private final int index;
+        private final UltipaPersistentEntity<T> entityMetadata;
+        private final PersistSchema schema;
+
+        private PendingSave(int index, UltipaPersistentEntity<T> entityMetadata, PersistSchema schema) {
+            this.index = index;
+            this.entityMetadata = entityMetadata;
+            this.schema = schema;
+        }
+    }
+
     static class AnonymityQuery extends Query {
 
         protected AnonymityQuery(UltipaOperations operations, String queryString, @Nullable ExpressionParser parser,
@@ -10,13 +10,12 @@ import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty
 import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaEnumTypeHolder;
 import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaPropertyTypeHolder;
 import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaSystemProperty;
+import com.tangwangwang.spring.data.ultipa.core.proxy.UltipaBatchLoader;
 import com.tangwangwang.spring.data.ultipa.core.proxy.UltipaProxy;
 import com.tangwangwang.spring.data.ultipa.core.proxy.UltipaProxyFactory;
 import com.tangwangwang.spring.data.ultipa.core.schema.*;
 import org.springframework.beans.BeanUtils;
-import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.BeansException;
-import org.springframework.beans.PropertyAccessor;
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.context.ApplicationContext;
@@ -59,6 +58,7 @@ import java.util.stream.Stream;
 public class MappingUltipaConverter extends AbstractUltipaConverter implements ApplicationContextAware, BeanClassLoaderAware {
 
     private static final String INVALID_TYPE_TO_READ = "Expected to read Document %s into type %s but didn't find a PersistentEntity for the latter!";
+    private static final int DEFAULT_LAZY_LOADING_BATCH_SIZE = 100;
 
     private final Map<Class<? extends IdGenerator<?>>, IdGenerator<?>> idGenerators = new ConcurrentHashMap<>();
     private final MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> mappingContext;
@@ -70,6 +70,10 @@ public class MappingUltipaConverter extends AbstractUltipaConverter implements A
     private final SpelAwareProxyProjectionFactory projectionFactory;
     private @Nullable ApplicationContext applicationContext;
     private @Nullable AutowireCapableBeanFactory beanFactory;
+    private int lazyLoadingBatchSize = DEFAULT_LAZY_LOADING_BATCH_SIZE;
+    private final Map<UltipaPersistentEntity<?>, EntityReader<?>> readers = new ConcurrentHashMap<>();
+    private final Map<UltipaPersistentEntity<?>, EntityWriter> writers = new ConcurrentHashMap<>();
+    private @Nullable UltipaOperations operations;
 
     public MappingUltipaConverter(MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> mappingContext) {
         this(mappingContext, null);
@@ -90,6 +94,7 @@ public class MappingUltipaConverter extends AbstractUltipaConverter implements A
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
+        this.operations = null;
         this.beanFactory = applicationContext.getAutowireCapableBeanFactory();
         this.projectionFactory.setBeanFactory(applicationContext);
     }
@@ -99,6 +104,24 @@ public class MappingUltipaConverter extends AbstractUltipaConverter implements A
         this.projectionFactory.setBeanClassLoader(classLoader);
     }
 
+    /**
+     * Set the maximum number of entities of a read batch whose lazy loading reference is loaded by one query,
+     * defaults to {@value #DEFAULT_LAZY_LOADING_BATCH_SIZE}. A batch size of {@literal 1} loads every reference on
+     * its own.
+     *
+     * @param lazyLoadingBatchSize must be greater than zero.
+     */
+    public void setLazyLoadingBatchSize(int lazyLoadingBatchSize) {
+        Assert.isTrue(lazyLoadingBatchSize > 0, "Lazy loading batch size must be greater than 0!");
+
+        this.lazyLoadingBatchSize = lazyLoadingBatchSize;
+    }
+
+    @Override
+    public int getLazyLoadingBatchSize() {
+        return lazyLoadingBatchSize;
+    }
+
     @Override
     public MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> getMappingContext() {
         return mappingContext;
@@ -112,11 +135,41 @@ public class MappingUltipaConverter extends AbstractUltipaConverter implements A
     @SuppressWarnings("unchecked")
     @Override
     public <R> R read(Class<R> type, Schema source) {
-        return read(ClassTypeInformation.from((Class<R>) ClassUtils.getUserClass(type)), source);
+        return read(ClassTypeInformation.from((Class<R>) ClassUtils.getUserClass(type)), source, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <R> List<R> readAll(Class<R> type, List<Schema> sources) {
+        TypeInformation<R> typeHint = ClassTypeInformation.from((Class<R>) ClassUtils.getUserClass(type));
+        UltipaBatchLoader loader = sources.size() > 1 ? new UltipaBatchLoader(lazyLoadingBatchSize) : null;
+
+        List<R> result = new ArrayList<>(sources.size());
+        for (Schema source : sources) {
+            result.add(read(typeHint, source, loader));
+        }
+        if (loader != null) {
+            loader.loadDeferred();
+        }
+        return result;
+    }
+
+    @Override
+    public <R> List<R> readAll(Class<R> type, Stream<Schema> sources) {
+        List<R> result = new ArrayList<>();
+        List<Schema> window = new ArrayList<>(lazyLoadingBatchSize);
+        for (Iterator<Schema> iterator = sources.iterator(); iterator.hasNext(); ) {
+            window.add(iterator.next());
+            if (window.size() == lazyLoadingBatchSize || !iterator.hasNext()) {
+                result.addAll(readAll(type, window));
+                window.clear();
+            }
+        }
+        return result;
     }
 
     @SuppressWarnings("unchecked")
-    private <R> R read(TypeInformation<R> typeHint, Schema source) {
+    private <R> R read(TypeInformation<R> typeHint, Schema source, @Nullable UltipaBatchLoader loader) {
 
         TypeInformation<? extends R> typeToUse = typeMapper.readType(source, typeHint);
         Class<? extends R> rawType = typeToUse.getType();
@@ -150,7 +203,7 @@ public class MappingUltipaConverter extends AbstractUltipaConverter implements A
             throw new MappingException(String.format(INVALID_TYPE_TO_READ, source, typeToUse.getType()));
         }
 
-        return readEntity((UltipaPersistentEntity<R>) entity, source);
+        return readEntity((UltipaPersistentEntity<R>) entity, source, loader);
     }
 
     @Override
@@ -170,60 +223,10 @@ public class MappingUltipaConverter extends AbstractUltipaConverter implements A
         return projectionFactory.createProjection(type, schema.toMap());
     }
 
-    private <R> R readEntity(UltipaPersistentEntity<R> entity, Schema source) {
-        SpELExpressionEvaluator evaluator = new DefaultSpELExpressionEvaluator(source, spELContext);
-        SchemaAccessor accessor = new SchemaAccessor(source);
-
-        InstanceCreatorMetadata<?> creatorMetadata = entity.getInstanceCreatorMetadata();
-
-        ParameterValueProvider<UltipaPersistentProperty> provider = creatorMetadata != null
-                && creatorMetadata.hasParameters() ? getParameterProvider(entity, accessor, evaluator)
-                : NoOpParameterValueProvider.INSTANCE;
-
-        EntityInstantiator instantiator = instantiators.getInstantiatorFor(entity);
-        R instance = instantiator.createInstance(entity, provider);
-
-        if (entity.requiresPropertyPopulation()) {
-            UltipaPropertyValueProvider valueProvider = new UltipaPropertyValueProvider(accessor, evaluator);
-            return populateSimpleProperties(entity, valueProvider, instance);
-        }
-
-        return instance;
-    }
-
-    private <R> R populateSimpleProperties(UltipaPersistentEntity<R> entity,
-                                           PropertyValueProvider<UltipaPersistentProperty> valueProvider, R instance) {
-
-        PersistentPropertyAccessor<R> accessor = new ConvertingPropertyAccessor<>(entity.getPropertyAccessor(instance),
-                conversionService);
-
-        for (UltipaPersistentProperty prop : entity) {
-            // filter from property and to property
-            if (prop.isReferenceProperty()) {
-                continue;
-            }
-
-            // set property value
-            accessor.setProperty(prop, valueProvider.getPropertyValue(prop));
-        }
-        return populateLazyLoadingProperties(entity, accessor.getBean());
-    }
-
-    private <R> R populateLazyLoadingProperties(UltipaPersistentEntity<R> entity, R instance) {
-        PersistentPropertyAccessor<R> accessor = entity.getPropertyAccessor(instance);
-        for (UltipaPersistentProperty prop : entity) {
-            // Handling from property and to property and schema property
-            if (prop.isReferenceProperty() && applicationContext != null) {
-                UltipaOperations ultipaOperations = applicationContext.getBean(UltipaOperations.class);
-                Object lazyLoadingProxy = this.proxyFactory.createLazyLoadingProxy(ultipaOperations, prop, instance);
-                if (prop.getFetchType() == FetchType.EAGER) {
-                    accessor.setProperty(prop, UltipaProxy.getTarget(lazyLoadingProxy));
-                } else {
-                    accessor.setProperty(prop, lazyLoadingProxy);
-                }
-            }
-        }
-        return accessor.getBean();
+    @SuppressWarnings("unchecked")
+    private <R> R readEntity(UltipaPersistentEntity<R> entity, Schema source, @Nullable UltipaBatchLoader loader) {
+        EntityReader<R> reader = (EntityReader<R>) readers.computeIfAbsent(entity, EntityReader::new);
+        return reader.read(source, loader);
     }
 
     private ParameterValueProvider<UltipaPersistentProperty> getParameterProvider(
@@ -262,29 +265,23 @@ public class MappingUltipaConverter extends AbstractUltipaConverter implements A
             return value;
         }
         Class<? extends Enum> rawType = (Class<? extends Enum>) property.getType();
+        UltipaEnumTypeHolder.EnumTable<?> enumTable = UltipaEnumTypeHolder.getEnumTable(rawType);
         EnumType enumeratedType = property.getRequiredEnumeratedType();
         switch (enumeratedType) {
             case FIELD:
-                if (UltipaEnumTypeHolder.hasEnumField(rawType)) {
-                    Field enumField = UltipaEnumTypeHolder.getRequiredEnumField(rawType);
+                Field enumField = enumTable.getField();
+                if (enumField != null) {
                     Object enumFieldValue = ClassUtils.isAssignable(rawType, value.getClass()) ? value
                             : conversionService.convert(value, enumField.getType());
-
-                    for (Enum constant : rawType.getEnumConstants()) {
-                        PropertyAccessor accessor = new BeanWrapperImpl(constant);
-                        Object propertyValue = accessor.getPropertyValue(enumField.getName());
-                        if (propertyValue != null && Objects.equals(enumFieldValue, propertyValue)) {
-                            return constant;
-                        }
-                    }
-                    throw new IllegalArgumentException(String.format("'%s' cannot be converted to %s", value, rawType));
+                    return enumTable.getConstantByFieldValue(enumFieldValue);
                 } else {
-                    return Enum.valueOf(rawType, value.toString());
+                    return enumTable.getConstantByName(value.toString());
                 }
             case NAME:
-                return Enum.valueOf(rawType, value.toString());
+                return enumTable.getConstantByName(value.toString());
             case ORDINAL:
-                return rawType.getEnumConstants()[Integer.parseInt(value.toString())];
+                return value instanceof Number ? enumTable.getConstantByOrdinal(((Number) value).intValue())
+                        : enumTable.getConstantByOrdinal(Integer.parseInt(value.toString()));
             default:
                 return null;
         }
@@ -311,30 +308,11 @@ public class MappingUltipaConverter extends AbstractUltipaConverter implements A
     }
 
     private void writeInternal(Object source, Schema sink, UltipaPersistentEntity<?> entity) {
-        PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(source);
-
-        for (UltipaPersistentProperty property : entity) {
-            Object value = accessor.getProperty(property);
-            writeProperty(source, sink, property, value);
-        }
+        writers.computeIfAbsent(entity, EntityWriter::new).write(source, sink);
     }
 
-    private void writeProperty(Object source, Schema sink, UltipaPersistentProperty property, @Nullable Object value) {
-        if (property.isReferenceProperty()) {
-            return;
-        }
-
-        if (!property.getOwner().isNew(source)) {
-            if (property.isCreatedProperty() || property.isReadonly()) {
-                return;
-            }
-        }
-
-        if (property.isIdProperty() && sink instanceof PersistSchema) {
-            writeIdValue(source, (PersistSchema) sink, property, value);
-            return;
-        }
-
+    @Nullable
+    private Object getPotentiallyConvertedWrite(UltipaPersistentProperty property, @Nullable Object value) {
         if (value != null && property.isEnumProperty()) {
             // noinspection unchecked
             Class<? extends Enum<?>> type = (Class<? extends Enum<?>>) property.getType();
@@ -350,10 +328,41 @@ public class MappingUltipaConverter extends AbstractUltipaConverter implements A
             }
         }
 
-        Object convertedValue = getPotentiallyConvertedSimpleWrite(value, property.getPropertyType());
+        return getPotentiallyConvertedSimpleWrite(value, property.getPropertyType());
+    }
 
-        String uqlValue = getPotentiallyConvertedUrlWrite(convertedValue, property.getPropertyType());
-        sink.put(property.getPropertyName(), uqlValue);
+    @Override
+    public void writeValues(Object source, Schema sink) {
+        UltipaPersistentEntity<?> entity = getUltipaPersistentEntity(source);
+        if (entity == null) {
+            return;
+        }
+
+        boolean isNew = entity.isNew(source);
+        PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(source);
+
+        for (UltipaPersistentProperty property : entity) {
+            if (property.isReferenceProperty()) {
+                continue;
+            }
+
+            if (!isNew && (property.isCreatedProperty() || property.isReadonly())) {
+                continue;
+            }
+
+            Object value = accessor.getProperty(property);
+            if (property.isIdProperty() && value == null) {
+                value = computeId(property, source);
+                if (value == null && !Optional.ofNullable(property.getSystemProperty()).map(UltipaSystemProperty::isUniqueIdentifier).orElse(false)) {
+                    throw new IllegalArgumentException(String.format("%s is the primary key of %s, neither generator reference nor generator class configured.",
+                            property.getPropertyName(), property.getOwner().getSchemaName()));
+                }
+            }
+
+            if (value != null) {
+                sink.put(property.getPropertyName(), getPotentiallyConvertedWrite(property, value));
+            }
+        }
     }
 
     private void writeIdValue(Object source, PersistSchema sink, UltipaPersistentProperty property, @Nullable Object idValue) {
@@ -592,19 +601,7 @@ public class MappingUltipaConverter extends AbstractUltipaConverter implements A
     @Nullable
     @SuppressWarnings({"unchecked", "rawtypes"})
     private Object getPotentiallyConvertedEnumWrite(Object value, Class<? extends Enum> type, EnumType enumType) {
-        switch (enumType) {
-            case FIELD:
-                if (UltipaEnumTypeHolder.hasEnumField(type)) {
-                    PropertyAccessor enumAccessor = new BeanWrapperImpl(value);
-                    return enumAccessor.getPropertyValue(UltipaEnumTypeHolder.getRequiredEnumField(type).getName());
-                }
-                return ((Enum<?>) value).name();
-            case NAME:
-                return ((Enum<?>) value).name();
-            case ORDINAL:
-                return ((Enum<?>) value).ordinal();
-        }
-        return value;
+        return UltipaEnumTypeHolder.getEnumTable(type).getValue((Enum) value, enumType);
     }
 
     @Nullable
@@ -790,6 +787,214 @@ public class MappingUltipaConverter extends AbstractUltipaConverter implements A
 
     }
 
+    /**
+     * Reads the rows of one entity type. The instantiator, the properties to populate and their conversions are
+     * resolved once per entity type instead of once per row, and the SpEL evaluator is only created for the entity
+     * types using expressions.
+     *
+     * @author Wangwang Tang
+     * @since 1.0
+     */
+    private class EntityReader<R> {
+
+        private final UltipaPersistentEntity<R> entity;
+        private final EntityInstantiator instantiator;
+        private final boolean hasCreatorParameters;
+        private final boolean usesExpressions;
+        private final boolean requiresPropertyPopulation;
+        private final List<PropertyReader> propertyReaders = new ArrayList<>();
+        private final List<UltipaPersistentProperty> referenceProperties = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        EntityReader(UltipaPersistentEntity<?> entity) {
+            this.entity = (UltipaPersistentEntity<R>) entity;
+            this.instantiator = instantiators.getInstantiatorFor(entity);
+
+            InstanceCreatorMetadata<?> creatorMetadata = entity.getInstanceCreatorMetadata();
+            this.hasCreatorParameters = creatorMetadata != null && creatorMetadata.hasParameters();
+            this.requiresPropertyPopulation = entity.requiresPropertyPopulation();
+
+            boolean usesExpressions = false;
+            for (UltipaPersistentProperty property : entity) {
+                if (property.isReferenceProperty()) {
+                    referenceProperties.add(property);
+                } else {
+                    propertyReaders.add(new PropertyReader(property));
+                    usesExpressions |= property.getSpelExpression() != null;
+                }
+            }
+            this.usesExpressions = usesExpressions;
+        }
+
+        R read(Schema source, @Nullable UltipaBatchLoader loader) {
+            SpELExpressionEvaluator evaluator = hasCreatorParameters || usesExpressions
+                    ? new DefaultSpELExpressionEvaluator(source, spELContext) : null;
+
+            ParameterValueProvider<UltipaPersistentProperty> provider = hasCreatorParameters
+                    // noinspection ConstantConditions
+                    ? getParameterProvider(entity, new SchemaAccessor(source), evaluator)
+                    : NoOpParameterValueProvider.INSTANCE;
+
+            R instance = instantiator.createInstance(entity, provider);
+            if (!requiresPropertyPopulation) {
+                return instance;
+            }
+
+            PersistentPropertyAccessor<R> accessor = entity.getPropertyAccessor(instance);
+            for (PropertyReader propertyReader : propertyReaders) {
+                propertyReader.read(source, evaluator, accessor);
+            }
+            populateLazyLoadingProperties(source, accessor, loader);
+            return accessor.getBean();
+        }
+
+        private void populateLazyLoadingProperties(Schema source, PersistentPropertyAccessor<R> accessor,
+                                                   @Nullable UltipaBatchLoader loader) {
+            if (referenceProperties.isEmpty() || applicationContext == null) {
+                return;
+            }
+
+            UltipaOperations ultipaOperations = getOperations(applicationContext);
+            R instance = accessor.getBean();
+            for (UltipaPersistentProperty prop : referenceProperties) {
+                // Handling from property and to property and schema property
+                // the row of an edge carries the ids of its from and to nodes
+                Object targetId = prop.isFromProperty() ? source.get(UltipaSystemProperty.FROM.getMappedName())
+                        : prop.isToProperty() ? source.get(UltipaSystemProperty.TO.getMappedName()) : null;
+                Object lazyLoadingProxy = proxyFactory.createLazyLoadingProxy(ultipaOperations, prop, instance, loader, targetId);
+                if (prop.getFetchType() == FetchType.EAGER && loader != null && !prop.isImmutable()) {
+                    // loaded with the same property of the other entities once the batch is read, setting an
+                    // immutable property creates a new instance after the read one is returned, so it is loaded now
+                    accessor.setProperty(prop, lazyLoadingProxy);
+                    loader.defer(() -> accessor.setProperty(prop, UltipaProxy.getTarget(lazyLoadingProxy)));
+                } else if (prop.getFetchType() == FetchType.EAGER) {
+                    accessor.setProperty(prop, UltipaProxy.getTarget(lazyLoadingProxy));
+                } else {
+                    accessor.setProperty(prop, lazyLoadingProxy);
+                }
+            }
+        }
+    }
+
+    private UltipaOperations getOperations(ApplicationContext applicationContext) {
+        UltipaOperations operations = this.operations;
+        if (operations == null) {
+            operations = applicationContext.getBean(UltipaOperations.class);
+            this.operations = operations;
+        }
+        return operations;
+    }
+
+    /**
+     * Reads the value of one simple property from a row, with the schema key and the conversion resolved up front.
+     *
+     * @author Wangwang Tang
+     * @since 1.0
+     */
+    private class PropertyReader {
+
+        private final UltipaPersistentProperty property;
+        private final String key;
+        private final @Nullable String expression;
+        private final Class<?> targetType;
+        private final boolean postProcessed;
+
+        PropertyReader(UltipaPersistentProperty property) {
+            this.property = property;
+            this.key = property.getPropertyName();
+            this.expression = property.getSpelExpression();
+            this.targetType = ClassUtils.resolvePrimitiveIfNecessary(property.getType());
+            this.postProcessed = property.isJson() || property.isEnumProperty();
+        }
+
+        <R> void read(Schema source, @Nullable SpELExpressionEvaluator evaluator, PersistentPropertyAccessor<R> accessor) {
+            // noinspection ConstantConditions
+            Object value = expression != null ? evaluator.evaluate(expression) : source.get(key);
+            if (value != null && postProcessed) {
+                value = handleJson(value, property);
+                value = value == null ? null : handleEnumeration(value, property);
+            }
+            if (value != null && !targetType.isInstance(value)) {
+                value = conversionService.convert(value, targetType);
+            }
+            accessor.setProperty(property, value);
+        }
+    }
+
+    /**
+     * Writes the simple properties of one entity type into a {@link Schema}. The properties to write and their
+     * conversions are resolved once per entity type, and whether the entity is new is checked once per entity instead
+     * of once per property.
+     *
+     * @author Wangwang Tang
+     * @since 1.0
+     */
+    private class EntityWriter {
+
+        private final UltipaPersistentEntity<?> entity;
+        private final List<PropertyWriter> propertyWriters = new ArrayList<>();
+
+        EntityWriter(UltipaPersistentEntity<?> entity) {
+            this.entity = entity;
+            for (UltipaPersistentProperty property : entity) {
+                if (!property.isReferenceProperty()) {
+                    propertyWriters.add(new PropertyWriter(property));
+                }
+            }
+        }
+
+        void write(Object source, Schema sink) {
+            PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(source);
+            boolean isNew = entity.isNew(source);
+
+            for (PropertyWriter propertyWriter : propertyWriters) {
+                if (!isNew && propertyWriter.skippedOnUpdate) {
+                    continue;
+                }
+
+                UltipaPersistentProperty property = propertyWriter.property;
+                Object value = accessor.getProperty(property);
+                if (propertyWriter.id && sink instanceof PersistSchema) {
+                    writeIdValue(source, (PersistSchema) sink, property, value);
+                } else {
+                    sink.put(propertyWriter.key, propertyWriter.convert(value));
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts the value of one simple property into its uql value, with the schema key and the conversions resolved
+     * up front.
+     *
+     * @author Wangwang Tang
+     * @since 1.0
+     */
+    private class PropertyWriter {
+
+        private final UltipaPersistentProperty property;
+        private final String key;
+        private final boolean id;
+        private final boolean skippedOnUpdate;
+        private final boolean preConverted;
+        private final @Nullable PropertyType propertyType;
+
+        PropertyWriter(UltipaPersistentProperty property) {
+            this.property = property;
+            this.key = property.getPropertyName();
+            this.id = property.isIdProperty();
+            this.skippedOnUpdate = property.isCreatedProperty() || property.isReadonly();
+            this.preConverted = property.isEnumProperty() || property.isJson();
+            this.propertyType = property.getPropertyType();
+        }
+
+        String convert(@Nullable Object value) {
+            Object convertedValue = preConverted ? getPotentiallyConvertedWrite(property, value)
+                    : getPotentiallyConvertedSimpleWrite(value, propertyType);
+            return getPotentiallyConvertedUrlWrite(convertedValue, propertyType);
+        }
+    }
+
     enum NoOpParameterValueProvider implements ParameterValueProvider<UltipaPersistentProperty> {
 
         INSTANCE;
@@ -12,6 +12,7 @@ import org.springframework.data.convert.EntityWriter;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Central Ultipa specific converter interface which combines {@link EntityWriter} and {@link EntityReader}.
@@ -25,6 +26,32 @@ public interface UltipaConverter extends EntityConverter<UltipaPersistentEntity<
      */
     ObjectMapper getObjectMapper();
 
+    /**
+     * Read the schemas of one result as a batch. The lazy loading references of the read entities share one loader,
+     * so initializing a reference loads the same reference of the other entities of the batch with one query.
+     *
+     * @param type    the type to convert the schemas into.
+     * @param sources the schemas to read.
+     * @return the converted objects in the order of the schemas.
+     */
+    <R> List<R> readAll(Class<R> type, List<Schema> sources);
+
+    /**
+     * Read the schemas of a lazily converted result in windows of the lazy loading batch size. Each window is read as
+     * a batch by {@link #readAll(Class, List)}, so only one window of converted schemas is held next to the converted
+     * objects, the raw rows of the response are held by the caller.
+     *
+     * @param type    the type to convert the schemas into.
+     * @param sources the schemas to read.
+     * @return the converted objects in the order of the schemas.
+     */
+    <R> List<R> readAll(Class<R> type, Stream<Schema> sources);
+
+    /**
+     * Returns the maximum number of entities whose lazy loading reference is loaded by one query.
+     */
+    int getLazyLoadingBatchSize();
+
     /**
      * Read the Map that contains key-value pairs.
      */
@@ -43,6 +70,15 @@ public interface UltipaConverter extends EntityConverter<UltipaPersistentEntity<
      */
     void write(Object source, Schema sink);
 
+    /**
+     * Write properties from the object to the schema as typed values instead of uql literals. The values are converted
+     * to the java type of their persistent property type, a missing identifier is generated.
+     *
+     * @param source An object that provides properties
+     * @param sink   The schema of the received property values
+     */
+    void writeValues(Object source, Schema sink);
+
     /**
      * Write cascading relationships from the object to the schema
      *
@@ -0,0 +1,47 @@
+package com.tangwangwang.spring.data.ultipa.core.exception;
+
+import com.tangwangwang.spring.data.ultipa.core.UltipaBulkWriteResult;
+import org.springframework.lang.Nullable;
+
+/**
+ * Thrown when a batch insert of the bulk operations is rejected as a whole. The batches inserted before are committed,
+ * their result is available from {@link #getPartialResult()}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class BulkWriteException extends UltipaPersistenceException {
+
+    private final String schema;
+    private final @Nullable UltipaBulkWriteResult partialResult;
+
+    public BulkWriteException(String message, String schema) {
+        this(message, null, schema, null);
+    }
+
+    public BulkWriteException(String message, @Nullable Throwable cause, String schema) {
+        this(message, cause, schema, null);
+    }
+
+    public BulkWriteException(String message, @Nullable Throwable cause, String schema,
+                              @Nullable UltipaBulkWriteResult partialResult) {
+        super(message, cause);
+        this.schema = schema;
+        this.partialResult = partialResult;
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    /**
+     * Returns the result of the batches committed before the rejected one, the ids and uuids cover the entities
+     * before the rejected batch.
+     *
+     * @return the partial result, {@literal null} if the exception was not raised by a bulk operation.
+     */
+    @Nullable
+    public UltipaBulkWriteResult getPartialResult() {
+        return partialResult;
+    }
+}
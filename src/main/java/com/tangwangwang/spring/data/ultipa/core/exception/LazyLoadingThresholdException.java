@@ -0,0 +1,27 @@
+package com.tangwangwang.spring.data.ultipa.core.exception;
+
+/**
+ * Thrown when the lazy loads of one property exceed the configured threshold within one statistics scope.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class LazyLoadingThresholdException extends UltipaPersistenceException {
+
+    private final String property;
+    private final int lazyLoads;
+
+    public LazyLoadingThresholdException(String message, String property, int lazyLoads) {
+        super(message);
+        this.property = property;
+        this.lazyLoads = lazyLoads;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public int getLazyLoads() {
+        return lazyLoads;
+    }
+}
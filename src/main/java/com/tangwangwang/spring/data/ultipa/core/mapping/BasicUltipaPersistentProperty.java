@@ -18,7 +18,6 @@ import org.springframework.data.mapping.model.FieldNamingStrategy;
 import org.springframework.data.mapping.model.PropertyNameFieldNamingStrategy;
 import org.springframework.data.mapping.model.SimpleTypeHolder;
 import org.springframework.data.util.CustomCollections;
-import org.springframework.data.util.Lazy;
 import org.springframework.data.util.TypeInformation;
 import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
@@ -39,13 +38,36 @@ public class BasicUltipaPersistentProperty extends AnnotationBasedPersistentProp
 
     private final SimpleTypeHolder simpleTypeHolder;
     private final FieldNamingStrategy fieldNamingStrategy;
-    private final Lazy<Boolean> isEnum = Lazy.of(() -> Enum.class.isAssignableFrom(getActualType()));
-    private final Lazy<Boolean> isReference = Lazy.of(() -> isAnnotationPresent(Reference.class));
-    private final Lazy<Boolean> isFrom = Lazy.of(() -> isAnnotationPresent(From.class));
-    private final Lazy<Boolean> isTo = Lazy.of(() -> isAnnotationPresent(To.class));
-    private final Lazy<Boolean> isLeft = Lazy.of(() -> isAnnotationPresent(Left.class));
-    private final Lazy<Boolean> isRight = Lazy.of(() -> isAnnotationPresent(Right.class));
-    private final Lazy<Boolean> isCreated = Lazy.of(() -> isAnnotationPresent(CreatedBy.class) || isAnnotationPresent(CreatedDate.class));
+
+    // the mapping metadata is resolved once when the mapping context creates the property, failures to resolve the
+    // property name or type are rethrown when they are accessed, as not every property is persisted as a value
+    private final boolean isEnum;
+    private final boolean isReference;
+    private final boolean isFrom;
+    private final boolean isTo;
+    private final boolean isLeft;
+    private final boolean isRight;
+    private final boolean isCreated;
+    private final boolean isReadonly;
+    private final boolean isJson;
+    private final @Nullable String propertyName;
+    private final @Nullable RuntimeException propertyNameFailure;
+    private final String description;
+    private final @Nullable PropertyType propertyType;
+    private final @Nullable RuntimeException propertyTypeFailure;
+    private final @Nullable EnumType enumeratedType;
+    private final List<CascadeType> cascadeTypes;
+    private final @Nullable FetchType fetchType;
+    private final int chunkSize;
+    private final @Nullable String targetFilter;
+    private final @Nullable String betweenEdgeFilter;
+    private final @Nullable String targetOrderBy;
+    private final int targetLimit;
+    private final @Nullable String edgeName;
+    private final @Nullable Class<?> edgeClass;
+    private final @Nullable String betweenEdge;
+    private final @Nullable Class<?> referenceType;
+    private final @Nullable UltipaSystemProperty systemProperty;
 
     public BasicUltipaPersistentProperty(org.springframework.data.mapping.model.Property property, UltipaPersistentEntity<?> owner,
                                          SimpleTypeHolder simpleTypeHolder, @Nullable FieldNamingStrategy fieldNamingStrategy) {
@@ -53,6 +75,50 @@ public class BasicUltipaPersistentProperty extends AnnotationBasedPersistentProp
         this.simpleTypeHolder = UltipaSimpleTypeHolder.HOLDER;
         this.fieldNamingStrategy = fieldNamingStrategy == null ? PropertyNameFieldNamingStrategy.INSTANCE : fieldNamingStrategy;
 
+        this.isEnum = Enum.class.isAssignableFrom(getActualType());
+        this.isReference = isAnnotationPresent(Reference.class);
+        this.isFrom = isAnnotationPresent(From.class);
+        this.isTo = isAnnotationPresent(To.class);
+        this.isLeft = isAnnotationPresent(Left.class);
+        this.isRight = isAnnotationPresent(Right.class);
+        this.isCreated = isAnnotationPresent(CreatedBy.class) || isAnnotationPresent(CreatedDate.class);
+        this.isReadonly = (boolean) getAnnotatedValue(Property.class, "readonly");
+        this.isJson = !this.simpleTypeHolder.isSimpleType(getType()) && (boolean) getAnnotatedValue(Property.class, "json");
+        this.description = (String) getAnnotatedValue(Property.class, "description");
+        this.enumeratedType = isEnum ? (EnumType) getAnnotatedValue(Enumerated.class) : null;
+        this.cascadeTypes = resolveCascadeTypes();
+        this.fetchType = resolveFetchType();
+        this.chunkSize = resolveChunkSize();
+        this.targetFilter = resolveTargetFilter();
+        this.betweenEdgeFilter = resolveBetweenEdgeFilter();
+        this.targetOrderBy = resolveTargetOrderBy();
+        this.targetLimit = resolveTargetLimit();
+        this.edgeName = resolveEdgeName();
+        this.edgeClass = resolveEdgeClass();
+        this.betweenEdge = resolveBetweenEdge();
+        this.referenceType = isReference ? isCollectionLike() ? getComponentType() : getType() : null;
+
+        String propertyName = null;
+        RuntimeException propertyNameFailure = null;
+        try {
+            propertyName = resolvePropertyName();
+        } catch (RuntimeException e) {
+            propertyNameFailure = e;
+        }
+        this.propertyName = propertyName;
+        this.propertyNameFailure = propertyNameFailure;
+        this.systemProperty = propertyName != null && UltipaSystemProperty.isSystemProperty(propertyName)
+                ? UltipaSystemProperty.resolve(propertyName) : null;
+
+        PropertyType propertyType = null;
+        RuntimeException propertyTypeFailure = null;
+        try {
+            propertyType = resolvePropertyType();
+        } catch (RuntimeException e) {
+            propertyTypeFailure = e;
+        }
+        this.propertyType = propertyType;
+        this.propertyTypeFailure = propertyTypeFailure;
     }
 
     @Override
@@ -67,6 +133,13 @@ public class BasicUltipaPersistentProperty extends AnnotationBasedPersistentProp
 
     @Override
     public String getPropertyName() {
+        if (propertyNameFailure != null) {
+            throw propertyNameFailure;
+        }
+        return propertyName;
+    }
+
+    private String resolvePropertyName() {
         String annotatedName = String.valueOf(getAnnotatedValue(Property.class));
 
         if (StringUtils.hasText(annotatedName)) {
@@ -84,11 +157,18 @@ public class BasicUltipaPersistentProperty extends AnnotationBasedPersistentProp
 
     @Override
     public String getDescription() {
-        return (String) getAnnotatedValue(Property.class, "description");
+        return description;
     }
 
     @Override
     public PropertyType getPropertyType() {
+        if (propertyTypeFailure != null) {
+            throw propertyTypeFailure;
+        }
+        return propertyType;
+    }
+
+    private PropertyType resolvePropertyType() {
         PropertyType propertyType = (PropertyType) getAnnotatedValue(Property.class, "type");
         if (propertyType == PropertyType.AUTO) {
 
@@ -123,7 +203,7 @@ public class BasicUltipaPersistentProperty extends AnnotationBasedPersistentProp
 
         if (propertyType == null || propertyType == PropertyType.AUTO) {
             throw new IllegalArgumentException(String.format("Unable to automatically resolve persistent property type for '%s', so configure the persistent property type.",
-                    getPropertyName()));
+                    resolvePropertyName()));
         }
 
         return propertyType;
@@ -131,12 +211,12 @@ public class BasicUltipaPersistentProperty extends AnnotationBasedPersistentProp
 
     @Override
     public boolean isReadonly() {
-        return (boolean) getAnnotatedValue(Property.class, "readonly");
+        return isReadonly;
     }
 
     @Override
     public boolean isJson() {
-        return !simpleTypeHolder.isSimpleType(getType()) && (boolean) getAnnotatedValue(Property.class, "json");
+        return isJson;
     }
 
     private Object getAnnotatedValue(Class<? extends Annotation> annotationType) {
@@ -155,63 +235,76 @@ public class BasicUltipaPersistentProperty extends AnnotationBasedPersistentProp
 
     @Override
     public boolean isEnumProperty() {
-        return isEnum.get();
+        return isEnum;
     }
 
     @Override
     public EnumType getEnumeratedType() {
-        return isEnumProperty() ? (EnumType) getAnnotatedValue(Enumerated.class) : null;
+        return enumeratedType;
     }
 
     @Override
     public boolean isFromProperty() {
-        return isFrom.get();
+        return isFrom;
     }
 
     @Override
     public boolean isToProperty() {
-        return isTo.get();
+        return isTo;
     }
 
     @Override
     public boolean isLeftProperty() {
-        return isLeft.get();
+        return isLeft;
     }
 
     @Override
     public boolean isRightProperty() {
-        return isRight.get();
+        return isRight;
     }
 
     @Override
     public boolean isReferenceProperty() {
-        return isReference.get();
+        return isReference;
     }
 
     @Override
     public boolean isCreatedProperty() {
-        return isCreated.get();
+        return isCreated;
     }
 
     @Override
     public List<CascadeType> getCascadeTypes() {
+        return cascadeTypes;
+    }
+
+    private List<CascadeType> resolveCascadeTypes() {
         if (isFromProperty()) {
-            return Arrays.asList((CascadeType[]) getAnnotatedValue(From.class, "cascade"));
+            return getAnnotatedCascadeTypes(From.class);
         }
         if (isToProperty()) {
-            return Arrays.asList((CascadeType[]) getAnnotatedValue(To.class, "cascade"));
+            return getAnnotatedCascadeTypes(To.class);
         }
         if (isLeftProperty()) {
-            return Arrays.asList((CascadeType[]) getAnnotatedValue(Left.class, "cascade"));
+            return getAnnotatedCascadeTypes(Left.class);
         }
         if (isRightProperty()) {
-            return Arrays.asList((CascadeType[]) getAnnotatedValue(Right.class, "cascade"));
+            return getAnnotatedCascadeTypes(Right.class);
         }
         return Collections.emptyList();
     }
 
+    private List<CascadeType> getAnnotatedCascadeTypes(Class<? extends Annotation> annotationType) {
+        return Collections.unmodifiableList(Arrays.asList((CascadeType[]) getAnnotatedValue(annotationType, "cascade")));
+    }
+
     @Override
     public FetchType getFetchType() {
+        return fetchType;
+    }
+
+    @Nullable
+    private FetchType resolveFetchType() {
         if (isFromProperty()) {
             return (FetchType) getAnnotatedValue(From.class, "fetch");
         }
@@ -227,13 +320,108 @@ public class BasicUltipaPersistentProperty extends AnnotationBasedPersistentProp
         return null;
     }
 
+    @Override
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private int resolveChunkSize() {
+        if (isLeftProperty()) {
+            return (int) getAnnotatedValue(Left.class, "chunkSize");
+        }
+        if (isRightProperty()) {
+            return (int) getAnnotatedValue(Right.class, "chunkSize");
+        }
+        return 0;
+    }
+
+    @Override
+    public String getTargetFilter() {
+        return targetFilter;
+    }
+
+    @Nullable
+    private String resolveTargetFilter() {
+        if (isFromProperty()) {
+            return getAnnotatedText(From.class, "filter");
+        }
+        if (isToProperty()) {
+            return getAnnotatedText(To.class, "filter");
+        }
+        if (isLeftProperty()) {
+            return getAnnotatedText(Left.class, "filter");
+        }
+        if (isRightProperty()) {
+            return getAnnotatedText(Right.class, "filter");
+        }
+        return null;
+    }
+
+    @Override
+    public String getBetweenEdgeFilter() {
+        return betweenEdgeFilter;
+    }
+
+    @Nullable
+    private String resolveBetweenEdgeFilter() {
+        if (isLeftProperty()) {
+            return getAnnotatedText(Left.class, "edgeFilter");
+        }
+        if (isRightProperty()) {
+            return getAnnotatedText(Right.class, "edgeFilter");
+        }
+        return null;
+    }
+
+    @Override
+    public String getTargetOrderBy() {
+        return targetOrderBy;
+    }
+
+    @Nullable
+    private String resolveTargetOrderBy() {
+        if (isLeftProperty()) {
+            return getAnnotatedText(Left.class, "orderBy");
+        }
+        if (isRightProperty()) {
+            return getAnnotatedText(Right.class, "orderBy");
+        }
+        return null;
+    }
+
+    @Override
+    public int getTargetLimit() {
+        return targetLimit;
+    }
+
+    private int resolveTargetLimit() {
+        if (isLeftProperty()) {
+            return (int) getAnnotatedValue(Left.class, "limit");
+        }
+        if (isRightProperty()) {
+            return (int) getAnnotatedValue(Right.class, "limit");
+        }
+        return 0;
+    }
+
+    @Nullable
+    private String getAnnotatedText(Class<? extends Annotation> annotationType, String attributeName) {
+        String text = (String) getAnnotatedValue(annotationType, attributeName);
+        return StringUtils.hasText(text) ? text : null;
+    }
+
     @Override
     public String getBetweenEdge() {
-        String edgeName = getEdgeName();
+        return betweenEdge;
+    }
+
+    @Nullable
+    private String resolveBetweenEdge() {
+        String edgeName = resolveEdgeName();
         if (StringUtils.hasText(edgeName)) {
             return edgeName;
         }
-        Class<?> edgeClass = getEdgeClass();
+        Class<?> edgeClass = resolveEdgeClass();
         if (edgeClass != null) {
             return resolveEdgeName(edgeClass);
         }
@@ -242,6 +430,11 @@ public class BasicUltipaPersistentProperty extends AnnotationBasedPersistentProp
 
     @Override
     public String getEdgeName() {
+        return edgeName;
+    }
+
+    @Nullable
+    private String resolveEdgeName() {
         if (isLeftProperty()) {
             return getEdgeName(Left.class);
         }
@@ -259,6 +452,11 @@ public class BasicUltipaPersistentProperty extends AnnotationBasedPersistentProp
 
     @Override
     public Class<?> getEdgeClass() {
+        return edgeClass;
+    }
+
+    @Nullable
+    private Class<?> resolveEdgeClass() {
         if (isLeftProperty()) {
             return getEdgeClass(Left.class);
         }
@@ -288,10 +486,7 @@ public class BasicUltipaPersistentProperty extends AnnotationBasedPersistentProp
 
     @Override
     public Class<?> getReferenceType() {
-        if (isReferenceProperty()) {
-            return isCollectionLike() ? getComponentType() : getType();
-        }
-        return null;
+        return referenceType;
     }
 
     @Override
@@ -314,11 +509,14 @@ public class BasicUltipaPersistentProperty extends AnnotationBasedPersistentProp
 
     @Override
     public boolean isSystemProperty() {
-        return UltipaSystemProperty.isSystemProperty(getPropertyName());
+        return getSystemProperty() != null;
     }
 
     @Override
     public UltipaSystemProperty getSystemProperty() {
-        return isSystemProperty() ? UltipaSystemProperty.resolve(getPropertyName()) : null;
+        if (propertyNameFailure != null) {
+            throw propertyNameFailure;
+        }
+        return systemProperty;
     }
 }
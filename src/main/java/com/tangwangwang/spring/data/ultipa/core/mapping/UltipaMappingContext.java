@@ -5,6 +5,7 @@ import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
 import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaProperty;
 import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaSchema;
 import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaSimpleTypeHolder;
+import com.tangwangwang.spring.data.ultipa.core.proxy.UltipaProxyFactory;
 import com.tangwangwang.spring.data.ultipa.core.query.Query;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
@@ -104,6 +105,10 @@ public class UltipaMappingContext extends AbstractMappingContext<UltipaPersisten
                                                              SimpleTypeHolder simpleTypeHolder) {
         UltipaPersistentProperty persistentProperty = new BasicUltipaPersistentProperty(property, owner, simpleTypeHolder, fieldNamingStrategy);
 
+        if (owner.isSchema() && persistentProperty.isReferenceProperty()) {
+            UltipaProxyFactory.prepareProxyType(persistentProperty);
+        }
+
         if (!owner.isSchema()) {
             return persistentProperty;
         }
@@ -86,6 +86,34 @@ public interface UltipaPersistentProperty extends PersistentProperty<UltipaPersi
     @Nullable
     FetchType getFetchType();
 
+    /**
+     * Returns the number of targets a list reference loads per query, {@literal 0} loads all targets at once.
+     */
+    int getChunkSize();
+
+    /**
+     * Returns the declared uql filter of the reference targets.
+     */
+    @Nullable
+    String getTargetFilter();
+
+    /**
+     * Returns the declared uql filter of the edge between the owner and the reference targets.
+     */
+    @Nullable
+    String getBetweenEdgeFilter();
+
+    /**
+     * Returns the declared order of the reference targets.
+     */
+    @Nullable
+    String getTargetOrderBy();
+
+    /**
+     * Returns the maximum number of reference targets to load, {@literal 0} loads all targets.
+     */
+    int getTargetLimit();
+
     @Nullable
     String getBetweenEdge();
 
@@ -1,10 +1,14 @@
 package com.tangwangwang.spring.data.ultipa.core.mapping.model;
 
 import com.tangwangwang.spring.data.ultipa.annotation.EnumId;
+import com.tangwangwang.spring.data.ultipa.annotation.EnumType;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Field;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,6 +34,7 @@ public class UltipaEnumTypeHolder {
     private static final Field EMPTY_FIELD;
 
     private static final Map<Class<? extends Enum<?>>, Field> ULTIPA_ENUM_TYPES = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, EnumTable<?>> ENUM_TABLES = new ConcurrentHashMap<>();
 
     static {
         try {
@@ -76,4 +81,127 @@ public class UltipaEnumTypeHolder {
                 .findFirst().orElse(EMPTY_FIELD));
     }
 
+    /**
+     * Returns the cached {@link EnumTable} of the given enum type.
+     *
+     * @param enumType the enum type, or the type of a constant with a body.
+     * @return the enum table.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <E extends Enum<E>> EnumTable<E> getEnumTable(Class<E> enumType) {
+        Class<?> declaringType = enumType.isEnum() ? enumType : enumType.getSuperclass();
+        return (EnumTable<E>) ENUM_TABLES.computeIfAbsent(declaringType, key -> new EnumTable(key));
+    }
+
+    /**
+     * The constants of one enum type indexed by name, ordinal and the value of the field annotated with
+     * {@link EnumId}, so converting between constants and their persisted values is a lookup.
+     *
+     * @param <E> the enum type.
+     */
+    public static final class EnumTable<E extends Enum<E>> {
+
+        private final Class<E> enumType;
+        private final E[] constants;
+        private final Map<String, E> constantsByName;
+        private final @Nullable Field field;
+        private final Map<E, Object> fieldValues;
+        private final Map<Object, E> constantsByFieldValue;
+
+        private EnumTable(Class<E> enumType) {
+            this.enumType = enumType;
+            this.constants = enumType.getEnumConstants();
+            this.constantsByName = new HashMap<>(constants.length * 2);
+            this.field = getEnumField(enumType);
+            this.fieldValues = new EnumMap<>(enumType);
+            this.constantsByFieldValue = new HashMap<>(constants.length * 2);
+
+            if (field != null) {
+                ReflectionUtils.makeAccessible(field);
+            }
+            for (E constant : constants) {
+                constantsByName.put(constant.name(), constant);
+                if (field != null) {
+                    Object fieldValue = ReflectionUtils.getField(field, constant);
+                    if (fieldValue != null) {
+                        fieldValues.put(constant, fieldValue);
+                        constantsByFieldValue.putIfAbsent(fieldValue, constant);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the field annotated with {@link EnumId}, {@literal null} if none.
+         */
+        @Nullable
+        public Field getField() {
+            return field;
+        }
+
+        public boolean hasField() {
+            return field != null;
+        }
+
+        /**
+         * Returns the persisted value of the given constant.
+         *
+         * @param constant       must not be {@literal null}.
+         * @param enumeratedType how the constant is persisted, {@link EnumType#FIELD} falls back to the name if the
+         *                       enum has no field annotated with {@link EnumId}.
+         * @return the field value, the name or the ordinal.
+         */
+        @Nullable
+        public Object getValue(E constant, EnumType enumeratedType) {
+            switch (enumeratedType) {
+                case FIELD:
+                    return field != null ? fieldValues.get(constant) : constant.name();
+                case ORDINAL:
+                    return constant.ordinal();
+                case NAME:
+                default:
+                    return constant.name();
+            }
+        }
+
+        /**
+         * Returns the constant whose {@link EnumId} field has the given value.
+         *
+         * @param fieldValue the value converted to the type of the field.
+         * @return the constant.
+         * @throws IllegalArgumentException if no constant has the value.
+         */
+        public E getConstantByFieldValue(Object fieldValue) {
+            E constant = constantsByFieldValue.get(fieldValue);
+            if (constant == null) {
+                throw new IllegalArgumentException(String.format("'%s' cannot be converted to %s", fieldValue, enumType));
+            }
+            return constant;
+        }
+
+        /**
+         * Returns the constant of the given name.
+         *
+         * @throws IllegalArgumentException if no constant has the name.
+         */
+        public E getConstantByName(String name) {
+            E constant = constantsByName.get(name);
+            if (constant == null) {
+                throw new IllegalArgumentException(String.format("No enum constant %s.%s", enumType.getCanonicalName(), name));
+            }
+            return constant;
+        }
+
+        /**
+         * Returns the constant of the given ordinal.
+         *
+         * @throws IllegalArgumentException if no constant has the ordinal.
+         */
+        public E getConstantByOrdinal(int ordinal) {
+            if (ordinal < 0 || ordinal >= constants.length) {
+                throw new IllegalArgumentException(String.format("No enum constant of %s with ordinal %s", enumType.getCanonicalName(), ordinal));
+            }
+            return constants[ordinal];
+        }
+    }
 }
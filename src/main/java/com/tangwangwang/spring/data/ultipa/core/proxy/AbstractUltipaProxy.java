@@ -1,19 +1,27 @@
 package com.tangwangwang.spring.data.ultipa.core.proxy;
 
+import com.tangwangwang.spring.data.ultipa.annotation.AdjacencyCache;
+import com.tangwangwang.spring.data.ultipa.annotation.FetchType;
 import com.tangwangwang.spring.data.ultipa.annotation.From;
 import com.tangwangwang.spring.data.ultipa.annotation.To;
 import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.UltipaStatistics;
 import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentEntity;
 import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
 import com.tangwangwang.spring.data.ultipa.core.query.Query;
+import com.tangwangwang.spring.data.ultipa.core.schema.Schema;
 import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.util.Lazy;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,44 +31,127 @@ import java.util.Map;
 abstract class AbstractUltipaProxy implements UltipaProxy {
 
     /**
-     * Query the next nodes based on the give node, Sort by _uuid by default
+     * Query the next nodes based on the give node, Sort by _uuid unless an order is declared
      */
-    protected static final String NODE_TO_NEXT_NODE_UQL = "n({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }).re({@${betweenSchemaName}}).n({@${targetSchemaName}} as nodes) return nodes{*} ORDER BY nodes._uuid";
+    protected static final String NODE_TO_NEXT_NODE_UQL = "n({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }).re({@${betweenSchemaName}%2$s}).n({@${targetSchemaName}%1$s} as nodes) return nodes{*} ORDER BY %3$s";
     /**
-     * Query the next edges based on the give node, Sort by _uuid by default
+     * Query the next edges based on the give node, Sort by _uuid unless an order is declared
      */
     protected static final String NODE_TO_NEXT_EDGE_UQL = "find().nodes({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }) as node with node._id as id" +
-            " find().edges({ _from == id && @${targetSchemaName} }) as edges return edges{*} ORDER BY edges._uuid";
+            " find().edges({ _from == id && @${targetSchemaName}%1$s }) as edges return edges{*} ORDER BY %3$s";
     /**
      * Query the next node based on the give edge
      *
      * @see To
      */
     protected static final String EDGE_TO_NEXT_NODE_UQL = "find().edges({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }) as edge with edge._to as id" +
-            " find().nodes({ _id == id && @${targetSchemaName} }) as node return node{*}";
+            " find().nodes({ _id == id && @${targetSchemaName}%1$s }) as node return node{*}";
 
     /**
-     * Query the prev nodes based on the give node, Sort by _uuid by default
+     * Query the prev nodes based on the give node, Sort by _uuid unless an order is declared
      */
-    protected static final String NODE_TO_PREV_NODE_UQL = "n({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }).le({@${betweenSchemaName}}).n({@${targetSchemaName}} as nodes) return nodes{*} ORDER BY nodes._uuid";
+    protected static final String NODE_TO_PREV_NODE_UQL = "n({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }).le({@${betweenSchemaName}%2$s}).n({@${targetSchemaName}%1$s} as nodes) return nodes{*} ORDER BY %3$s";
     /**
-     * Query the prev edges based on the give node, Sort by _uuid by default
+     * Query the prev edges based on the give node, Sort by _uuid unless an order is declared
      */
     protected static final String NODE_TO_PREV_EDGE_UQL = "find().nodes({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }) as node with node._id as id" +
-            " find().edges({ _to == id && @${targetSchemaName} }) as edges return edges{*} ORDER BY edges._uuid";
+            " find().edges({ _to == id && @${targetSchemaName}%1$s }) as edges return edges{*} ORDER BY %3$s";
     /**
      * Query the prev node based on the give edge
      *
      * @see From
      */
     protected static final String EDGE_TO_PREV_NODE_UQL = "find().edges({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }) as edge with edge._from as id" +
-            " find().nodes({ _id == id && @${targetSchemaName} }) as node return node{*}";
+            " find().nodes({ _id == id && @${targetSchemaName}%1$s }) as node return node{*}";
+
+    /**
+     * Count the next nodes based on the give node
+     */
+    protected static final String NODE_TO_NEXT_NODE_COUNT_UQL = "n({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }).re({@${betweenSchemaName}%2$s}).n({@${targetSchemaName}%1$s} as nodes) return count(nodes)";
+    /**
+     * Count the next edges based on the give node
+     */
+    protected static final String NODE_TO_NEXT_EDGE_COUNT_UQL = "find().nodes({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }) as node with node._id as id" +
+            " find().edges({ _from == id && @${targetSchemaName}%1$s }) as edges return count(edges)";
+    /**
+     * Count the prev nodes based on the give node
+     */
+    protected static final String NODE_TO_PREV_NODE_COUNT_UQL = "n({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }).le({@${betweenSchemaName}%2$s}).n({@${targetSchemaName}%1$s} as nodes) return count(nodes)";
+    /**
+     * Count the prev edges based on the give node
+     */
+    protected static final String NODE_TO_PREV_EDGE_COUNT_UQL = "find().nodes({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }) as node with node._id as id" +
+            " find().edges({ _to == id && @${targetSchemaName}%1$s }) as edges return count(edges)";
+    /**
+     * Query a chunk of the next nodes based on the give node, keyed and sorted by the _uuid of the between edges, so
+     * nodes reached over parallel edges keep one position per edge
+     */
+    protected static final String NODE_TO_NEXT_NODE_CHUNK_UQL = "n({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }).re({@${betweenSchemaName}%2$s} as edges).n({@${targetSchemaName}%1$s} as nodes)" +
+            " return nodes{*}, edges._uuid as chunkKeys ORDER BY edges._uuid";
+    /**
+     * Query a chunk of the next edges based on the give node, keyed and sorted by _uuid
+     */
+    protected static final String NODE_TO_NEXT_EDGE_CHUNK_UQL = "find().nodes({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }) as node with node._id as id" +
+            " find().edges({ _from == id && @${targetSchemaName}%1$s }) as edges return edges{*}, edges._uuid as chunkKeys ORDER BY edges._uuid";
+    /**
+     * Query a chunk of the prev nodes based on the give node, keyed and sorted by the _uuid of the between edges, so
+     * nodes reached over parallel edges keep one position per edge
+     */
+    protected static final String NODE_TO_PREV_NODE_CHUNK_UQL = "n({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }).le({@${betweenSchemaName}%2$s} as edges).n({@${targetSchemaName}%1$s} as nodes)" +
+            " return nodes{*}, edges._uuid as chunkKeys ORDER BY edges._uuid";
+    /**
+     * Query a chunk of the prev edges based on the give node, keyed and sorted by _uuid
+     */
+    protected static final String NODE_TO_PREV_EDGE_CHUNK_UQL = "find().nodes({ ${sourceIdKey} == #{sourceId} && @${sourceSchemaName} }) as node with node._id as id" +
+            " find().edges({ _to == id && @${targetSchemaName}%1$s }) as edges return edges{*}, edges._uuid as chunkKeys ORDER BY edges._uuid";
+    /**
+     * The edge filter of a chunk query continuing after the given _uuid
+     */
+    protected static final String CHUNK_FILTER = " && _uuid > #{after}";
+    /**
+     * The alias of the _uuid keys of the rows of a chunk query
+     */
+    protected static final String CHUNK_KEY_ALIAS = "chunkKeys";
+
+    /**
+     * Query the next nodes of the given nodes, returns the paths as aligned source and target rows
+     */
+    protected static final String NODE_TO_NEXT_NODE_BATCH_UQL = "n({ ${sourceIdKey} in #{sourceIds} && @${sourceSchemaName} } as sources).re({@${betweenSchemaName}%2$s}).n({@${targetSchemaName}%1$s} as targets)" +
+            " return sources{*}, targets{*} ORDER BY %3$s";
+    /**
+     * Query the next edges of the given nodes, returns the paths as aligned source and target rows
+     */
+    protected static final String NODE_TO_NEXT_EDGE_BATCH_UQL = "n({ ${sourceIdKey} in #{sourceIds} && @${sourceSchemaName} } as sources).re({@${targetSchemaName}%1$s} as targets).n()" +
+            " return sources{*}, targets{*} ORDER BY %3$s";
+    /**
+     * Query the next nodes of the given edges, returns the paths as aligned source and target rows
+     */
+    protected static final String EDGE_TO_NEXT_NODE_BATCH_UQL = "n({@${targetSchemaName}%1$s} as targets).le({ ${sourceIdKey} in #{sourceIds} && @${sourceSchemaName} } as sources).n()" +
+            " return sources{*}, targets{*}";
+    /**
+     * Query the prev nodes of the given nodes, returns the paths as aligned source and target rows
+     */
+    protected static final String NODE_TO_PREV_NODE_BATCH_UQL = "n({ ${sourceIdKey} in #{sourceIds} && @${sourceSchemaName} } as sources).le({@${betweenSchemaName}%2$s}).n({@${targetSchemaName}%1$s} as targets)" +
+            " return sources{*}, targets{*} ORDER BY %3$s";
+    /**
+     * Query the prev edges of the given nodes, returns the paths as aligned source and target rows
+     */
+    protected static final String NODE_TO_PREV_EDGE_BATCH_UQL = "n({ ${sourceIdKey} in #{sourceIds} && @${sourceSchemaName} } as sources).le({@${targetSchemaName}%1$s} as targets).n()" +
+            " return sources{*}, targets{*} ORDER BY %3$s";
+    /**
+     * Query the prev nodes of the given edges, returns the paths as aligned source and target rows
+     */
+    protected static final String EDGE_TO_PREV_NODE_BATCH_UQL = "n({@${targetSchemaName}%1$s} as targets).re({ ${sourceIdKey} in #{sourceIds} && @${sourceSchemaName} } as sources).n()" +
+            " return sources{*}, targets{*}";
 
     protected final UltipaOperations operations;
     protected final MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> mappingContext;
+    protected final UltipaPersistentProperty property;
     protected final @Nullable Object source;
+    protected final @Nullable UltipaBatchLoader loader;
 
     protected @Nullable Object target;
+    protected @Nullable Object targetId;
     protected final Class<?> sourceType;
     protected final Class<?> targetType;
     protected final @Nullable String betweenEdge;
@@ -71,10 +162,13 @@ abstract class AbstractUltipaProxy implements UltipaProxy {
     protected final Lazy<Field> field;
     protected transient boolean initialized = false;
 
-    protected AbstractUltipaProxy(UltipaOperations operations, UltipaPersistentProperty property, @Nullable Object source) {
+    protected AbstractUltipaProxy(UltipaOperations operations, UltipaPersistentProperty property, @Nullable Object source,
+                                  @Nullable UltipaBatchLoader loader) {
         this.operations = operations;
         this.mappingContext = operations.getConverter().getMappingContext();
+        this.property = property;
         this.source = source;
+        this.loader = loader;
         this.sourceType = property.getOwner().getType();
         this.targetType = property.getActualType();
         this.betweenEdge = property.getBetweenEdge();
@@ -105,44 +199,188 @@ abstract class AbstractUltipaProxy implements UltipaProxy {
         UltipaPersistentEntity<?> sourceEntity = mappingContext.getRequiredPersistentEntity(this.sourceType);
         UltipaPersistentEntity<?> targetEntity = mappingContext.getRequiredPersistentEntity(this.targetType);
         Map<String, Object> paramMap = getParamMap(sourceEntity, targetEntity);
+        paramMap.put("sourceId", sourceId.get());
+        Query query = operations.createQuery(renderUql(resolveUql(sourceEntity, targetEntity, false), targetEntity, false, "", ""), paramMap);
+        return property.getTargetLimit() > 0 ? query.limit(property.getTargetLimit()) : query;
+    }
+
+    /**
+     * Loads the targets, from the adjacency cache if the reference is annotated with {@link AdjacencyCache}.
+     */
+    protected List<?> findTargets() {
+        AdjacencyCache cache = getAdjacencyCache();
+        if (cache == null) {
+            return createQuery().findAll(targetType);
+        }
+
+        UltipaAdjacencyCache.Region region = operations.getAdjacencyCache().getRegion(property, it -> {
+            UltipaPersistentEntity<?> sourceEntity = mappingContext.getRequiredPersistentEntity(this.sourceType);
+            UltipaPersistentEntity<?> targetEntity = mappingContext.getRequiredPersistentEntity(this.targetType);
+            String edgeSchema = targetEntity.isNode() ? betweenEdge : targetEntity.getSchemaName();
+            return new UltipaAdjacencyCache.Region(sourceEntity.getSchemaName(), edgeSchema, targetEntity.getSchemaName(),
+                    isLeft.get(), cache);
+        });
+        List<Schema> rows = region.get(sourceId.get(), () -> createQuery().findAll(Schema.class));
+        return operations.getConverter().readAll(targetType, rows);
+    }
+
+    /**
+     * Whether the targets are read from the adjacency cache.
+     */
+    protected boolean isAdjacencyCached() {
+        return getAdjacencyCache() != null;
+    }
+
+    @Nullable
+    private AdjacencyCache getAdjacencyCache() {
+        if (sourceId.getNullable() == null || !(property.isLeftProperty() || property.isRightProperty())) {
+            return null;
+        }
+        return property.findAnnotation(AdjacencyCache.class);
+    }
+
+    /**
+     * Creates the query loading the targets after the given key in key order, {@literal 0} loads from the first
+     * target. The key is the {@code _uuid} of the edge a target is reached over, returned under the
+     * {@link #CHUNK_KEY_ALIAS} alias next to the targets of the {@link #getChunkTargetAlias()} alias. Only supported
+     * for the collection references of nodes.
+     */
+    protected Query createChunkQuery(long afterUuid) {
+        UltipaPersistentEntity<?> sourceEntity = mappingContext.getRequiredPersistentEntity(this.sourceType);
+        UltipaPersistentEntity<?> targetEntity = mappingContext.getRequiredPersistentEntity(this.targetType);
+        assertNodeSource(sourceEntity);
+        Map<String, Object> paramMap = getParamMap(sourceEntity, targetEntity);
+        paramMap.put("sourceId", sourceId.get());
+        paramMap.put("after", afterUuid);
+        String chunkFilter = afterUuid > 0 ? CHUNK_FILTER : "";
+        String chunkUql;
+        if (isLeft.get()) {
+            chunkUql = targetEntity.isNode() ? NODE_TO_PREV_NODE_CHUNK_UQL : NODE_TO_PREV_EDGE_CHUNK_UQL;
+        } else {
+            chunkUql = targetEntity.isNode() ? NODE_TO_NEXT_NODE_CHUNK_UQL : NODE_TO_NEXT_EDGE_CHUNK_UQL;
+        }
+        // the targets of node references are keyed by their between edges, edge targets are keyed by themselves
+        return operations.createQuery(targetEntity.isNode()
+                ? renderUql(chunkUql, targetEntity, false, "", chunkFilter)
+                : renderUql(chunkUql, targetEntity, false, chunkFilter, ""), paramMap);
+    }
+
+    /**
+     * Returns the alias of the targets in the rows of a chunk query.
+     */
+    String getChunkTargetAlias() {
+        return mappingContext.getRequiredPersistentEntity(this.targetType).isNode() ? "nodes" : "edges";
+    }
+
+    /**
+     * Creates the query counting the targets. Only supported for the collection references of nodes.
+     */
+    protected Query createCountQuery() {
+        UltipaPersistentEntity<?> sourceEntity = mappingContext.getRequiredPersistentEntity(this.sourceType);
+        UltipaPersistentEntity<?> targetEntity = mappingContext.getRequiredPersistentEntity(this.targetType);
+        assertNodeSource(sourceEntity);
+        Map<String, Object> paramMap = getParamMap(sourceEntity, targetEntity);
+        paramMap.put("sourceId", sourceId.get());
+        String countUql;
+        if (isLeft.get()) {
+            countUql = targetEntity.isNode() ? NODE_TO_PREV_NODE_COUNT_UQL : NODE_TO_PREV_EDGE_COUNT_UQL;
+        } else {
+            countUql = targetEntity.isNode() ? NODE_TO_NEXT_NODE_COUNT_UQL : NODE_TO_NEXT_EDGE_COUNT_UQL;
+        }
+        return operations.createQuery(renderUql(countUql, targetEntity, false, "", ""), paramMap);
+    }
+
+    private void assertNodeSource(UltipaPersistentEntity<?> sourceEntity) {
+        if (!sourceEntity.isNode()) {
+            throw new IllegalStateException(String.format("Chunked loading is only supported for the references of node schemas, but got %s.", field.get()));
+        }
+    }
+
+    /**
+     * Creates the query loading the targets of the given sources at once, the query returns the aligned rows of the
+     * {@code sources} and {@code targets} aliases.
+     */
+    protected Query createBatchQuery(Collection<?> sourceIds) {
+        UltipaPersistentEntity<?> sourceEntity = mappingContext.getRequiredPersistentEntity(this.sourceType);
+        UltipaPersistentEntity<?> targetEntity = mappingContext.getRequiredPersistentEntity(this.targetType);
+        Map<String, Object> paramMap = getParamMap(sourceEntity, targetEntity);
+        paramMap.put("sourceIds", sourceIds);
+        return operations.createQuery(renderUql(resolveUql(sourceEntity, targetEntity, true), targetEntity, true, "", ""), paramMap);
+    }
+
+    /**
+     * Renders the declared target filter, between edge filter and order of the reference into the given uql.
+     */
+    private String renderUql(String uql, UltipaPersistentEntity<?> targetEntity, boolean batch, String additionalTargetFilter,
+                             String additionalEdgeFilter) {
+        String targetFilter = property.getTargetFilter();
+        String edgeFilter = property.getBetweenEdgeFilter();
+        String alias = batch ? "targets" : targetEntity.isNode() ? "nodes" : "edges";
+
+        StringBuilder orderBy = new StringBuilder();
+        String declaredOrderBy = property.getTargetOrderBy();
+        if (StringUtils.hasText(declaredOrderBy)) {
+            for (String order : StringUtils.commaDelimitedListToStringArray(declaredOrderBy)) {
+                if (orderBy.length() > 0) {
+                    orderBy.append(", ");
+                }
+                orderBy.append(alias).append(".").append(order.trim());
+            }
+        } else {
+            orderBy.append(alias).append("._uuid");
+        }
+
+        return String.format(uql,
+                (StringUtils.hasText(targetFilter) ? " && (" + targetFilter + ")" : "") + additionalTargetFilter,
+                (StringUtils.hasText(edgeFilter) ? " && (" + edgeFilter + ")" : "") + additionalEdgeFilter,
+                orderBy);
+    }
+
+    private String resolveUql(UltipaPersistentEntity<?> sourceEntity, UltipaPersistentEntity<?> targetEntity, boolean batch) {
         if (isLeft.get()) {
             if (sourceEntity.isNode()) {
                 if (targetEntity.isNode()) {
                     Assert.isTrue(StringUtils.hasText(betweenEdge), String.format("No between or betweenClass property found for schema annotation of schema field %s!", field.get()));
-                    return operations.createQuery(NODE_TO_PREV_NODE_UQL, paramMap);
+                    return batch ? NODE_TO_PREV_NODE_BATCH_UQL : NODE_TO_PREV_NODE_UQL;
                 }
                 if (targetEntity.isEdge()) {
-                    return operations.createQuery(NODE_TO_PREV_EDGE_UQL, paramMap);
+                    return batch ? NODE_TO_PREV_EDGE_BATCH_UQL : NODE_TO_PREV_EDGE_UQL;
                 }
             }
             if (sourceEntity.isEdge() && targetEntity.isNode()) {
-                return operations.createQuery(EDGE_TO_PREV_NODE_UQL, paramMap);
+                return batch ? EDGE_TO_PREV_NODE_BATCH_UQL : EDGE_TO_PREV_NODE_UQL;
             }
         }
         if (isRight.get()) {
             if (sourceEntity.isNode()) {
                 if (targetEntity.isNode()) {
                     Assert.isTrue(StringUtils.hasText(betweenEdge), String.format("No between or betweenClass property found for schema annotation of schema field %s!", field.get()));
-                    return operations.createQuery(NODE_TO_NEXT_NODE_UQL, paramMap);
+                    return batch ? NODE_TO_NEXT_NODE_BATCH_UQL : NODE_TO_NEXT_NODE_UQL;
                 }
                 if (targetEntity.isEdge()) {
-                    return operations.createQuery(NODE_TO_NEXT_EDGE_UQL, paramMap);
+                    return batch ? NODE_TO_NEXT_EDGE_BATCH_UQL : NODE_TO_NEXT_EDGE_UQL;
                 }
             }
             if (sourceEntity.isEdge() && targetEntity.isNode()) {
-                return operations.createQuery(EDGE_TO_NEXT_NODE_UQL, paramMap);
+                return batch ? EDGE_TO_NEXT_NODE_BATCH_UQL : EDGE_TO_NEXT_NODE_UQL;
             }
         }
         throw new IllegalStateException("Unable to resolve matching uql for proxy object.");
     }
 
+    /**
+     * Returns the name of the source id property, the key of the source id in the rows of the batch query.
+     */
+    protected String getSourceIdKey() {
+        return mappingContext.getRequiredPersistentEntity(this.sourceType).getRequiredIdProperty().getPropertyName();
+    }
+
     private Map<String, Object> getParamMap(UltipaPersistentEntity<?> sourceEntity, UltipaPersistentEntity<?> targetEntity) {
         Map<String, Object> paramMap = new HashMap<>();
         paramMap.put("sourceSchemaName", sourceEntity.getSchemaName());
         paramMap.put("betweenSchemaName", betweenEdge);
         paramMap.put("targetSchemaName", targetEntity.getSchemaName());
         paramMap.put("sourceIdKey", sourceEntity.getRequiredIdProperty().getPropertyName());
-        paramMap.put("sourceId", sourceId.get());
         return paramMap;
     }
 
@@ -154,22 +392,88 @@ abstract class AbstractUltipaProxy implements UltipaProxy {
             if (initialized) {
                 return;
             }
-            this.target = this.source == null ? null : getInitializeTarget();
-            initialized = true;
+            if (property.getFetchType() != FetchType.EAGER) {
+                // eager references are initialized by the converter while reading, they are not lazy loads
+                UltipaStatistics.recordLazyLoad(property);
+            }
+            // the loader completes this proxy together with its pending siblings
+            if (this.source == null || this.loader == null || !this.loader.load(this)) {
+                this.target = this.source == null ? null : getInitializeTarget();
+                initialized = true;
+            }
         }
     }
 
+    /**
+     * Completes this proxy with the targets loaded by a {@link UltipaBatchLoader}, ignored if the proxy was
+     * initialized in the meantime.
+     */
+    final synchronized void complete(List<Object> targets) {
+        if (initialized) {
+            return;
+        }
+        this.target = getInitializeTarget(targets);
+        initialized = true;
+    }
+
     @Nullable
     protected abstract Object getInitializeTarget();
 
+    /**
+     * Returns the target made of the given loaded targets.
+     */
+    @Nullable
+    protected abstract Object getInitializeTarget(List<Object> targets);
+
     @Override
     public boolean isInitialized() {
         return initialized;
     }
 
+    @Nullable
     @Override
     public Object getSourceId() {
-        return sourceId.get();
+        return sourceId.getNullable();
+    }
+
+    @Nullable
+    @Override
+    public Object getTargetId() {
+        return targetId;
+    }
+
+    void setTargetId(@Nullable Object targetId) {
+        this.targetId = targetId;
+    }
+
+    /**
+     * Replaces the given enhanced proxy in the field of the source with the loaded target, so the following calls
+     * through the entity reach the target directly. Final fields and null targets are left untouched.
+     */
+    void replaceInSource(Object enhanced) {
+        Object target = this.target;
+        Field field = this.field.get();
+        if (source == null || target == null || Modifier.isFinal(field.getModifiers())) {
+            return;
+        }
+
+        ReflectionUtils.makeAccessible(field);
+        if (ReflectionUtils.getField(field, source) == enhanced) {
+            ReflectionUtils.setField(field, source, target);
+        }
+    }
+
+    /**
+     * Whether the proxy can be loaded together with its siblings by a {@link UltipaBatchLoader}.
+     */
+    boolean isBatchable() {
+        // a limit applies to the whole batch query instead of the targets of each source, cached targets are read
+        // from the adjacency cache one by one
+        return property.getTargetLimit() <= 0 && !isAdjacencyCached();
+    }
+
+    UltipaPersistentProperty getProperty() {
+        return property;
     }
 
 }
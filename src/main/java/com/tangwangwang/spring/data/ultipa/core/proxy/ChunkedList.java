@@ -0,0 +1,165 @@
+package com.tangwangwang.spring.data.ultipa.core.proxy;
+
+import com.tangwangwang.spring.data.ultipa.core.convert.UltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.schema.Schema;
+import org.springframework.lang.Nullable;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only list of the targets of a collection reference, loaded in chunks while it is accessed. The targets are
+ * ordered by the {@code _uuid} of the edge they are reached over, so a node reached over parallel edges is listed once
+ * per edge.
+ * <p>
+ * Only the chunk accessed last and the one accessed before it are kept, an evicted chunk is loaded again when it is
+ * accessed again. Iterating loads the next chunk after the last key of the previous one. {@link #get(int)} loads the
+ * chunk containing the index, after the last key of the preceding chunk if it was loaded before, otherwise by skipping
+ * the preceding targets, which costs the server a scan of all of them. {@link #size()} runs a count query and
+ * {@link #isEmpty()} an exists query on their first call unless the end of the list was loaded before, both are
+ * remembered afterwards.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class ChunkedList extends AbstractList<Object> {
+
+    private final AbstractUltipaProxy proxy;
+    private final int chunkSize;
+    private final Map<Integer, Long> lastKeys = new HashMap<>();
+    private @Nullable Chunk current;
+    private @Nullable Chunk previous;
+    private @Nullable Integer size;
+    private boolean notEmpty;
+
+    ChunkedList(AbstractUltipaProxy proxy, int chunkSize) {
+        this.proxy = proxy;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Object get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        Chunk chunk = getChunk(index / chunkSize);
+        int offset = index % chunkSize;
+        if (offset >= chunk.elements.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return chunk.elements.get(offset);
+    }
+
+    @Override
+    public synchronized int size() {
+        if (size == null) {
+            size = Math.toIntExact(proxy.createCountQuery().count());
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        if (size != null) {
+            return size == 0;
+        }
+        if (!notEmpty) {
+            if (proxy.createChunkQuery(0L).exists()) {
+                notEmpty = true;
+            } else {
+                size = 0;
+            }
+        }
+        return !notEmpty;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<Object>() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index % chunkSize < getChunk(index / chunkSize).elements.size();
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+
+    private synchronized Chunk getChunk(int chunkIndex) {
+        if (current != null && current.index == chunkIndex) {
+            return current;
+        }
+        if (previous != null && previous.index == chunkIndex) {
+            Chunk chunk = previous;
+            previous = current;
+            current = chunk;
+            return chunk;
+        }
+        if (size != null && (long) chunkIndex * chunkSize >= size) {
+            return new Chunk(chunkIndex, Collections.emptyList(), 0L);
+        }
+
+        Long afterKey = chunkIndex == 0 ? Long.valueOf(0L) : lastKeys.get(chunkIndex - 1);
+        Chunk chunk;
+        if (afterKey == null) {
+            // no key to continue after, skip the preceding targets
+            chunk = loadChunk(chunkIndex, proxy.createChunkQuery(0L).skip((long) chunkIndex * chunkSize).limit(chunkSize).findAllByAlias());
+        } else {
+            chunk = loadChunk(chunkIndex, proxy.createChunkQuery(afterKey).limit(chunkSize).findAllByAlias());
+        }
+
+        previous = current;
+        current = chunk;
+        if (chunk.lastKey != 0L) {
+            lastKeys.put(chunkIndex, chunk.lastKey);
+            notEmpty = true;
+        }
+        // an empty chunk after skipped ones does not tell where the list ends
+        boolean contiguous = afterKey != null || !chunk.elements.isEmpty();
+        if (size == null && contiguous && chunk.elements.size() < chunkSize) {
+            size = chunkIndex * chunkSize + chunk.elements.size();
+        }
+        return chunk;
+    }
+
+    private Chunk loadChunk(int chunkIndex, Map<String, List<Schema>> rows) {
+        UltipaConverter converter = proxy.operations.getConverter();
+        List<?> elements = converter.readAll(proxy.targetType, rows.getOrDefault(proxy.getChunkTargetAlias(), Collections.emptyList()));
+
+        long lastKey = 0L;
+        List<Schema> keys = rows.getOrDefault(AbstractUltipaProxy.CHUNK_KEY_ALIAS, Collections.emptyList());
+        if (!keys.isEmpty()) {
+            Object key = keys.get(keys.size() - 1).toMap().get(AbstractUltipaProxy.CHUNK_KEY_ALIAS);
+            Long convertedKey = key == null ? null : converter.getConversionService().convert(key, Long.class);
+            lastKey = convertedKey == null ? 0L : convertedKey;
+        }
+        return new Chunk(chunkIndex, elements, lastKey);
+    }
+
+    private static final class Chunk {
+
+        private final int index;
+        private final List<?> elements;
+        private final long lastKey;
+
+        private Chunk(int index, List<?> elements, long lastKey) {
+            this.index = index;
+            this.elements = elements;
+            this.lastKey = lastKey;
+        }
+    }
+}
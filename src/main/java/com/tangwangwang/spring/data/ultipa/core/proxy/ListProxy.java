@@ -3,6 +3,9 @@ package com.tangwangwang.spring.data.ultipa.core.proxy;
 import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
 import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
 
 /**
  * @author Wangwang Tang
@@ -10,12 +13,33 @@ import org.springframework.lang.Nullable;
  */
 class ListProxy extends AbstractUltipaProxy {
 
-    protected ListProxy(UltipaOperations operations, UltipaPersistentProperty property, @Nullable Object source) {
-        super(operations, property, source);
+    protected ListProxy(UltipaOperations operations, UltipaPersistentProperty property, @Nullable Object source,
+                        @Nullable UltipaBatchLoader loader) {
+        super(operations, property, source, loader);
     }
 
     @Override
     protected Object getInitializeTarget() {
-        return createQuery().findAll(targetType);
+        if (isChunked()) {
+            return new ChunkedList(this, property.getChunkSize());
+        }
+        return findTargets();
+    }
+
+    @Override
+    protected Object getInitializeTarget(List<Object> targets) {
+        return targets;
+    }
+
+    @Override
+    boolean isBatchable() {
+        return super.isBatchable() && !isChunked();
+    }
+
+    /**
+     * Chunks are read in {@code _uuid} order, a declared order or limit loads the targets at once.
+     */
+    private boolean isChunked() {
+        return property.getChunkSize() > 0 && property.getTargetLimit() <= 0 && !StringUtils.hasText(property.getTargetOrderBy());
     }
 }
@@ -2,9 +2,12 @@ package com.tangwangwang.spring.data.ultipa.core.proxy;
 
 import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
 import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.lang.Nullable;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Wangwang Tang
@@ -12,14 +15,26 @@ import java.io.Serializable;
  */
 class SchemaProxy extends AbstractUltipaProxy implements UltipaProxy, Serializable {
 
-    public SchemaProxy(UltipaOperations operations, UltipaPersistentProperty property, @Nullable Object source) {
-        super(operations, property, source);
+    public SchemaProxy(UltipaOperations operations, UltipaPersistentProperty property, @Nullable Object source,
+                       @Nullable UltipaBatchLoader loader) {
+        super(operations, property, source, loader);
     }
 
     @Nullable
     @Override
     protected Object getInitializeTarget() {
+        if (isAdjacencyCached()) {
+            return getInitializeTarget(new ArrayList<>(findTargets()));
+        }
         return createQuery().findOne(targetType);
     }
 
-}
\ No newline at end of file
+    @Nullable
+    @Override
+    protected Object getInitializeTarget(List<Object> targets) {
+        if (targets.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, targets.size());
+        }
+        return targets.isEmpty() ? null : targets.get(0);
+    }
+}
@@ -5,6 +5,7 @@ import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty
 import org.springframework.lang.Nullable;
 
 import java.util.HashSet;
+import java.util.List;
 
 /**
  * @author Wangwang Tang
@@ -12,12 +13,18 @@ import java.util.HashSet;
  */
 class SetProxy extends AbstractUltipaProxy {
 
-    protected SetProxy(UltipaOperations operations, UltipaPersistentProperty property, @Nullable Object source) {
-        super(operations, property, source);
+    protected SetProxy(UltipaOperations operations, UltipaPersistentProperty property, @Nullable Object source,
+                       @Nullable UltipaBatchLoader loader) {
+        super(operations, property, source, loader);
     }
 
     @Override
     protected Object getInitializeTarget() {
-        return new HashSet<>(createQuery().findAll(targetType));
+        return new HashSet<>(findTargets());
+    }
+
+    @Override
+    protected Object getInitializeTarget(List<Object> targets) {
+        return new HashSet<>(targets);
     }
 }
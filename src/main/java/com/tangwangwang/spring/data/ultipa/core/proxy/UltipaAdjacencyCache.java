@@ -0,0 +1,159 @@
+package com.tangwangwang.spring.data.ultipa.core.proxy;
+
+import com.tangwangwang.spring.data.ultipa.annotation.AdjacencyCache;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
+import com.tangwangwang.spring.data.ultipa.core.schema.Schema;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caches the target rows of the references annotated with {@link AdjacencyCache}. The rows of a reference are keyed by
+ * the source schema, the source id, the edge schema and the direction, and kept in one region per reference bounded
+ * by its declared maximum size and time to live. The rows are cached instead of the converted targets, so every
+ * proxy reads its own target instances.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class UltipaAdjacencyCache {
+
+    private final Map<UltipaPersistentProperty, Region> regions = new ConcurrentHashMap<>();
+
+    Region getRegion(UltipaPersistentProperty property, Function<UltipaPersistentProperty, Region> regionFactory) {
+        return regions.computeIfAbsent(property, regionFactory);
+    }
+
+    /**
+     * Evicts the cached targets of the endpoints of a saved edge.
+     *
+     * @param edgeSchema the schema of the saved edge, {@literal null} if unknown.
+     * @param fromSchema the schema of the from node, {@literal null} if unknown.
+     * @param fromId     the id of the from node, {@literal null} if unknown.
+     * @param toSchema   the schema of the to node, {@literal null} if unknown.
+     * @param toId       the id of the to node, {@literal null} if unknown.
+     */
+    public void evictEdge(@Nullable String edgeSchema, @Nullable String fromSchema, @Nullable Object fromId,
+                          @Nullable String toSchema, @Nullable Object toId) {
+        for (Region region : regions.values()) {
+            if (edgeSchema == null) {
+                region.clear();
+                continue;
+            }
+            if (!edgeSchema.equals(region.edgeSchema)) {
+                continue;
+            }
+            String endpointSchema = region.left ? toSchema : fromSchema;
+            Object endpointId = region.left ? toId : fromId;
+            if (endpointSchema == null || endpointId == null) {
+                region.clear();
+            } else if (endpointSchema.equals(region.sourceSchema)) {
+                region.evict(endpointId);
+            }
+        }
+    }
+
+    /**
+     * Evicts the cached targets of every reference whose source, edge or target schema is the given schema.
+     *
+     * @param schemaName the schema of a removed entity.
+     */
+    public void evictSchema(String schemaName) {
+        for (Region region : regions.values()) {
+            if (schemaName.equals(region.sourceSchema) || schemaName.equals(region.edgeSchema)
+                    || schemaName.equals(region.targetSchema)) {
+                region.clear();
+            }
+        }
+    }
+
+    /**
+     * Evicts all cached targets.
+     */
+    public void clear() {
+        regions.values().forEach(Region::clear);
+    }
+
+    /**
+     * The cached targets of one reference, keyed by source id.
+     */
+    static final class Region {
+
+        private final String sourceSchema;
+        private final @Nullable String edgeSchema;
+        private final String targetSchema;
+        private final boolean left;
+        private final long ttlNanos;
+        private final Map<Object, CachedRows> entries;
+        private long generation;
+
+        Region(String sourceSchema, @Nullable String edgeSchema, String targetSchema, boolean left, AdjacencyCache cache) {
+            this.sourceSchema = sourceSchema;
+            this.edgeSchema = edgeSchema;
+            this.targetSchema = targetSchema;
+            this.left = left;
+            this.ttlNanos = cache.ttl() > 0 ? cache.timeUnit().toNanos(cache.ttl()) : 0L;
+            int maxSize = cache.maxSize();
+            this.entries = new LinkedHashMap<Object, CachedRows>(16, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, CachedRows> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        /**
+         * Returns the cached rows of the given source, loads and caches them if absent or expired. The rows are not
+         * cached if the region is evicted while loading them.
+         */
+        List<Schema> get(Object sourceId, Supplier<List<Schema>> loader) {
+            long loadedGeneration;
+            synchronized (this) {
+                CachedRows entry = entries.get(sourceId);
+                if (entry != null && (ttlNanos == 0L || System.nanoTime() - entry.loadedAt < ttlNanos)) {
+                    return entry.rows;
+                }
+                loadedGeneration = generation;
+            }
+
+            List<Schema> rows = Collections.unmodifiableList(new ArrayList<>(loader.get()));
+            synchronized (this) {
+                if (generation == loadedGeneration) {
+                    entries.put(sourceId, new CachedRows(rows, System.nanoTime()));
+                }
+            }
+            return rows;
+        }
+
+        synchronized void evict(Object sourceId) {
+            generation++;
+            entries.remove(sourceId);
+        }
+
+        synchronized void clear() {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    private static final class CachedRows {
+
+        private final List<Schema> rows;
+        private final long loadedAt;
+
+        private CachedRows(List<Schema> rows, long loadedAt) {
+            this.rows = rows;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.tangwangwang.spring.data.ultipa.core.proxy;
+
+import com.tangwangwang.spring.data.ultipa.core.convert.UltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
+import com.tangwangwang.spring.data.ultipa.core.schema.Schema;
+import org.springframework.util.Assert;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Loads the lazy loading proxies created by one read batch together. The first proxy initialized loads the targets of
+ * the pending proxies of the same property with a single {@code in} query, groups the results by source id and
+ * completes every proxy of the batch, instead of running one query per proxy.
+ * <p>
+ * Every proxy holds its loader, so the loader holds the pending proxies weakly. Keeping one entity of a read batch
+ * does not keep the other entities of the batch alive.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class UltipaBatchLoader {
+
+    private static final String SOURCE_ALIAS = "sources";
+    private static final String TARGET_ALIAS = "targets";
+
+    private final int batchSize;
+    private final Map<UltipaPersistentProperty, Set<AbstractUltipaProxy>> pendingProxies = new HashMap<>();
+    private final List<Runnable> deferredLoads = new ArrayList<>();
+
+    /**
+     * Creates a new {@link UltipaBatchLoader}.
+     *
+     * @param batchSize the maximum number of proxies loaded by one query, must be greater than zero.
+     */
+    public UltipaBatchLoader(int batchSize) {
+        Assert.isTrue(batchSize > 0, "Batch size must be greater than 0!");
+
+        this.batchSize = batchSize;
+    }
+
+    synchronized void register(AbstractUltipaProxy proxy) {
+        if (batchSize > 1 && proxy.isBatchable() && proxy.getSource() != null && proxy.getSourceId() != null) {
+            pendingProxies.computeIfAbsent(proxy.getProperty(), property -> Collections.newSetFromMap(new WeakHashMap<>()))
+                    .add(proxy);
+        }
+    }
+
+    /**
+     * Defers loading an eager reference until the whole batch is read, so the reference is loaded together with the
+     * same reference of the other entities of the batch by {@link #loadDeferred()}.
+     *
+     * @param load the action initializing the reference and setting it to its entity.
+     */
+    public synchronized void defer(Runnable load) {
+        deferredLoads.add(load);
+    }
+
+    /**
+     * Runs the deferred loads of the eager references. The first load of a property loads the property of all
+     * entities of the batch, the following ones find their proxy completed.
+     */
+    public void loadDeferred() {
+        List<Runnable> loads;
+        synchronized (this) {
+            loads = new ArrayList<>(deferredLoads);
+            deferredLoads.clear();
+        }
+        loads.forEach(Runnable::run);
+    }
+
+    /**
+     * Loads the given proxy together with its pending siblings.
+     *
+     * @return {@literal true} if the proxy has been completed, {@literal false} if it has no pending siblings and
+     * should be loaded on its own.
+     */
+    boolean load(AbstractUltipaProxy proxy) {
+        List<AbstractUltipaProxy> batch = takeBatch(proxy);
+        if (batch.size() < 2) {
+            return false;
+        }
+
+        loadBatch(batch, UnaryOperator.identity());
+        return true;
+    }
+
+    /**
+     * Loads the targets of the given proxies of the same property with one query and completes the proxies.
+     *
+     * @param identity resolves each loaded target to the instance to complete the proxies with.
+     */
+    static void loadBatch(List<AbstractUltipaProxy> batch, UnaryOperator<Object> identity) {
+        AbstractUltipaProxy proxy = batch.get(0);
+        MultiValueMap<Object, AbstractUltipaProxy> proxiesBySourceId = new LinkedMultiValueMap<>();
+        for (AbstractUltipaProxy pending : batch) {
+            proxiesBySourceId.add(pending.getSourceId(), pending);
+        }
+
+        Map<String, List<Schema>> rows = proxy.createBatchQuery(proxiesBySourceId.keySet()).findAllByAlias();
+        List<Schema> sources = rows.getOrDefault(SOURCE_ALIAS, Collections.emptyList());
+        List<Schema> targets = rows.getOrDefault(TARGET_ALIAS, Collections.emptyList());
+
+        UltipaConverter converter = proxy.operations.getConverter();
+        List<?> convertedTargets = converter.readAll(proxy.targetType, targets);
+        Class<?> sourceIdType = batch.get(0).getSourceId().getClass();
+        String sourceIdKey = proxy.getSourceIdKey();
+
+        MultiValueMap<Object, Object> targetsBySourceId = new LinkedMultiValueMap<>();
+        for (int index = 0; index < Math.min(sources.size(), convertedTargets.size()); index++) {
+            Object sourceId = converter.getConversionService().convert(sources.get(index).toMap().get(sourceIdKey), sourceIdType);
+            targetsBySourceId.add(sourceId, identity.apply(convertedTargets.get(index)));
+        }
+
+        proxiesBySourceId.forEach((sourceId, proxies) -> {
+            List<Object> loaded = targetsBySourceId.getOrDefault(sourceId, Collections.emptyList());
+            proxies.forEach(pending -> pending.complete(new ArrayList<>(loaded)));
+        });
+    }
+
+    private synchronized List<AbstractUltipaProxy> takeBatch(AbstractUltipaProxy proxy) {
+        Set<AbstractUltipaProxy> pending = pendingProxies.get(proxy.getProperty());
+        if (pending == null || !pending.remove(proxy)) {
+            return Collections.singletonList(proxy);
+        }
+
+        List<AbstractUltipaProxy> batch = new ArrayList<>(Math.min(batchSize, pending.size() + 1));
+        batch.add(proxy);
+        for (Iterator<AbstractUltipaProxy> iterator = pending.iterator(); iterator.hasNext() && batch.size() < batchSize; ) {
+            AbstractUltipaProxy sibling = iterator.next();
+            iterator.remove();
+            if (!sibling.isInitialized()) {
+                batch.add(sibling);
+            }
+        }
+        if (pending.isEmpty()) {
+            pendingProxies.remove(proxy.getProperty());
+        }
+        return batch;
+    }
+}
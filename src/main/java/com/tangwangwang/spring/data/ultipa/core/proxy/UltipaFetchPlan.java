@@ -0,0 +1,261 @@
+package com.tangwangwang.spring.data.ultipa.core.proxy;
+
+import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentEntity;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Loads the references along the given dot separated paths of read entities up front, e.g. {@code "friends.posts"}
+ * loads the friends of the entities and the posts of the friends. The references are loaded level by level, the
+ * references of one property on one level are loaded by one query per batch of sources, and their proxies are
+ * completed so reading them does not query the server. Entities loaded more than once within the plan are resolved to
+ * the same instance.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public final class UltipaFetchPlan {
+
+    private static final UltipaFetchPlan EMPTY = new UltipaFetchPlan(Collections.emptyList());
+
+    private final List<String[]> paths;
+
+    private UltipaFetchPlan(List<String[]> paths) {
+        this.paths = paths;
+    }
+
+    /**
+     * Creates a new {@link UltipaFetchPlan} of the given reference paths.
+     *
+     * @param paths dot separated reference property names, must not be {@literal null}.
+     * @return the fetch plan.
+     */
+    public static UltipaFetchPlan of(String... paths) {
+        Assert.notNull(paths, "Paths must not be null!");
+
+        List<String[]> segments = new ArrayList<>(paths.length);
+        for (String path : paths) {
+            Assert.hasText(path, "Path must not be empty!");
+            segments.add(StringUtils.delimitedListToStringArray(path.trim(), "."));
+        }
+        return segments.isEmpty() ? EMPTY : new UltipaFetchPlan(segments);
+    }
+
+    public boolean isEmpty() {
+        return paths.isEmpty();
+    }
+
+    /**
+     * Loads the references of the given entities along the paths of this plan.
+     *
+     * @param operations must not be {@literal null}.
+     * @param entities   the read entities, {@literal null} elements are ignored.
+     */
+    public void apply(UltipaOperations operations, Collection<?> entities) {
+        Assert.notNull(operations, "UltipaOperations must not be null!");
+        Assert.notNull(entities, "Entities must not be null!");
+
+        if (paths.isEmpty() || entities.isEmpty()) {
+            return;
+        }
+
+        Fetch fetch = new Fetch(operations.getConverter().getMappingContext(), operations.getConverter().getLazyLoadingBatchSize());
+        // every root is kept, duplicates of the caller are completed as well, they share the loaded targets
+        Set<Object> roots = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object entity : entities) {
+            if (entity != null) {
+                fetch.identity(entity);
+                roots.add(entity);
+            }
+        }
+
+        for (String[] path : paths) {
+            Collection<Object> level = roots;
+            for (String segment : path) {
+                level = fetch.fetchLevel(level, segment);
+            }
+        }
+    }
+
+    /**
+     * Loads the references of the given streamed entities along the paths of this plan. The entities are read in
+     * windows of the lazy loading batch size, the references of each window are loaded before its entities are
+     * passed on, so entities are resolved to the same instance within a window only.
+     *
+     * @param operations must not be {@literal null}.
+     * @param entities   the streamed entities, {@literal null} elements are ignored.
+     * @return the stream of the entities, closing it closes the given stream.
+     */
+    public <T> Stream<T> apply(UltipaOperations operations, Stream<T> entities) {
+        Assert.notNull(operations, "UltipaOperations must not be null!");
+        Assert.notNull(entities, "Entities must not be null!");
+
+        if (paths.isEmpty()) {
+            return entities;
+        }
+
+        int batchSize = operations.getConverter().getLazyLoadingBatchSize();
+        Iterator<T> source = entities.iterator();
+        Iterator<T> windows = new Iterator<T>() {
+
+            private Iterator<T> window = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                if (!window.hasNext() && source.hasNext()) {
+                    List<T> next = new ArrayList<>(batchSize);
+                    while (next.size() < batchSize && source.hasNext()) {
+                        next.add(source.next());
+                    }
+                    apply(operations, next);
+                    window = next.iterator();
+                }
+                return window.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return window.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(windows, Spliterator.ORDERED), false)
+                .onClose(entities::close);
+    }
+
+    @Override
+    public String toString() {
+        List<String> names = new ArrayList<>(paths.size());
+        paths.forEach(path -> names.add(String.join(".", path)));
+        return "UltipaFetchPlan " + names;
+    }
+
+    /**
+     * The state of one application of a plan.
+     */
+    private static final class Fetch {
+
+        private final MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> mappingContext;
+        private final int batchSize;
+        private final Map<List<Object>, Object> identities = new HashMap<>();
+
+        private Fetch(MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> mappingContext,
+                      int batchSize) {
+            this.mappingContext = mappingContext;
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Loads the given reference of the given entities and returns the loaded targets, the next level.
+         */
+        private Collection<Object> fetchLevel(Collection<Object> level, String propertyName) {
+            Map<UltipaPersistentProperty, List<Object>> entitiesByProperty = new LinkedHashMap<>();
+            for (Object entity : level) {
+                UltipaPersistentEntity<?> persistentEntity = mappingContext.getRequiredPersistentEntity(ClassUtils.getUserClass(entity));
+                UltipaPersistentProperty property = persistentEntity.getPersistentProperty(propertyName);
+                if (property == null || !property.isReferenceProperty()) {
+                    throw new IllegalArgumentException(String.format("No reference property %s found on %s!",
+                            propertyName, persistentEntity.getType().getName()));
+                }
+                entitiesByProperty.computeIfAbsent(property, it -> new ArrayList<>()).add(entity);
+            }
+
+            Set<Object> next = Collections.newSetFromMap(new IdentityHashMap<>());
+            entitiesByProperty.forEach((property, entities) -> {
+                load(property, entities);
+                for (Object entity : entities) {
+                    collectTargets(getValue(property, entity), next);
+                }
+            });
+            return next;
+        }
+
+        private void load(UltipaPersistentProperty property, List<Object> entities) {
+            List<AbstractUltipaProxy> batch = new ArrayList<>();
+            for (Object entity : entities) {
+                UltipaProxy proxy = UltipaProxyFactory.getProxy(getValue(property, entity));
+                if (!(proxy instanceof AbstractUltipaProxy) || proxy.isInitialized()) {
+                    continue;
+                }
+
+                AbstractUltipaProxy pending = (AbstractUltipaProxy) proxy;
+                if (!pending.isBatchable() || pending.getSource() == null || pending.getSourceId() == null) {
+                    pending.initialize();
+                    continue;
+                }
+
+                batch.add(pending);
+                if (batch.size() == batchSize) {
+                    UltipaBatchLoader.loadBatch(batch, this::identity);
+                    batch = new ArrayList<>();
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                UltipaBatchLoader.loadBatch(batch, this::identity);
+            }
+        }
+
+        @Nullable
+        private Object getValue(UltipaPersistentProperty property, Object entity) {
+            return property.getOwner().getPropertyAccessor(entity).getProperty(property);
+        }
+
+        private void collectTargets(@Nullable Object value, Set<Object> targets) {
+            UltipaProxy proxy = UltipaProxyFactory.getProxy(value);
+            Object target = proxy == null ? value : proxy.isInitialized() ? proxy.getTarget() : null;
+            // chunked targets are loaded while they are iterated, the plan does not descend into them
+            if (target == null || target instanceof ChunkedList) {
+                return;
+            }
+
+            if (target instanceof Collection) {
+                for (Object element : (Collection<?>) target) {
+                    if (element != null) {
+                        targets.add(element);
+                    }
+                }
+            } else {
+                targets.add(target);
+            }
+        }
+
+        /**
+         * Returns the instance loaded first for the id of the given entity.
+         */
+        private Object identity(Object entity) {
+            Class<?> type = ClassUtils.getUserClass(entity);
+            UltipaPersistentEntity<?> persistentEntity = mappingContext.getPersistentEntity(type);
+            Object id = persistentEntity == null || !persistentEntity.hasIdProperty() ? null
+                    : persistentEntity.getIdentifierAccessor(entity).getIdentifier();
+            if (id == null) {
+                return entity;
+            }
+            return identities.computeIfAbsent(Arrays.asList(type, id), key -> entity);
+        }
+    }
+}
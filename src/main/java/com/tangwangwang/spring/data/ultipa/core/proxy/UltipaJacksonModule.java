@@ -0,0 +1,198 @@
+package com.tangwangwang.spring.data.ultipa.core.proxy;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.tangwangwang.spring.data.ultipa.annotation.Edge;
+import com.tangwangwang.spring.data.ultipa.annotation.Node;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentEntity;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.lang.reflect.Member;
+
+/**
+ * Jackson module serializing lazy loading proxies without loading them. An initialized proxy is written as its
+ * target, an uninitialized proxy is written according to the configured {@link Policy}. Neither reads the proxy
+ * through its interceptor, so serializing an entity never runs a query.
+ *
+ * <pre class="code">
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new UltipaJacksonModule(converter.getMappingContext()));
+ * </pre>
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class UltipaJacksonModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> mappingContext;
+    private final Policy policy;
+
+    /**
+     * Creates a new {@link UltipaJacksonModule} omitting uninitialized proxies.
+     *
+     * @param mappingContext the mapping context resolving the reference properties, must not be {@literal null}.
+     */
+    public UltipaJacksonModule(MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> mappingContext) {
+        this(mappingContext, Policy.OMIT);
+    }
+
+    /**
+     * Creates a new {@link UltipaJacksonModule}.
+     *
+     * @param mappingContext the mapping context resolving the reference properties, must not be {@literal null}.
+     * @param policy         how uninitialized proxies are written, must not be {@literal null}.
+     */
+    public UltipaJacksonModule(MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> mappingContext,
+                               Policy policy) {
+        super(UltipaJacksonModule.class.getSimpleName());
+        Assert.notNull(mappingContext, "MappingContext must not be null!");
+        Assert.notNull(policy, "Policy must not be null!");
+
+        this.mappingContext = mappingContext;
+        this.policy = policy;
+        addSerializer(UltipaProxy.class, new UltipaProxySerializer(policy));
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        if (policy == Policy.OMIT) {
+            // appended, so inclusions declared on the property itself take precedence
+            context.appendAnnotationIntrospector(new ReferenceInclusionIntrospector(mappingContext));
+        }
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    @Nullable
+    private static UltipaProxy getUninitializedProxy(@Nullable Object value) {
+        UltipaProxy proxy = UltipaProxyFactory.getProxy(value);
+        return proxy == null || proxy.isInitialized() ? null : proxy;
+    }
+
+    /**
+     * How an uninitialized proxy is written.
+     */
+    public enum Policy {
+
+        /**
+         * Leaves the reference property out, an uninitialized proxy outside a reference property is written as
+         * {@literal null}.
+         */
+        OMIT,
+
+        /**
+         * Writes {@literal null}.
+         */
+        NULL,
+
+        /**
+         * Writes the id of the target if it is known without loading, as for the {@code From} and {@code To}
+         * references of an edge, otherwise writes {@literal null}.
+         *
+         * @see UltipaProxy#getTargetId()
+         */
+        ID
+    }
+
+    private static class UltipaProxySerializer extends StdSerializer<UltipaProxy> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Policy policy;
+
+        private UltipaProxySerializer(Policy policy) {
+            super(UltipaProxy.class);
+            this.policy = policy;
+        }
+
+        @Override
+        public void serialize(UltipaProxy value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            UltipaProxy proxy = UltipaProxyFactory.getProxy(value);
+            Assert.state(proxy != null, "Proxy must not be null!");
+
+            // an initialized proxy returns its target without loading
+            Object written = proxy.isInitialized() ? proxy.getTarget()
+                    : policy == Policy.ID ? proxy.getTargetId() : null;
+            if (written == null) {
+                provider.defaultSerializeNull(gen);
+            } else {
+                provider.defaultSerializeValue(written, gen);
+            }
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, UltipaProxy value) {
+            return policy == Policy.OMIT && getUninitializedProxy(value) != null;
+        }
+    }
+
+    /**
+     * Declares a custom inclusion for the reference properties of nodes and edges, so Jackson leaves out the
+     * uninitialized proxies with the property writers it builds itself, reading each value once.
+     */
+    private static class ReferenceInclusionIntrospector extends NopAnnotationIntrospector {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final JsonInclude.Value REFERENCE_INCLUSION = JsonInclude.Value.construct(
+                JsonInclude.Include.CUSTOM, JsonInclude.Include.USE_DEFAULTS, UninitializedProxyFilter.class, null);
+
+        private final transient MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> mappingContext;
+
+        private ReferenceInclusionIntrospector(MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> mappingContext) {
+            this.mappingContext = mappingContext;
+        }
+
+        @Override
+        public JsonInclude.Value findPropertyInclusion(Annotated annotated) {
+            return annotated instanceof AnnotatedMember && isReferenceProperty((AnnotatedMember) annotated)
+                    ? REFERENCE_INCLUSION : JsonInclude.Value.empty();
+        }
+
+        private boolean isReferenceProperty(AnnotatedMember annotated) {
+            Class<?> type = annotated.getDeclaringClass();
+            if (!AnnotatedElementUtils.hasAnnotation(type, Node.class) && !AnnotatedElementUtils.hasAnnotation(type, Edge.class)) {
+                return false;
+            }
+
+            Member member = annotated.getMember();
+            for (UltipaPersistentProperty property : mappingContext.getRequiredPersistentEntity(type)) {
+                if (property.isReferenceProperty() && (member.equals(property.getField()) || member.equals(property.getGetter()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Value filter of the reference properties, a value equal to the filter is left out.
+     */
+    static final class UninitializedProxyFilter {
+
+        @Override
+        public boolean equals(@Nullable Object value) {
+            return getUninitializedProxy(value) != null;
+        }
+
+        @Override
+        public int hashCode() {
+            return UninitializedProxyFilter.class.hashCode();
+        }
+    }
+}
@@ -38,6 +38,13 @@ public interface UltipaProxy {
     @Nullable
     Object getSourceId();
 
+    /**
+     * Returns target object id if the source row carries it, as the {@code _from} and {@code _to} of an edge do for
+     * its {@code From} and {@code To} references, otherwise null (does not trigger initialization)
+     */
+    @Nullable
+    Object getTargetId();
+
     /**
      * Initializes the proxy and returns the wrapped value when give object is {@link UltipaProxy} instance,
      * otherwise returns null.
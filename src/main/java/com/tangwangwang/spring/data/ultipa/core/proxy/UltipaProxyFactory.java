@@ -4,17 +4,24 @@ import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
 import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
-import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.cglib.proxy.Callback;
 import org.springframework.cglib.proxy.Factory;
 import org.springframework.cglib.proxy.MethodProxy;
 import org.springframework.lang.Nullable;
 import org.springframework.objenesis.Objenesis;
 import org.springframework.objenesis.ObjenesisStd;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ReflectionUtils;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Wangwang Tang
@@ -29,35 +36,78 @@ public class UltipaProxyFactory extends UltipaProxyFactorySupport {
     }
 
     public Object createLazyLoadingProxy(UltipaOperations operations, UltipaPersistentProperty property, Object source) {
+        return createLazyLoadingProxy(operations, property, source, null);
+    }
+
+    /**
+     * Creates a lazy loading proxy which is loaded together with the other proxies of the given loader.
+     *
+     * @param loader the loader of the read batch the source belongs to, can be {@literal null}.
+     */
+    public Object createLazyLoadingProxy(UltipaOperations operations, UltipaPersistentProperty property, Object source,
+                                         @Nullable UltipaBatchLoader loader) {
+        return createLazyLoadingProxy(operations, property, source, loader, null);
+    }
+
+    /**
+     * Creates a lazy loading proxy which is loaded together with the other proxies of the given loader.
+     *
+     * @param loader   the loader of the read batch the source belongs to, can be {@literal null}.
+     * @param targetId the id of the target if the row of the source carries it, can be {@literal null}.
+     * @see UltipaProxy#getTargetId()
+     */
+    public Object createLazyLoadingProxy(UltipaOperations operations, UltipaPersistentProperty property, Object source,
+                                         @Nullable UltipaBatchLoader loader, @Nullable Object targetId) {
         Class<?> propertyType = property.getType();
         if (source instanceof SchemaProxy) {
             source = ((SchemaProxy) source).getTarget();
         }
-        UltipaProxy proxy = createProxyTarget(operations, property, source);
+        UltipaProxy proxy = createProxyTarget(operations, property, source, loader, targetId);
         LazyLoadingInterceptor interceptor = new LazyLoadingInterceptor(source, proxy);
 
-        if (!propertyType.isInterface()) {
-            Factory factory = (Factory) objenesis.newInstance(getEnhancedTypeFor(propertyType));
-            factory.setCallbacks(new Callback[]{interceptor});
-            return factory;
-        }
-
-        ProxyFactory proxyFactory = new ProxyFactory();
+        Factory factory = (Factory) objenesis.newInstance(getEnhancedTypeFor(propertyType));
+        factory.setCallbacks(new Callback[]{interceptor});
+        return factory;
+    }
 
-        for (Class<?> type : propertyType.getInterfaces()) {
-            proxyFactory.addInterface(type);
+    /**
+     * Generates the proxy type of the given reference property up front, so the first read of the property does not
+     * pay the class generation. Types which can not be proxied are skipped, they fail when the property is read.
+     *
+     * @param property the reference property, must not be {@literal null}.
+     */
+    public static void prepareProxyType(UltipaPersistentProperty property) {
+        Class<?> propertyType = property.getType();
+        if (Modifier.isFinal(propertyType.getModifiers())
+                || property.isCollectionLike() && List.class != propertyType && Set.class != propertyType) {
+            return;
         }
+        getEnhancedTypeFor(propertyType);
+    }
 
-        proxyFactory.addInterface(UltipaProxy.class);
-        proxyFactory.addInterface(propertyType);
-        proxyFactory.addAdvice(interceptor);
-
-        return proxyFactory.getProxy(UltipaProxy.class.getClassLoader());
+    /**
+     * Returns the proxy backing the given lazy loading proxy, so it can be inspected without going through the
+     * interceptor.
+     *
+     * @return the backing proxy, or {@literal null} if the given object is not a proxy.
+     */
+    @Nullable
+    static UltipaProxy getProxy(@Nullable Object object) {
+        if (object instanceof Factory) {
+            Callback callback = ((Factory) object).getCallback(0);
+            if (callback instanceof LazyLoadingInterceptor) {
+                return ((LazyLoadingInterceptor) callback).proxy;
+            }
+        }
+        return object instanceof UltipaProxy ? (UltipaProxy) object : null;
     }
 
     public static class LazyLoadingInterceptor implements MethodInterceptor, org.springframework.cglib.proxy.MethodInterceptor, Serializable {
 
         private static final Method INITIALIZE_METHOD, FINALIZE_METHOD, GET_SOURCE_METHOD, CLASS_METHOD;
+        private static final Map<Method, MethodKind> METHOD_KINDS = new ConcurrentReferenceHashMap<>();
+        private static final Map<Method, MethodHandle> METHOD_HANDLES = new ConcurrentReferenceHashMap<>();
+        private static final MethodType SPREAD_METHOD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
 
         static {
             try {
@@ -72,6 +122,9 @@ public class UltipaProxyFactory extends UltipaProxyFactorySupport {
 
         private final @Nullable Object source;
         private final UltipaProxy proxy;
+        private transient @Nullable String description;
+        private transient @Nullable ProxyKey key;
+        private transient boolean swapped;
 
         public LazyLoadingInterceptor(@Nullable Object source, UltipaProxy proxy) {
             this.source = source;
@@ -87,84 +140,196 @@ public class UltipaProxyFactory extends UltipaProxyFactorySupport {
         @Nullable
         @Override
         public Object intercept(@Nullable Object object, Method method, Object[] args, @Nullable MethodProxy methodProxy) throws Throwable {
-            if (INITIALIZE_METHOD.equals(method)) {
-                return proxy.getTarget();
-            }
-            if (GET_SOURCE_METHOD.equals(method)) {
-                return source;
-            }
-            if (CLASS_METHOD.equals(method)) {
-                return proxy.getTargetClass();
-            }
-
-            if (ReflectionUtils.isObjectMethod(method) || !proxy.isInitialized()) {
-
-                if (ReflectionUtils.isToStringMethod(method)) {
+            switch (METHOD_KINDS.computeIfAbsent(method, MethodKind::of)) {
+                case INITIALIZE:
+                    return proxy.getTarget();
+                case GET_SOURCE:
+                    return source;
+                case GET_CLASS:
+                    return proxy.getTargetClass();
+                case TO_STRING:
                     return proxyToString();
-                }
-
-                if (ReflectionUtils.isEqualsMethod(method)) {
-                    return proxyEquals(args[0]);
-                }
-
-                if (ReflectionUtils.isHashCodeMethod(method)) {
+                case EQUALS:
+                    return proxyEquals(object, args[0]);
+                case HASH_CODE:
                     return proxyHashCode();
-                }
-
-                // finalize methods should not trigger proxy initialization
-                if (FINALIZE_METHOD.equals(method)) {
+                case FINALIZE:
+                    // finalize methods should not trigger proxy initialization
                     return null;
-                }
-            }
-
-            if (method.getDeclaringClass() == UltipaProxy.class) {
-                return method.invoke(proxy, args);
+                case PROXY:
+                    return method.invoke(proxy, args);
+                default:
+                    return invokeTarget(object, method, args, methodProxy);
             }
+        }
 
+        @Nullable
+        private Object invokeTarget(@Nullable Object object, Method method, Object[] args, @Nullable MethodProxy methodProxy) throws Throwable {
             Object target = proxy.getTarget();
 
+            // swapped on the first call whoever initialized the proxy, e.g. a batch loading its siblings
+            if (!swapped && object != null && proxy instanceof AbstractUltipaProxy) {
+                swapped = true;
+                ((AbstractUltipaProxy) proxy).replaceInSource(object);
+            }
+
             if (target == null) {
                 return null;
             }
 
-            ReflectionUtils.makeAccessible(method);
+            // generated fast classes of jdk interfaces can not be defined on recent jdks
+            if (methodProxy != null && !proxy.getTargetClass().isInterface()) {
+                return methodProxy.invoke(target, args);
+            }
 
-            return method.invoke(target, args);
+            return (Object) METHOD_HANDLES.computeIfAbsent(method, LazyLoadingInterceptor::createMethodHandle)
+                    .invokeExact(target, args);
+        }
+
+        /**
+         * Creates a handle invoking the given method with the target and the array of arguments.
+         */
+        private static MethodHandle createMethodHandle(Method method) {
+            try {
+                return MethodHandles.lookup().unreflect(method)
+                        .asSpreader(Object[].class, method.getParameterCount())
+                        .asType(SPREAD_METHOD_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(String.format("Can not access %s.", method), e);
+            }
         }
 
         private String proxyToString() {
-            StringBuilder description = new StringBuilder();
+            String description = this.description;
+            if (description != null) {
+                return description;
+            }
+
+            StringBuilder sb = new StringBuilder();
 
             if (proxy.getSourceId() != null) {
-                description.append(proxy.getTargetClass().getSimpleName())
+                sb.append(proxy.getTargetClass().getSimpleName())
                         .append("$")
                         .append(proxy.getClass().getSimpleName())
                         .append(" (sourceId = ")
                         .append(proxy.getSourceId())
                         .append(")");
             } else {
-                description.append(UltipaProxy.class.getSimpleName())
+                sb.append(UltipaProxy.class.getSimpleName())
                         .append(" (source = null)");
             }
 
-            return description.toString();
+            this.description = sb.toString();
+            return this.description;
         }
 
-        private boolean proxyEquals(Object that) {
+        private boolean proxyEquals(@Nullable Object object, Object that) {
 
             if (!(that instanceof UltipaProxy)) {
                 return false;
             }
 
-            if (that == proxy) {
+            if (that == object || that == proxy) {
                 return true;
             }
 
-            return proxyToString().equals(that.toString());
+            if (that instanceof Factory && ((Factory) that).getCallback(0) instanceof LazyLoadingInterceptor) {
+                return proxyKey().equals(((LazyLoadingInterceptor) ((Factory) that).getCallback(0)).proxyKey());
+            }
+
+            return proxyKey().equals(ProxyKey.of((UltipaProxy) that));
         }
 
         private int proxyHashCode() {
-            return proxyToString().hashCode();
+            return proxyKey().hashCode();
+        }
+
+        private ProxyKey proxyKey() {
+            ProxyKey key = this.key;
+            if (key == null) {
+                key = ProxyKey.of(proxy);
+                this.key = key;
+            }
+            return key;
+        }
+
+        /**
+         * Identifies a proxy by the reference property it loads and the id of its source, proxies without a source id
+         * are only equal to themselves.
+         */
+        private static final class ProxyKey {
+
+            private final Object property;
+            private final @Nullable Object sourceId;
+            private final int hashCode;
+
+            private ProxyKey(Object property, @Nullable Object sourceId) {
+                this.property = property;
+                this.sourceId = sourceId;
+                this.hashCode = sourceId == null ? System.identityHashCode(this) : 31 * property.hashCode() + sourceId.hashCode();
+            }
+
+            private static ProxyKey of(UltipaProxy proxy) {
+                Object property = proxy instanceof AbstractUltipaProxy
+                        ? ((AbstractUltipaProxy) proxy).getProperty()
+                        : proxy.getTargetClass();
+                return new ProxyKey(property, proxy.getSourceId());
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if (this == obj) {
+                    return true;
+                }
+                if (!(obj instanceof ProxyKey)) {
+                    return false;
+                }
+                ProxyKey that = (ProxyKey) obj;
+                return sourceId != null && sourceId.equals(that.sourceId) && property.equals(that.property);
+            }
+
+            @Override
+            public int hashCode() {
+                return hashCode;
+            }
+        }
+
+        /**
+         * The way a proxied method is handled, resolved once per method.
+         */
+        private enum MethodKind {
+
+            INITIALIZE, GET_SOURCE, GET_CLASS, TO_STRING, EQUALS, HASH_CODE, FINALIZE, PROXY, TARGET;
+
+            private static MethodKind of(Method method) {
+                if (INITIALIZE_METHOD.equals(method)) {
+                    return INITIALIZE;
+                }
+                if (GET_SOURCE_METHOD.equals(method)) {
+                    return GET_SOURCE;
+                }
+                if (CLASS_METHOD.equals(method)) {
+                    return GET_CLASS;
+                }
+                if (ReflectionUtils.isToStringMethod(method)) {
+                    return TO_STRING;
+                }
+                if (ReflectionUtils.isEqualsMethod(method)) {
+                    return EQUALS;
+                }
+                if (ReflectionUtils.isHashCodeMethod(method)) {
+                    return HASH_CODE;
+                }
+                if (FINALIZE_METHOD.equals(method)) {
+                    return FINALIZE;
+                }
+                if (method.getDeclaringClass() == UltipaProxy.class) {
+                    return PROXY;
+                }
+
+                ReflectionUtils.makeAccessible(method);
+                return TARGET;
+            }
         }
     }
 }
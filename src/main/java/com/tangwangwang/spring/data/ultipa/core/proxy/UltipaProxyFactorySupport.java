@@ -5,8 +5,10 @@ import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty
 import org.springframework.cglib.proxy.Enhancer;
 import org.springframework.cglib.proxy.MethodInterceptor;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -15,31 +17,50 @@ import java.util.Set;
  */
 abstract class UltipaProxyFactorySupport {
 
+    private static final Map<Class<?>, Class<?>> ENHANCED_TYPES = new ConcurrentReferenceHashMap<>();
 
-    protected static UltipaProxy createProxyTarget(UltipaOperations operations, UltipaPersistentProperty property, @Nullable Object source) {
+    protected static UltipaProxy createProxyTarget(UltipaOperations operations, UltipaPersistentProperty property,
+                                                   @Nullable Object source, @Nullable UltipaBatchLoader loader,
+                                                   @Nullable Object targetId) {
         Class<?> propertyType = property.getType();
+        AbstractUltipaProxy proxy;
         if (List.class == propertyType) {
-            return new ListProxy(operations, property, source);
-        }
-        if (Set.class == propertyType) {
-            return new SetProxy(operations, property, source);
-        }
-        if (property.isCollectionLike()) {
+            proxy = new ListProxy(operations, property, source, loader);
+        } else if (Set.class == propertyType) {
+            proxy = new SetProxy(operations, property, source, loader);
+        } else if (property.isCollectionLike()) {
             throw new IllegalStateException(String.format("Ultipa does not support proxy type '%s'", propertyType));
         } else {
-            return new SchemaProxy(operations, property, source);
+            proxy = new SchemaProxy(operations, property, source, loader);
+        }
+        proxy.setTargetId(targetId);
+
+        if (loader != null) {
+            loader.register(proxy);
         }
+        return proxy;
     }
 
     /**
-     * Returns the CGLib enhanced type for the given source type.
+     * Returns the CGLib enhanced type for the given source type, the type is generated once and cached. Interfaces are
+     * implemented by the enhanced type, classes are extended.
      */
     protected static Class<?> getEnhancedTypeFor(Class<?> type) {
+        return ENHANCED_TYPES.computeIfAbsent(type, UltipaProxyFactorySupport::createEnhancedType);
+    }
 
+    private static Class<?> createEnhancedType(Class<?> type) {
         Enhancer enhancer = new Enhancer();
-        enhancer.setSuperclass(type);
+        if (type.isInterface()) {
+            // named after and defined next to UltipaProxy, jdk interfaces can not host the generated class
+            enhancer.setInterfaces(new Class[]{UltipaProxy.class, type});
+            enhancer.setClassLoader(UltipaProxy.class.getClassLoader());
+            enhancer.setContextClass(UltipaProxy.class);
+        } else {
+            enhancer.setSuperclass(type);
+            enhancer.setInterfaces(new Class[]{UltipaProxy.class});
+        }
         enhancer.setCallbackType(MethodInterceptor.class);
-        enhancer.setInterfaces(new Class[]{UltipaProxy.class});
 
         return enhancer.createClass();
     }
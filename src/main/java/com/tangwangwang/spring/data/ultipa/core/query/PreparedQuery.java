@@ -0,0 +1,139 @@
+package com.tangwangwang.spring.data.ultipa.core.query;
+
+import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.exception.ParameterBindingException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable and thread-safe form of a {@link Query}. The uql string is compiled and its placeholders are validated
+ * once when the prepared query is created, so it can be kept in a field and shared by all threads. Parameters are
+ * supplied per execution with {@link #bind(Map)}, which returns a new {@link Query} using the compiled template.
+ * Methods changing sort, skip or limit return a new instance. Obtained from {@link UltipaOperations#prepare(String)}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public final class PreparedQuery {
+
+    private final UltipaOperations operations;
+    private final UqlTemplate template;
+    private final ExpressionParser parser;
+    private final Sort sort;
+    private final @Nullable String sortPrefix;
+    private final long skip;
+    private final int limit;
+
+    private PreparedQuery(UltipaOperations operations, UqlTemplate template, ExpressionParser parser, Sort sort,
+                          @Nullable String sortPrefix, long skip, int limit) {
+        this.operations = operations;
+        this.template = template;
+        this.parser = parser;
+        this.sort = sort;
+        this.sortPrefix = sortPrefix;
+        this.skip = skip;
+        this.limit = limit;
+    }
+
+    /**
+     * Creates a new {@link PreparedQuery} for the given uql string.
+     *
+     * @param operations must not be {@literal null}.
+     * @param uql        must not be {@literal null}.
+     * @param parser     the parser for the placeholder expressions, must not be {@literal null}.
+     * @param sortPrefix the alias the sort properties are prefixed with, can be {@literal null}.
+     * @return a new {@link PreparedQuery}.
+     * @throws ParameterBindingException if a placeholder has no content, can not be parsed or is nested into another
+     *                                   placeholder.
+     */
+    public static PreparedQuery of(UltipaOperations operations, String uql, ExpressionParser parser, @Nullable String sortPrefix) {
+
+        Assert.notNull(operations, "UltipaOperations must not be null!");
+        Assert.notNull(uql, "Uql must not be null!");
+        Assert.notNull(parser, "ExpressionParser must not be null!");
+
+        UqlTemplate template = UqlTemplate.of(uql, parser);
+        if (!template.isCompiled()) {
+            throw new ParameterBindingException(String.format("Uql '%s' contains nested or unclosed placeholders and can not be prepared.", uql));
+        }
+        for (UqlTemplate.Segment segment : template.getSegments()) {
+            if (segment.isLiteral()) {
+                continue;
+            }
+            if (segment.getExpressionString() == null) {
+                throw new ParameterBindingException(String.format("No content in placeholder of uql '%s'.", uql));
+            }
+            if (segment.getExpression() == null) {
+                throw new ParameterBindingException(String.format("Parameter '%s' of uql '%s' can not be parsed.", segment.getExpressionString(), uql));
+            }
+        }
+
+        return new PreparedQuery(operations, template, parser, Sort.unsorted(), sortPrefix, 0L, 0);
+    }
+
+    public PreparedQuery skip(long skip) {
+        return new PreparedQuery(operations, template, parser, sort, sortPrefix, skip, limit);
+    }
+
+    public PreparedQuery limit(int limit) {
+        return new PreparedQuery(operations, template, parser, sort, sortPrefix, skip, limit);
+    }
+
+    public PreparedQuery with(Pageable pageable) {
+        Assert.notNull(pageable, "Pageable must not be null!");
+
+        if (pageable.isUnpaged()) {
+            return this;
+        }
+
+        return new PreparedQuery(operations, template, parser, sort.and(pageable.getSort()), sortPrefix,
+                pageable.getOffset(), pageable.getPageSize());
+    }
+
+    public PreparedQuery with(Sort sort) {
+        Assert.notNull(sort, "Sort must not be null!");
+
+        if (sort.isUnsorted()) {
+            return this;
+        }
+
+        return new PreparedQuery(operations, template, parser, this.sort.and(sort), sortPrefix, skip, limit);
+    }
+
+    /**
+     * Returns a {@link Query} for a single execution without parameters.
+     *
+     * @return a new {@link Query}.
+     */
+    public Query bind() {
+        return bind(Collections.emptyMap());
+    }
+
+    /**
+     * Returns a {@link Query} for a single execution with the given parameters. The returned query is not shared and
+     * must not be used by multiple threads.
+     *
+     * @param paramMap must not be {@literal null}.
+     * @return a new {@link Query}.
+     */
+    public Query bind(Map<String, Object> paramMap) {
+        Assert.notNull(paramMap, "Parameters must not be null!");
+
+        return new Query(operations, template, parser, paramMap, sort, sortPrefix, skip, limit);
+    }
+
+    /**
+     * Returns the prepared uql string.
+     *
+     * @return never {@literal null}.
+     */
+    public String getQueryString() {
+        return template.getSource();
+    }
+}
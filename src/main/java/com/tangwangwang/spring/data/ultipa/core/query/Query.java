@@ -1,18 +1,19 @@
 package com.tangwangwang.spring.data.ultipa.core.query;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.tangwangwang.spring.data.ultipa.annotation.EnumType;
 import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
 import com.tangwangwang.spring.data.ultipa.core.convert.UltipaConverter;
 import com.tangwangwang.spring.data.ultipa.core.exception.ParameterBindingException;
 import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaEnumTypeHolder;
 import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaSystemProperty;
-import org.springframework.beans.BeanWrapperImpl;
-import org.springframework.beans.PropertyAccessor;
+import com.tangwangwang.spring.data.ultipa.core.proxy.UltipaFetchPlan;
+import com.tangwangwang.spring.data.ultipa.core.schema.Schema;
 import org.springframework.context.expression.MapAccessor;
-import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.geo.Point;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionException;
 import org.springframework.expression.ExpressionParser;
@@ -24,10 +25,10 @@ import org.springframework.util.Assert;
 import org.springframework.util.PropertyPlaceholderHelper;
 import org.springframework.util.StringUtils;
 
-import java.sql.Timestamp;
-import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 /**
@@ -36,34 +37,47 @@ import java.util.stream.Stream;
  */
 public class Query {
 
-    private final static List<Class<?>> antiInjectionTypes = Arrays.asList(
-            String.class, UUID.class, Character.class, char.class,
-            Enum.class, Date.class, Timestamp.class, Instant.class,
-            LocalDate.class, LocalTime.class, LocalDateTime.class
-    );
-    private final static List<Class<?>> pointTypes = Arrays.asList(Point.class, com.ultipa.sdk.data.Point.class);
-    private final static List<Class<?>> datetimeTypes = Arrays.asList(LocalDate.class, LocalTime.class, LocalDateTime.class);
-    private final static List<Class<?>> timestampTypes = Arrays.asList(Instant.class, ZonedDateTime.class, Date.class, Timestamp.class);
+    private final static String AFTER_PARAMETER = "after";
+    private final static Pattern TRAILING_LIMIT = Pattern.compile("(?i)\\blimit\\s+\\d+\\s*$");
+    private final static ExpressionParser DEFAULT_PARSER = new SpelExpressionParser(new SpelParserConfiguration(true, true));
     private final UltipaOperations operations;
     private final UltipaConverter converter;
     private final ExpressionParser parser;
     private final String queryString;
+    private final @Nullable UqlTemplate template;
     private final Map<String, Object> paramMap;
     private long skip;
     private int limit;
     private Sort sort = Sort.unsorted();
     private final @Nullable String sortPrefix;
+    private @Nullable ScrollPosition after;
+    private UltipaFetchPlan fetchPlan = UltipaFetchPlan.of();
 
     protected Query(UltipaOperations operations, String queryString, @Nullable ExpressionParser parser,
                     @Nullable Map<String, Object> paramMap, @Nullable String sortPrefix) {
         this.operations = operations;
         this.converter = operations.getConverter();
         this.queryString = queryString;
-        this.parser = Optional.ofNullable(parser).orElse(new SpelExpressionParser(new SpelParserConfiguration(true, true)));
+        this.template = null;
+        this.parser = Optional.ofNullable(parser).orElse(DEFAULT_PARSER);
         this.paramMap = Optional.ofNullable(paramMap).orElse(new HashMap<>());
         this.sortPrefix = sortPrefix;
     }
 
+    Query(UltipaOperations operations, UqlTemplate template, ExpressionParser parser, @Nullable Map<String, Object> paramMap,
+          Sort sort, @Nullable String sortPrefix, long skip, int limit) {
+        this.operations = operations;
+        this.converter = operations.getConverter();
+        this.queryString = template.getSource();
+        this.template = template;
+        this.parser = parser;
+        this.paramMap = Optional.ofNullable(paramMap).orElse(new HashMap<>());
+        this.sortPrefix = sortPrefix;
+        this.sort = sort;
+        this.skip = skip;
+        this.limit = limit;
+    }
+
     protected Query(UltipaOperations operations, String queryString, @Nullable ExpressionParser parser,
                     @Nullable Map<String, Object> paramMap, Pageable pageable, @Nullable String sortPrefix) {
         this(operations, queryString, parser, paramMap, sortPrefix);
@@ -111,20 +125,90 @@ public class Query {
         return this;
     }
 
+    /**
+     * Continues after the given keyset position instead of skipping rows. The keys of the position are bound as the
+     * {@code after} parameter, e.g. {@code _uuid > #{after._uuid}}, the key of the i-th sort order also as
+     * {@code after.k<i>}. The initial position binds a {@code _uuid} of {@literal 0}. The results are ordered by
+     * {@code _uuid} after the other sort orders of this query, so the uql should filter on the same keys.
+     *
+     * @param position must not be {@literal null}.
+     * @return this query.
+     */
+    public Query after(ScrollPosition position) {
+        Assert.notNull(position, "ScrollPosition must not be null!");
+
+        this.after = position;
+        this.skip = 0L;
+
+        String uuid = UltipaSystemProperty.UUID.getMappedName();
+        if (this.sort.getOrderFor(uuid) == null) {
+            Sort.Direction direction = this.sort.stream().reduce((first, second) -> second)
+                    .map(Sort.Order::getDirection)
+                    .orElse(Sort.Direction.ASC);
+            this.sort = this.sort.and(Sort.by(direction, uuid));
+        }
+        return this;
+    }
+
+    /**
+     * Loads the references along the given dot separated paths of the read entities up front, e.g.
+     * {@code "friends.posts"}, instead of one query per proxy when the references are read. Applied by
+     * {@link #findOne(Class)}, {@link #findAll(Class)} and {@link #scroll(Class, int)}.
+     *
+     * @param paths the reference paths, must not be {@literal null}.
+     * @return this query.
+     * @see UltipaFetchPlan
+     */
+    public Query fetch(String... paths) {
+        this.fetchPlan = UltipaFetchPlan.of(paths);
+        return this;
+    }
+
     private String formatUql() {
-        String simpleReplaceString = simpleReplacePlaceholders(queryString);
-        String antiInjectionReplaceString = antiInjectionReplacePlaceholders(simpleReplaceString);
-        return antiInjectionReplaceString + appendSort() + appendSkipAndLimit();
+        return formatUql(0);
     }
 
-    private String appendSkipAndLimit() {
+    /**
+     * Renders the uql, pushing a limit of {@code maxResults} into it if the query is not limited any further
+     *
+     * @param maxResults The number of rows the caller reads at most, {@literal 0} to read all rows
+     * @return The rendered uql
+     */
+    private String formatUql(int maxResults) {
+        UqlTemplate template = this.template != null ? this.template : UqlTemplate.of(queryString, parser);
+        EvaluationContext context = createEvaluationContext();
+
+        StringBuilder uql;
+        if (!template.isCompiled()) {
+            String simpleReplaceString = simpleReplacePlaceholders(queryString, context);
+            uql = new StringBuilder(antiInjectionReplacePlaceholders(simpleReplaceString, context));
+        } else {
+            uql = new StringBuilder(template.getEstimatedLength());
+            for (UqlTemplate.Segment segment : template.getSegments()) {
+                if (segment.isLiteral()) {
+                    uql.append(segment.getLiteral());
+                } else {
+                    UqlValueRenderer.append(uql, resolverPlaceholder(segment, context), segment.isAntiInjection(),
+                            converter.getConversionService());
+                }
+            }
+        }
+
+        int limit = this.limit;
+        if (maxResults > 0 && (limit > maxResults || (limit == 0 && !TRAILING_LIMIT.matcher(uql).find()))) {
+            limit = maxResults;
+        }
+        return uql.append(appendSort()).append(appendSkipAndLimit(limit)).toString();
+    }
+
+    private String appendSkipAndLimit(int limit) {
         StringBuilder sb = new StringBuilder();
         if (this.skip > 0L) {
             sb.append(" SKIP ").append(this.skip).append(" ");
         }
 
-        if (this.limit > 0) {
-            sb.append(" LIMIT ").append(this.limit).append(" ");
+        if (limit > 0) {
+            sb.append(" LIMIT ").append(limit).append(" ");
         }
         return sb.toString();
     }
@@ -150,16 +234,48 @@ public class Query {
 
     @Nullable
     public <T> T findOne(Class<T> domainClass) {
-        return operations.findOne(formatUql(), domainClass);
+        T result = operations.findOne(formatUql(2), domainClass);
+        if (result != null) {
+            fetchPlan.apply(operations, Collections.singletonList(result));
+        }
+        return result;
     }
 
     public <T> List<T> findAll(Class<T> domainClass) {
-        return operations.findAll(formatUql(), domainClass);
+        List<T> result = operations.findAll(formatUql(), domainClass);
+        fetchPlan.apply(operations, result);
+        return result;
+    }
+
+    /**
+     * Returns the results as a {@link Stream} which converts one entity at a time while it is consumed. The rows are
+     * received in full before the stream is returned, see {@link UltipaOperations#stream(String, Class)}.
+     *
+     * @param domainClass the type to convert the results into.
+     * @return a {@link Stream} of the converted results.
+     */
+    public <T> Stream<T> stream(Class<T> domainClass) {
+        return fetchPlan.apply(operations, operations.stream(formatUql(), domainClass));
+    }
+
+    /**
+     * Converts the results one at a time and passes each of them to the given action, the rows are received in full
+     * up front as for {@link #stream(Class)}.
+     *
+     * @param domainClass the type to convert the results into.
+     * @param action      the action to perform on each converted result.
+     */
+    public <T> void forEach(Class<T> domainClass, Consumer<? super T> action) {
+        Assert.notNull(action, "Action must not be null!");
+
+        try (Stream<T> stream = stream(domainClass)) {
+            stream.forEach(action);
+        }
     }
 
     @Nullable
     public Map<String, Object> findOne() {
-        return operations.findOne(formatUql());
+        return operations.findOne(formatUql(2));
     }
 
     public List<Map<String, Object>> findAll() {
@@ -168,13 +284,22 @@ public class Query {
 
     @Nullable
     public List<Object> findArray() {
-        return operations.findArray(formatUql());
+        return operations.findArray(formatUql(2));
     }
 
     public List<List<Object>> findArrays() {
         return operations.findArrays(formatUql());
     }
 
+    /**
+     * Returns the unconverted results of each returned alias.
+     *
+     * @see UltipaOperations#findAllByAlias(String)
+     */
+    public Map<String, List<Schema>> findAllByAlias() {
+        return operations.findAllByAlias(formatUql());
+    }
+
     public long count() {
         Object count = Optional.ofNullable(findOne())
                 .map(Map::entrySet)
@@ -187,120 +312,112 @@ public class Query {
         return converter.getConversionService().convert(count, Long.class);
     }
 
+    /**
+     * Reads the window of at most {@code size} results after the position given by {@link #after(ScrollPosition)},
+     * or from the first row if no position was given.
+     *
+     * @param domainClass the type to convert the results into.
+     * @param size        the maximum number of results, must be greater than zero.
+     * @return the {@link Window} of converted results.
+     * @throws IllegalStateException if the uql does not filter on the {@code after} keys but a position to continue
+     *                               after is given, or it seeks on descending {@code _uuid} from the initial position.
+     */
+    public <T> Window<T> scroll(Class<T> domainClass, int size) {
+        Assert.isTrue(size > 0, "Size must be greater than 0!");
+
+        if (this.after == null) {
+            after(ScrollPosition.initial());
+        }
+        ScrollPosition position = this.after;
+        boolean seeks = references(AFTER_PARAMETER);
+        if (!seeks && !position.isInitial()) {
+            throw new IllegalStateException(String.format("Query '%s' does not filter on the #{after} keys, so it can not continue after %s.",
+                    queryString, position));
+        }
+        Sort.Order uuidOrder = this.sort.getOrderFor(UltipaSystemProperty.UUID.getMappedName());
+        if (seeks && position.isInitial() && uuidOrder != null && uuidOrder.isDescending()) {
+            throw new IllegalStateException(String.format("Query '%s' seeks on descending _uuid, which can not start from the initial position binding a _uuid of 0.",
+                    queryString));
+        }
+        limit(size + 1);
+
+        List<Schema> rows = operations.findAll(formatUql(), Schema.class);
+        boolean hasNext = rows.size() > size;
+        List<Schema> content = hasNext ? rows.subList(0, size) : rows;
+
+        List<T> result = converter.readAll(domainClass, content);
+        fetchPlan.apply(operations, result);
+
+        ScrollPosition nextPosition = position;
+        if (!content.isEmpty()) {
+            Map<String, Object> values = content.get(content.size() - 1).toMap();
+            Map<String, Object> keys = new LinkedHashMap<>();
+            this.sort.forEach(order -> keys.put(order.getProperty(), values.get(order.getProperty())));
+            nextPosition = ScrollPosition.of(keys);
+        }
+        return new Window<>(result, PageRequest.of(0, size, this.sort), hasNext, nextPosition);
+    }
+
+    /**
+     * Whether a placeholder of the uql refers to the given parameter, e.g. {@code #{after._uuid}} to {@code after}.
+     *
+     * @param parameter the parameter name, must not be {@literal null}.
+     * @return {@literal true} if the parameter is referenced.
+     */
+    public boolean references(String parameter) {
+        Assert.notNull(parameter, "Parameter must not be null!");
+
+        UqlTemplate template = this.template != null ? this.template : UqlTemplate.of(queryString, parser);
+        return template.references(parameter);
+    }
+
     public boolean exists() {
-        return !operations.findAll(formatUql()).isEmpty();
+        return !operations.findAll(formatUql(1)).isEmpty();
     }
 
     /**
      * Simple placeholder substitution based on {@code ${}}
      *
-     * @param source The string to replace
+     * @param source  The string to replace
+     * @param context The context to evaluate the placeholders against
      * @return The replaced string
      */
-    private String simpleReplacePlaceholders(String source) {
+    private String simpleReplacePlaceholders(String source, EvaluationContext context) {
         return new PropertyPlaceholderHelper("${", "}").replacePlaceholders(source, placeholder -> {
-            Object value = resolverPlaceholder(placeholder);
-            if (isArrayOrCollection(value)) {
-                Class<?> valueClass = value.getClass();
-                Iterable<?> iterable;
-                if (valueClass.isArray()) {
-                    iterable = Arrays.asList((Object[]) value);
-                } else {
-                    iterable = (Iterable<?>) value;
-                }
-                StringBuilder target = new StringBuilder("[");
-                boolean crop = false;
-                for (Object element : iterable) {
-                    target.append(convertUqlValue(element));
-                    target.append(",");
-                    crop = true;
-                }
-                if (crop) {
-                    target.deleteCharAt(target.length() - 1);
-                }
-                target.append("]");
-                return target.toString();
-            } else {
-                return convertUqlValue(value);
-            }
+            StringBuilder target = new StringBuilder();
+            UqlValueRenderer.append(target, resolverPlaceholder(placeholder, context), false, converter.getConversionService());
+            return target.toString();
         });
     }
 
     /**
      * Substitution of anti-injection placeholders according to {@code #{}},
      *
-     * @param source The string to replace
+     * @param source  The string to replace
+     * @param context The context to evaluate the placeholders against
      * @return The replaced string
      */
-    private String antiInjectionReplacePlaceholders(String source) {
+    private String antiInjectionReplacePlaceholders(String source, EvaluationContext context) {
         return new PropertyPlaceholderHelper("#{", "}").replacePlaceholders(source, placeholder -> {
-            Object value = resolverPlaceholder(placeholder);
-            if (isArrayOrCollection(value)) {
-                Class<?> valueClass = value.getClass();
-                Iterable<?> iterable;
-                if (valueClass.isArray()) {
-                    iterable = Arrays.asList((Object[]) value);
-                } else {
-                    iterable = (Iterable<?>) value;
-                }
-                StringBuilder target = new StringBuilder("[");
-                boolean crop = false;
-                for (Object element : iterable) {
-                    String elementUqlValue = convertUqlValue(element);
-                    if (isNeedAntiInjection(element)) {
-                        target.append(String.format("\"%s\"", elementUqlValue));
-                    } else {
-                        target.append(elementUqlValue);
-                    }
-                    target.append(",");
-                    crop = true;
-                }
-                if (crop) {
-                    target.deleteCharAt(target.length() - 1);
-                }
-                target.append("]");
-                return target.toString();
-            } else {
-                String uqlValue = convertUqlValue(value);
-                return isNeedAntiInjection(value) ? String.format("\"%s\"", uqlValue) : uqlValue;
-            }
+            StringBuilder target = new StringBuilder();
+            UqlValueRenderer.append(target, resolverPlaceholder(placeholder, context), true, converter.getConversionService());
+            return target.toString();
         });
     }
 
-    /**
-     * Determine if double quotes are required
-     *
-     * @param value Judgment object
-     * @return Judgment result
-     */
-    private boolean isNeedAntiInjection(@Nullable Object value) {
-        if (value != null) {
-            Class<?> valueClass = value.getClass();
-            for (Class<?> type : antiInjectionTypes) {
-                if (type == valueClass || type.isAssignableFrom(valueClass)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Determine if it is an array of collections
-     *
-     * @param value Judgment object
-     * @return Judgment result
-     */
-    private boolean isArrayOrCollection(@Nullable Object value) {
-        if (value != null) {
-            Class<?> valueClass = value.getClass();
-            return valueClass.isArray() || Iterable.class.isAssignableFrom(valueClass);
+    private EvaluationContext createEvaluationContext() {
+        Map<String, Object> root = paramMap;
+        if (after != null) {
+            root = new HashMap<>(paramMap);
+            root.put(AFTER_PARAMETER, after.getParameters(sort));
         }
-        return false;
+        StandardEvaluationContext context = new StandardEvaluationContext(root);
+        context.addPropertyAccessor(new MapAccessor());
+        return context;
     }
 
     @Nullable
-    private Object resolverPlaceholder(String placeholder) {
+    private Object resolverPlaceholder(String placeholder, EvaluationContext context) {
         if (!StringUtils.hasText(placeholder)) {
             throw new ParameterBindingException("No content in placeholder.");
         }
@@ -309,21 +426,36 @@ public class Query {
             throw new ParameterBindingException("No content in placeholder.");
         }
 
-        Object value = readValue(placeholders[0].trim());
+        String expression = placeholders[0].trim();
+        Object value;
+        try {
+            value = parser.parseExpression(expression).getValue(context);
+        } catch (ExpressionException e) {
+            throw new ParameterBindingException("Parameter '" + expression + "' not found. Available parameters are " + paramMap.keySet());
+        }
 
         return placeholders.length > 1 ? formatValue(value, placeholders[1]) : value;
     }
 
     @Nullable
-    private Object readValue(String placeholder) {
+    private Object resolverPlaceholder(UqlTemplate.Segment segment, EvaluationContext context) {
+        if (segment.getExpressionString() == null) {
+            throw new ParameterBindingException("No content in placeholder.");
+        }
+
+        Object value;
         try {
-            StandardEvaluationContext context = new StandardEvaluationContext(paramMap);
-            context.addPropertyAccessor(new MapAccessor());
-            Expression expression = parser.parseExpression(placeholder);
-            return expression.getValue(context);
+            Expression expression = segment.getExpression();
+            if (expression == null) {
+                throw new ParameterBindingException("Parameter '" + segment.getExpressionString() + "' can not be parsed.");
+            }
+            value = expression.getValue(context);
         } catch (ExpressionException e) {
-            throw new ParameterBindingException("Parameter '" + placeholder + "' not found. Available parameters are " + paramMap.keySet());
+            throw new ParameterBindingException("Parameter '" + segment.getExpressionString() + "' not found. Available parameters are " + paramMap.keySet());
         }
+
+        String directive = segment.getDirective();
+        return directive != null ? formatValue(value, directive) : value;
     }
 
     @SuppressWarnings({"unchecked", "rawtypes"})
@@ -336,12 +468,7 @@ public class Query {
             case "field":
                 if (value instanceof Enum) {
                     Class<? extends Enum> type = (Class<? extends Enum>) value.getClass();
-                    if (UltipaEnumTypeHolder.hasEnumField(type)) {
-                        PropertyAccessor enumAccessor = new BeanWrapperImpl(value);
-                        value = enumAccessor.getPropertyValue(UltipaEnumTypeHolder.getRequiredEnumField(type).getName());
-                    } else {
-                        value = ((Enum<?>) value).name();
-                    }
+                    value = UltipaEnumTypeHolder.getEnumTable(type).getValue((Enum) value, EnumType.FIELD);
                 }
                 break;
             case "name":
@@ -380,93 +507,4 @@ public class Query {
         }
         return value;
     }
-
-
-    private String convertUqlValue(@Nullable Object value) {
-        // handle enumeration
-        if (isEnumType(value)) {
-            value = getEnumTypeConvertedUqlWrite(value);
-        }
-
-        // handle Point
-        if (isConvertedType(value, pointTypes)) {
-            value = getPointTypeConvertedUqlWrite(value);
-        }
-
-        // handle datetime
-        if (isConvertedType(value, datetimeTypes)) {
-            value = getDatetimeTypeConvertedUqlWrite(value);
-        }
-
-        // handle timestamp
-        if (isConvertedType(value, timestampTypes)) {
-            value = getTimestampTypeConvertedUqlWrite(value);
-        }
-
-        return Optional.ofNullable(value)
-                .map(String::valueOf)
-                // because ultipa db interpret character \\t as \t, so need to replace \\t as \\\\t to keep character \\t
-                .map(v -> v.replace("\\", "\\\\"))
-                .map(v -> v.replace("\"", "\\\""))
-                .orElse(UltipaSystemProperty.NULL_VALUE);
-    }
-
-    private boolean isEnumType(@Nullable Object value) {
-        if (value == null) {
-            return false;
-        }
-        return Enum.class.isAssignableFrom(value.getClass());
-    }
-
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    @Nullable
-    private Object getEnumTypeConvertedUqlWrite(Object value) {
-        Class<? extends Enum> enumType = (Class<? extends Enum>) value.getClass();
-        if (UltipaEnumTypeHolder.hasEnumField(enumType)) {
-            PropertyAccessor enumAccessor = new BeanWrapperImpl(value);
-            return enumAccessor.getPropertyValue(UltipaEnumTypeHolder.getRequiredEnumField(enumType).getName());
-        } else {
-            return ((Enum<?>) value).name();
-        }
-    }
-
-    private boolean isConvertedType(@Nullable Object value, List<Class<?>> convertedTypes) {
-        if (value == null) {
-            return false;
-        }
-        for (Class<?> datetimeType : convertedTypes) {
-            if (value.getClass() == datetimeType || datetimeType.isAssignableFrom(value.getClass())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    @Nullable
-    private String getPointTypeConvertedUqlWrite(Object value) {
-        ConversionService conversionService = converter.getConversionService();
-        return Optional.of(value)
-                .map(it -> conversionService.convert(it, Point.class))
-                .map(it -> conversionService.convert(it, String.class))
-                .orElse(null);
-    }
-
-    @Nullable
-    private String getDatetimeTypeConvertedUqlWrite(Object value) {
-        ConversionService conversionService = converter.getConversionService();
-        return Optional.of(value)
-                .map(it -> conversionService.convert(it, LocalDateTime.class))
-                .map(it -> conversionService.convert(it, String.class))
-                .orElse(null);
-    }
-
-    @Nullable
-    private String getTimestampTypeConvertedUqlWrite(Object value) {
-        ConversionService conversionService = converter.getConversionService();
-        return Optional.of(value)
-                .map(it -> conversionService.convert(it, Date.class))
-                .map(it -> conversionService.convert(it, String.class))
-                .orElse(null);
-    }
-
 }
@@ -0,0 +1,205 @@
+package com.tangwangwang.spring.data.ultipa.core.query;
+
+import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaSystemProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Position of a keyset scroll. A position holds the sort keys of the last row of a {@link Window}, the next window
+ * continues after these keys instead of skipping the previous rows. Positions can be passed to clients as an opaque
+ * token with {@link #toToken()} and restored with {@link #fromToken(String)}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public final class ScrollPosition {
+
+    private static final ScrollPosition INITIAL = new ScrollPosition(Collections.emptyMap());
+    private static final String ENTRY_DELIMITER = "&";
+    private static final String VALUE_DELIMITER = "=";
+    private static final char LONG_TYPE = 'L';
+    private static final char FLOAT_TYPE = 'F';
+    private static final char DOUBLE_TYPE = 'D';
+    private static final char STRING_TYPE = 'S';
+    private static final char NULL_TYPE = 'N';
+    private static final String POSITIONAL_KEY_PREFIX = "k";
+
+    private final Map<String, Object> keys;
+
+    private ScrollPosition(Map<String, Object> keys) {
+        this.keys = Collections.unmodifiableMap(keys);
+    }
+
+    /**
+     * Returns the position before the first row.
+     *
+     * @return never {@literal null}.
+     */
+    public static ScrollPosition initial() {
+        return INITIAL;
+    }
+
+    /**
+     * Creates a position after the row with the given sort keys.
+     *
+     * @param keys the sort keys by property name, must not be {@literal null}.
+     * @return a new {@link ScrollPosition}.
+     */
+    public static ScrollPosition of(Map<String, ?> keys) {
+        Assert.notNull(keys, "Keys must not be null!");
+
+        return keys.isEmpty() ? INITIAL : new ScrollPosition(new LinkedHashMap<>(keys));
+    }
+
+    /**
+     * Restores a position from a token created by {@link #toToken()}.
+     *
+     * @param token the token, an empty token restores the initial position.
+     * @return the restored {@link ScrollPosition}.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static ScrollPosition fromToken(@Nullable String token) {
+        if (!StringUtils.hasText(token)) {
+            return INITIAL;
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            for (String entry : decoded.split(ENTRY_DELIMITER)) {
+                String[] parts = entry.split(VALUE_DELIMITER, 2);
+                String name = URLDecoder.decode(parts[0], "UTF-8");
+                String value = URLDecoder.decode(parts[1].substring(1), "UTF-8");
+                switch (parts[1].charAt(0)) {
+                    case LONG_TYPE:
+                        keys.put(name, Long.valueOf(value));
+                        break;
+                    case FLOAT_TYPE:
+                        keys.put(name, Float.valueOf(value));
+                        break;
+                    case DOUBLE_TYPE:
+                        keys.put(name, Double.valueOf(value));
+                        break;
+                    case STRING_TYPE:
+                        keys.put(name, value);
+                        break;
+                    case NULL_TYPE:
+                        keys.put(name, null);
+                        break;
+                    default:
+                        throw new IllegalArgumentException(String.format("Invalid scroll position token '%s'.", token));
+                }
+            }
+        } catch (RuntimeException | UnsupportedEncodingException e) {
+            throw new IllegalArgumentException(String.format("Invalid scroll position token '%s'.", token), e);
+        }
+        return of(keys);
+    }
+
+    /**
+     * Whether this is the position before the first row.
+     */
+    public boolean isInitial() {
+        return keys.isEmpty();
+    }
+
+    /**
+     * Returns the sort keys of the row this position is after.
+     *
+     * @return never {@literal null}, empty for the initial position.
+     */
+    public Map<String, Object> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Returns the keys to bind as the {@code after} parameter of a query sorted by the given sort. The keys are bound
+     * by name, and the key of the i-th sort order also as {@code k<i>}, so uql can refer to the keys without naming
+     * them. The initial position binds a {@code _uuid} of {@literal 0}, which is before all rows when seeking on
+     * ascending {@code _uuid}.
+     */
+    Map<String, Object> getParameters(Sort sort) {
+        Map<String, Object> keys = isInitial()
+                ? Collections.singletonMap(UltipaSystemProperty.UUID.getMappedName(), 0L) : this.keys;
+
+        Map<String, Object> parameters = new HashMap<>(keys);
+        int index = 0;
+        for (Sort.Order order : sort) {
+            if (keys.containsKey(order.getProperty())) {
+                parameters.put(POSITIONAL_KEY_PREFIX + index, keys.get(order.getProperty()));
+            }
+            index++;
+        }
+        return parameters;
+    }
+
+    /**
+     * Returns an opaque, url safe token of this position.
+     *
+     * @return never {@literal null}, empty for the initial position.
+     */
+    public String toToken() {
+        if (isInitial()) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        try {
+            for (Map.Entry<String, Object> entry : keys.entrySet()) {
+                if (sb.length() > 0) {
+                    sb.append(ENTRY_DELIMITER);
+                }
+                Object value = entry.getValue();
+                sb.append(URLEncoder.encode(entry.getKey(), "UTF-8")).append(VALUE_DELIMITER);
+                if (value == null) {
+                    sb.append(NULL_TYPE);
+                } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    sb.append(LONG_TYPE).append(value);
+                } else if (value instanceof Float) {
+                    // written as float, widening to double changes the decimal value of the key
+                    sb.append(FLOAT_TYPE).append(value);
+                } else if (value instanceof Number) {
+                    sb.append(DOUBLE_TYPE).append(((Number) value).doubleValue());
+                } else {
+                    sb.append(STRING_TYPE).append(URLEncoder.encode(value.toString(), "UTF-8"));
+                }
+            }
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return keys.equals(((ScrollPosition) o).keys);
+    }
+
+    @Override
+    public int hashCode() {
+        return keys.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return isInitial() ? "ScrollPosition [initial]" : "ScrollPosition " + keys;
+    }
+}
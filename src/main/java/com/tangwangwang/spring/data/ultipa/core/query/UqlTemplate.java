@@ -0,0 +1,245 @@
+package com.tangwangwang.spring.data.ultipa.core.query;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionException;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled form of a uql string containing {@code ${}} and {@code #{}} placeholders. The string is scanned once into
+ * literal and placeholder segments, the expression of each placeholder is parsed up front, so rendering a query is a
+ * single append pass. Compiled templates are cached per {@link ExpressionParser} and query string.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+final class UqlTemplate {
+
+    private static final String SIMPLE_PREFIX = "${";
+    private static final String ANTI_INJECTION_PREFIX = "#{";
+    private static final char NESTED_PREFIX = '{';
+    private static final char SUFFIX = '}';
+    private static final int CACHE_SIZE = 1024;
+    private static final int ESTIMATED_PLACEHOLDER_LENGTH = 16;
+    private static final Map<ExpressionParser, ConcurrentLruCache<String, UqlTemplate>> CACHES = new ConcurrentReferenceHashMap<>();
+
+    private final String source;
+    private final List<Segment> segments;
+    private final boolean compiled;
+    private final int estimatedLength;
+
+    private UqlTemplate(String source, List<Segment> segments, boolean compiled) {
+        this.source = source;
+        this.segments = Collections.unmodifiableList(segments);
+        this.compiled = compiled;
+        this.estimatedLength = source.length() + segments.size() * ESTIMATED_PLACEHOLDER_LENGTH;
+    }
+
+    /**
+     * Returns the compiled template of the given uql string, compiling it on first use.
+     *
+     * @param source the uql string, must not be {@literal null}.
+     * @param parser the parser for the placeholder expressions, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    static UqlTemplate of(String source, ExpressionParser parser) {
+        return CACHES.computeIfAbsent(parser, it -> new ConcurrentLruCache<>(CACHE_SIZE, uql -> compile(uql, it)))
+                .get(source);
+    }
+
+    /**
+     * Compiles the given uql string without caching.
+     *
+     * @param source the uql string, must not be {@literal null}.
+     * @param parser the parser for the placeholder expressions, must not be {@literal null}.
+     * @return never {@literal null}.
+     */
+    static UqlTemplate compile(String source, ExpressionParser parser) {
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        int startIndex = nextPlaceholderIndex(source, position);
+
+        while (startIndex != -1) {
+            int endIndex = findPlaceholderEndIndex(source, startIndex);
+            String content = endIndex == -1 ? null : source.substring(startIndex + 2, endIndex);
+            if (content == null || content.contains(SIMPLE_PREFIX) || content.contains(ANTI_INJECTION_PREFIX)) {
+                // nested or unclosed placeholders depend on the string rendered by the previous pass
+                return new UqlTemplate(source, Collections.emptyList(), false);
+            }
+
+            if (startIndex > position) {
+                segments.add(new Segment(source.substring(position, startIndex)));
+            }
+            segments.add(new Segment(content, source.startsWith(ANTI_INJECTION_PREFIX, startIndex), parser));
+
+            position = endIndex + 1;
+            startIndex = nextPlaceholderIndex(source, position);
+        }
+
+        if (position < source.length()) {
+            segments.add(new Segment(source.substring(position)));
+        }
+        return new UqlTemplate(source, segments, true);
+    }
+
+    private static int nextPlaceholderIndex(String source, int fromIndex) {
+        int simpleIndex = source.indexOf(SIMPLE_PREFIX, fromIndex);
+        int antiInjectionIndex = source.indexOf(ANTI_INJECTION_PREFIX, fromIndex);
+        if (simpleIndex == -1) {
+            return antiInjectionIndex;
+        }
+        if (antiInjectionIndex == -1) {
+            return simpleIndex;
+        }
+        return Math.min(simpleIndex, antiInjectionIndex);
+    }
+
+    private static int findPlaceholderEndIndex(String source, int startIndex) {
+        int withinNestedPlaceholder = 0;
+        for (int index = startIndex + 2; index < source.length(); index++) {
+            char c = source.charAt(index);
+            if (c == SUFFIX) {
+                if (withinNestedPlaceholder == 0) {
+                    return index;
+                }
+                withinNestedPlaceholder--;
+            } else if (c == NESTED_PREFIX) {
+                withinNestedPlaceholder++;
+            }
+        }
+        return -1;
+    }
+
+    String getSource() {
+        return source;
+    }
+
+    List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * Whether the placeholders could be compiled. Uql strings with placeholders nested into other placeholders or with
+     * unclosed placeholders are not compiled and have to be resolved pass by pass.
+     */
+    boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Whether a placeholder refers to the given parameter, e.g. {@code #{after._uuid}} to {@code after}. Templates
+     * which could not be compiled are searched for the parameter name.
+     */
+    boolean references(String parameter) {
+        if (!compiled) {
+            return source.contains(parameter);
+        }
+        for (Segment segment : segments) {
+            String expressionString = segment.getExpressionString();
+            if (expressionString != null && expressionString.startsWith(parameter)
+                    && (expressionString.length() == parameter.length()
+                    || !Character.isJavaIdentifierPart(expressionString.charAt(parameter.length())))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int getEstimatedLength() {
+        return estimatedLength;
+    }
+
+    /**
+     * A literal chunk or a placeholder of a {@link UqlTemplate}.
+     */
+    static final class Segment {
+
+        private final @Nullable String literal;
+        private final @Nullable String placeholder;
+        private final @Nullable String expressionString;
+        private final @Nullable Expression expression;
+        private final @Nullable String directive;
+        private final boolean antiInjection;
+
+        private Segment(String literal) {
+            this.literal = literal;
+            this.placeholder = null;
+            this.expressionString = null;
+            this.expression = null;
+            this.directive = null;
+            this.antiInjection = false;
+        }
+
+        private Segment(String placeholder, boolean antiInjection, ExpressionParser parser) {
+            this.literal = null;
+            this.placeholder = placeholder;
+            this.antiInjection = antiInjection;
+
+            String[] placeholders = placeholder.split(":");
+            if (!StringUtils.hasText(placeholder) || placeholders.length == 0) {
+                this.expressionString = null;
+                this.expression = null;
+                this.directive = null;
+                return;
+            }
+
+            this.expressionString = placeholders[0].trim();
+            this.directive = placeholders.length > 1 ? placeholders[1] : null;
+
+            Expression expression = null;
+            try {
+                expression = parser.parseExpression(expressionString);
+            } catch (ExpressionException e) {
+                // reported as binding failure when the query is rendered
+            }
+            this.expression = expression;
+        }
+
+        boolean isLiteral() {
+            return literal != null;
+        }
+
+        @Nullable
+        String getLiteral() {
+            return literal;
+        }
+
+        @Nullable
+        String getPlaceholder() {
+            return placeholder;
+        }
+
+        /**
+         * Returns the expression part of the placeholder, {@literal null} if the placeholder has no content.
+         */
+        @Nullable
+        String getExpressionString() {
+            return expressionString;
+        }
+
+        /**
+         * Returns the parsed expression, {@literal null} if the placeholder has no content or failed to parse.
+         */
+        @Nullable
+        Expression getExpression() {
+            return expression;
+        }
+
+        @Nullable
+        String getDirective() {
+            return directive;
+        }
+
+        boolean isAntiInjection() {
+            return antiInjection;
+        }
+    }
+}
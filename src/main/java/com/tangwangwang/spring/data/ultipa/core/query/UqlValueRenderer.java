@@ -0,0 +1,325 @@
+package com.tangwangwang.spring.data.ultipa.core.query;
+
+import com.tangwangwang.spring.data.ultipa.annotation.EnumType;
+import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaEnumTypeHolder;
+import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaSystemProperty;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.geo.Point;
+import org.springframework.lang.Nullable;
+
+import java.time.*;
+import java.util.Collection;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Renders placeholder values as uql literals. The way a value is rendered is resolved once per runtime type, values
+ * are written and escaped straight into the target builder, arrays, primitive arrays and collections are rendered as
+ * uql lists.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+final class UqlValueRenderer {
+
+    private static final int ESTIMATED_ELEMENT_LENGTH = 8;
+    private static final ClassValue<Kind> KINDS = new ClassValue<Kind>() {
+
+        @Override
+        protected Kind computeValue(Class<?> type) {
+            return Kind.of(type);
+        }
+    };
+
+    private UqlValueRenderer() {
+    }
+
+    /**
+     * Appends the uql representation of a placeholder value.
+     *
+     * @param target            The builder to append to
+     * @param value             The placeholder value
+     * @param antiInjection     Whether values that need it are wrapped in double quotes
+     * @param conversionService Converts points and dates to their uql strings
+     */
+    static void append(StringBuilder target, @Nullable Object value, boolean antiInjection,
+                       ConversionService conversionService) {
+        if (value == null) {
+            target.append(UltipaSystemProperty.NULL_VALUE);
+            return;
+        }
+
+        Kind kind = KINDS.get(value.getClass());
+        switch (kind) {
+            case OBJECT_ARRAY:
+                target.append('[');
+                Object[] elements = (Object[]) value;
+                target.ensureCapacity(target.length() + elements.length * ESTIMATED_ELEMENT_LENGTH);
+                for (int i = 0; i < elements.length; i++) {
+                    if (i > 0) {
+                        target.append(',');
+                    }
+                    appendElement(target, elements[i], antiInjection, conversionService);
+                }
+                target.append(']');
+                return;
+            case PRIMITIVE_ARRAY:
+                target.append('[');
+                appendPrimitiveElements(target, value, antiInjection);
+                target.append(']');
+                return;
+            case ITERABLE:
+                target.append('[');
+                if (value instanceof Collection) {
+                    target.ensureCapacity(target.length() + ((Collection<?>) value).size() * ESTIMATED_ELEMENT_LENGTH);
+                }
+                boolean first = true;
+                for (Object element : (Iterable<?>) value) {
+                    if (!first) {
+                        target.append(',');
+                    }
+                    appendElement(target, element, antiInjection, conversionService);
+                    first = false;
+                }
+                target.append(']');
+                return;
+            default:
+                appendElement(target, value, kind, antiInjection, conversionService);
+        }
+    }
+
+    private static void appendElement(StringBuilder target, @Nullable Object value, boolean antiInjection,
+                                      ConversionService conversionService) {
+        if (value == null) {
+            target.append(UltipaSystemProperty.NULL_VALUE);
+            return;
+        }
+        appendElement(target, value, KINDS.get(value.getClass()), antiInjection, conversionService);
+    }
+
+    private static void appendElement(StringBuilder target, Object value, Kind kind, boolean antiInjection,
+                                      ConversionService conversionService) {
+        boolean quoted = antiInjection && kind.quoted;
+        if (quoted) {
+            target.append('"');
+        }
+        appendText(target, value, kind, conversionService);
+        if (quoted) {
+            target.append('"');
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void appendText(StringBuilder target, @Nullable Object value, Kind kind,
+                                   ConversionService conversionService) {
+        if (value == null) {
+            target.append(UltipaSystemProperty.NULL_VALUE);
+            return;
+        }
+
+        switch (kind) {
+            case INTEGRAL:
+                target.append(((Number) value).longValue());
+                return;
+            case FLOATING:
+                if (value instanceof Float) {
+                    target.append(((Float) value).floatValue());
+                } else {
+                    target.append(((Double) value).doubleValue());
+                }
+                return;
+            case BOOLEAN:
+                target.append(((Boolean) value).booleanValue());
+                return;
+            case STRING:
+                appendEscaped(target, (String) value);
+                return;
+            case CHARACTER:
+                appendEscaped(target, ((Character) value).charValue());
+                return;
+            case ENUM:
+                Object fieldValue = UltipaEnumTypeHolder.getEnumTable((Class<? extends Enum>) value.getClass())
+                        .getValue((Enum) value, EnumType.FIELD);
+                // the field value is rendered by its own type, the enum decides whether it is quoted
+                appendText(target, fieldValue, fieldValue == null ? Kind.OTHER : KINDS.get(fieldValue.getClass()),
+                        conversionService);
+                return;
+            case POINT:
+                appendConverted(target, value, Point.class, conversionService);
+                return;
+            case DATETIME:
+                appendConverted(target, value, LocalDateTime.class, conversionService);
+                return;
+            case TIMESTAMP:
+            case ZONED_TIMESTAMP:
+                appendConverted(target, value, Date.class, conversionService);
+                return;
+            default:
+                // arrays and iterables nested in lists are rendered by their string representation
+                appendEscaped(target, String.valueOf(value));
+        }
+    }
+
+    private static void appendConverted(StringBuilder target, Object value, Class<?> intermediateType,
+                                        ConversionService conversionService) {
+        Object intermediate = intermediateType.isInstance(value) ? value : conversionService.convert(value, intermediateType);
+        String text = intermediate == null ? null : conversionService.convert(intermediate, String.class);
+        if (text == null) {
+            target.append(UltipaSystemProperty.NULL_VALUE);
+        } else {
+            appendEscaped(target, text);
+        }
+    }
+
+    private static void appendPrimitiveElements(StringBuilder target, Object array, boolean antiInjection) {
+        if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            target.ensureCapacity(target.length() + values.length * ESTIMATED_ELEMENT_LENGTH);
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i).append(values[i]);
+            }
+        } else if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            target.ensureCapacity(target.length() + values.length * ESTIMATED_ELEMENT_LENGTH);
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i).append(values[i]);
+            }
+        } else if (array instanceof short[]) {
+            short[] values = (short[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i).append(values[i]);
+            }
+        } else if (array instanceof byte[]) {
+            byte[] values = (byte[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i).append(values[i]);
+            }
+        } else if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            target.ensureCapacity(target.length() + values.length * ESTIMATED_ELEMENT_LENGTH);
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i).append(values[i]);
+            }
+        } else if (array instanceof float[]) {
+            float[] values = (float[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i).append(values[i]);
+            }
+        } else if (array instanceof boolean[]) {
+            boolean[] values = (boolean[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i).append(values[i]);
+            }
+        } else if (array instanceof char[]) {
+            char[] values = (char[]) array;
+            for (int i = 0; i < values.length; i++) {
+                appendSeparator(target, i);
+                if (antiInjection) {
+                    target.append('"');
+                    appendEscaped(target, values[i]);
+                    target.append('"');
+                } else {
+                    appendEscaped(target, values[i]);
+                }
+            }
+        }
+    }
+
+    private static StringBuilder appendSeparator(StringBuilder target, int index) {
+        return index > 0 ? target.append(',') : target;
+    }
+
+    /**
+     * Appends the given text escaping backslashes and double quotes, ultipa interprets {@code \\t} as {@code \t}, so
+     * backslashes are doubled to keep them.
+     */
+    static void appendEscaped(StringBuilder target, String text) {
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == '"') {
+                target.append(text, start, i).append('\\');
+                start = i;
+            }
+        }
+        target.append(text, start, text.length());
+    }
+
+    private static void appendEscaped(StringBuilder target, char c) {
+        if (c == '\\' || c == '"') {
+            target.append('\\');
+        }
+        target.append(c);
+    }
+
+    /**
+     * How the values of a runtime type are rendered, and whether they are quoted in anti injection placeholders.
+     */
+    private enum Kind {
+
+        INTEGRAL(false),
+        FLOATING(false),
+        BOOLEAN(false),
+        STRING(true),
+        CHARACTER(true),
+        ENUM(true),
+        POINT(false),
+        DATETIME(true),
+        TIMESTAMP(true),
+        ZONED_TIMESTAMP(false),
+        OBJECT_ARRAY(false),
+        PRIMITIVE_ARRAY(false),
+        ITERABLE(false),
+        QUOTED_OTHER(true),
+        OTHER(false);
+
+        private final boolean quoted;
+
+        Kind(boolean quoted) {
+            this.quoted = quoted;
+        }
+
+        static Kind of(Class<?> type) {
+            if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+                return INTEGRAL;
+            }
+            if (type == Double.class || type == Float.class) {
+                return FLOATING;
+            }
+            if (type == Boolean.class) {
+                return BOOLEAN;
+            }
+            if (type == String.class) {
+                return STRING;
+            }
+            if (type == Character.class) {
+                return CHARACTER;
+            }
+            if (Enum.class.isAssignableFrom(type)) {
+                return ENUM;
+            }
+            if (Point.class.isAssignableFrom(type) || com.ultipa.sdk.data.Point.class.isAssignableFrom(type)) {
+                return POINT;
+            }
+            if (type == LocalDate.class || type == LocalTime.class || type == LocalDateTime.class) {
+                return DATETIME;
+            }
+            if (Date.class.isAssignableFrom(type) || type == Instant.class) {
+                return TIMESTAMP;
+            }
+            if (type == ZonedDateTime.class) {
+                return ZONED_TIMESTAMP;
+            }
+            if (type.isArray()) {
+                return type.getComponentType().isPrimitive() ? PRIMITIVE_ARRAY : OBJECT_ARRAY;
+            }
+            if (Iterable.class.isAssignableFrom(type)) {
+                return ITERABLE;
+            }
+            if (type == UUID.class) {
+                return QUOTED_OTHER;
+            }
+            return OTHER;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.tangwangwang.spring.data.ultipa.core.query;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+/**
+ * A {@link Slice} read by keyset scrolling. Use {@link #getNextPosition()} to read the next window instead of
+ * {@link #nextPageable()}, which would fall back to offset based paging.
+ *
+ * @param <T> the type of which the window consists.
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class Window<T> extends SliceImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ScrollPosition nextPosition;
+
+    public Window(List<T> content, Pageable pageable, boolean hasNext, ScrollPosition nextPosition) {
+        super(content, pageable, hasNext);
+
+        Assert.notNull(nextPosition, "ScrollPosition must not be null!");
+        this.nextPosition = nextPosition;
+    }
+
+    /**
+     * Returns the position after the last element of this window, the position to read the next window from.
+     *
+     * @return never {@literal null}.
+     */
+    public ScrollPosition getNextPosition() {
+        return nextPosition;
+    }
+}
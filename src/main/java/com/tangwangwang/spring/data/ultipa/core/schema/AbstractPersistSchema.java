@@ -4,7 +4,7 @@ import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaSystemProper
 import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
 
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * An abstract implementation of the persistent schema.
@@ -14,12 +14,13 @@ import java.util.stream.Collectors;
  */
 abstract class AbstractPersistSchema extends MapSchema implements PersistSchema {
 
-    protected static final String SETTER_CLAUSE = "%s: %s";
+    protected static final String SETTER_SEPARATOR = ": ";
     protected static final String SETTER_DELIMITER = ", ";
-    protected static final String FILTER_CLAUSE = "%s == %s";
+    protected static final String FILTER_SEPARATOR = " == ";
     protected static final String FILTER_DELIMITER = " && ";
-    protected static final String SCHEMA_FILTER_CLAUSE = "@%s";
-    protected static final String NULL_CLAUSE = "";
+    protected static final String SCHEMA_FILTER_PREFIX = "@";
+    protected static final String VALUE_CLAUSE_PREFIX = "{ ";
+    protected static final String VALUE_CLAUSE_SUFFIX = " }";
     private @Nullable Object source;
     private @Nullable String idName;
     private @Nullable Object idValue;
@@ -96,25 +97,67 @@ abstract class AbstractPersistSchema extends MapSchema implements PersistSchema
         }
     }
 
-    protected final String getSchemaFilterClause() {
-        return StringUtils.hasText(getSchema()) ? String.format(SCHEMA_FILTER_CLAUSE, getSchema()) : NULL_CLAUSE;
+    @Override
+    public String toValueUqlString() {
+        StringBuilder builder = new StringBuilder(VALUE_CLAUSE_PREFIX);
+        appendInsertSetterClause(builder);
+        return builder.append(VALUE_CLAUSE_SUFFIX).toString();
     }
 
-    protected final String getIdentifierFilterClause() {
-        return idValue == null ? NULL_CLAUSE : String.format(FILTER_CLAUSE, idName, idValue);
+    protected final void appendSchemaFilterClause(StringBuilder builder) {
+        String schema = getSchema();
+        if (StringUtils.hasText(schema)) {
+            builder.append(SCHEMA_FILTER_PREFIX).append(schema);
+        }
     }
 
-    protected final String getIdentifierSetterClause() {
-        return idValue == null ? NULL_CLAUSE : String.format(SETTER_CLAUSE, idName, idValue);
+    /**
+     * Appends the schema filter and the identifier filter joined by {@link #FILTER_DELIMITER} to the given builder.
+     */
+    protected final void appendFilterClause(StringBuilder builder) {
+        int start = builder.length();
+        appendSchemaFilterClause(builder);
+        if (idValue != null) {
+            if (builder.length() > start) {
+                builder.append(FILTER_DELIMITER);
+            }
+            builder.append(idName).append(FILTER_SEPARATOR).append(idValue);
+        }
     }
 
-    protected final String getPropertySetterClause() {
-        return getDelegate().entrySet().stream()
-                .filter(it -> !UltipaSystemProperty.isSystemProperty(it.getKey()))
-                .map(it -> String.format(SETTER_CLAUSE, it.getKey(), it.getValue()))
-                .collect(Collectors.joining(SETTER_DELIMITER));
+    protected final void appendIdentifierSetterClause(StringBuilder builder, int start) {
+        if (idValue != null) {
+            appendSetterClause(builder, start, idName, idValue);
+        }
     }
 
+    /**
+     * Appends the {@code key: value} setter of every non system property of this schema to the given builder.
+     */
+    protected final void appendPropertySetterClause(StringBuilder builder, int start) {
+        for (Map.Entry<String, Object> entry : getDelegate().entrySet()) {
+            if (!UltipaSystemProperty.isSystemProperty(entry.getKey())) {
+                appendSetterClause(builder, start, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Appends a {@code key: value} setter to the given builder, preceded by {@link #SETTER_DELIMITER} unless it is the
+     * first setter of the clause starting at the given offset of the builder.
+     */
+    protected static void appendSetterClause(StringBuilder builder, int start, @Nullable String key, @Nullable Object value) {
+        if (builder.length() > start) {
+            builder.append(SETTER_DELIMITER);
+        }
+        builder.append(key).append(SETTER_SEPARATOR).append(value);
+    }
+
+    /**
+     * Appends the setters of the insert uql to the given builder.
+     */
+    protected abstract void appendInsertSetterClause(StringBuilder builder);
+
     protected abstract String getInsertUql();
 
     protected abstract String getUpdateUql();
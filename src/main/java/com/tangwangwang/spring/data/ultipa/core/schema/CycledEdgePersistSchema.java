@@ -101,6 +101,11 @@ class CycledEdgePersistSchema extends EdgePersistSchema {
         return target.toUqlString();
     }
 
+    @Override
+    public String toValueUqlString() {
+        return target.toValueUqlString();
+    }
+
     @Override
     public String getSchema() {
         return target.getSchema();
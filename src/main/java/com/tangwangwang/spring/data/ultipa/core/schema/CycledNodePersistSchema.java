@@ -117,6 +117,11 @@ class CycledNodePersistSchema extends NodePersistSchema {
         return target.toUqlString();
     }
 
+    @Override
+    public String toValueUqlString() {
+        return target.toValueUqlString();
+    }
+
     @Override
     public String getSchema() {
         return target.getSchema();
@@ -1,13 +1,8 @@
 package com.tangwangwang.spring.data.ultipa.core.schema;
 
 import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaSystemProperty;
-import org.springframework.lang.Nullable;
-import org.springframework.util.StringUtils;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -17,10 +12,16 @@ import java.util.stream.Stream;
  * @since 1.0
  */
 class EdgePersistSchema extends AbstractPersistSchema implements EdgeSchema {
-    private static final String INSERT_UQL = "insert().into(%s).edges({ %s }) as edges return edges{*}";
-    private static final String UPDATE_UQL = "update().edges({ %s }).set({ %s }) as edges return edges{*}";
-    private static final String INSERT_IF_ABSENT_UQL = "find().nodes(%s) as from find().nodes(%s) as to WITH from, to OPTIONAL n(from).re({ %s }).n(to) as paths with count(paths) as count where count == 0 " +
-            "insert().into(%s).edges({ _from_uuid: from._uuid, _to_uuid: to._uuid })";
+    private static final String INSERT_UQL_PREFIX = "insert().into(";
+    private static final String INSERT_UQL_SETTER_PREFIX = ").edges({ ";
+    private static final String UPDATE_UQL_PREFIX = "update().edges({ ";
+    private static final String UPDATE_UQL_SETTER_PREFIX = " }).set({ ";
+    private static final String UQL_SUFFIX = " }) as edges return edges{*}";
+    private static final String INSERT_IF_ABSENT_UQL_PREFIX = "find().nodes(";
+    private static final String INSERT_IF_ABSENT_UQL_TO_PREFIX = ") as from find().nodes(";
+    private static final String INSERT_IF_ABSENT_UQL_EDGE_PREFIX = ") as to WITH from, to OPTIONAL n(from).re({ ";
+    private static final String INSERT_IF_ABSENT_UQL_INSERT_PREFIX = " }).n(to) as paths with count(paths) as count where count == 0 insert().into(";
+    private static final String INSERT_IF_ABSENT_UQL_SUFFIX = ").edges({ _from_uuid: from._uuid, _to_uuid: to._uuid })";
     private static final NodeSchema NONE_NODE = new NodePersistSchema();
     private NodeSchema from = NONE_NODE;
     private NodeSchema to = NONE_NODE;
@@ -85,9 +86,15 @@ class EdgePersistSchema extends AbstractPersistSchema implements EdgeSchema {
     }
 
     protected String getInsertIfAbsentUql() {
-        Long fromUuid = from().getSystemUuid();
-        Long toUuid = to().getSystemUuid();
-        return String.format(INSERT_IF_ABSENT_UQL, fromUuid, toUuid, getSchemaFilterClause(), getSchemaFilterClause());
+        StringBuilder builder = new StringBuilder(INSERT_IF_ABSENT_UQL_PREFIX)
+                .append(from().getSystemUuid())
+                .append(INSERT_IF_ABSENT_UQL_TO_PREFIX)
+                .append(to().getSystemUuid())
+                .append(INSERT_IF_ABSENT_UQL_EDGE_PREFIX);
+        appendSchemaFilterClause(builder);
+        builder.append(INSERT_IF_ABSENT_UQL_INSERT_PREFIX);
+        appendSchemaFilterClause(builder);
+        return builder.append(INSERT_IF_ABSENT_UQL_SUFFIX).toString();
     }
 
     @Override
@@ -96,36 +103,42 @@ class EdgePersistSchema extends AbstractPersistSchema implements EdgeSchema {
             return getInsertIfAbsentUql();
         }
 
-        String setterClause = Stream.of(getIdentifierSetterClause(), getSystemPropertySetterClause(), getPropertySetterClause())
-                .filter(StringUtils::hasText)
-                .collect(Collectors.joining(SETTER_DELIMITER));
+        StringBuilder builder = new StringBuilder(INSERT_UQL_PREFIX);
+        appendSchemaFilterClause(builder);
+        builder.append(INSERT_UQL_SETTER_PREFIX);
+        appendInsertSetterClause(builder);
+        return builder.append(UQL_SUFFIX).toString();
+    }
 
-        return String.format(INSERT_UQL, getSchemaFilterClause(), setterClause);
+    @Override
+    protected void appendInsertSetterClause(StringBuilder builder) {
+        int start = builder.length();
+        appendIdentifierSetterClause(builder, start);
+        appendSystemPropertySetterClause(builder, start);
+        appendPropertySetterClause(builder, start);
     }
 
     @Override
     protected String getUpdateUql() {
-        String filterClause = Stream.of(getSchemaFilterClause(), getIdentifierFilterClause())
-                .filter(StringUtils::hasText)
-                .collect(Collectors.joining(FILTER_DELIMITER));
-        String setterClause = Stream.of(getSystemPropertySetterClause(), getPropertySetterClause())
-                .filter(StringUtils::hasText)
-                .collect(Collectors.joining(SETTER_DELIMITER));
-
-        return String.format(UPDATE_UQL, filterClause, setterClause);
+        StringBuilder builder = new StringBuilder(UPDATE_UQL_PREFIX);
+        appendFilterClause(builder);
+        builder.append(UPDATE_UQL_SETTER_PREFIX);
+        int start = builder.length();
+        appendSystemPropertySetterClause(builder, start);
+        appendPropertySetterClause(builder, start);
+        return builder.append(UQL_SUFFIX).toString();
     }
 
-    @Nullable
-    protected String getSystemPropertySetterClause() {
-        Map<String, Object> systemProperties = new HashMap<>();
-        systemProperties.put(UltipaSystemProperty.FROM_UUID.getMappedName(), from.getSystemUuid());
-        systemProperties.put(UltipaSystemProperty.TO_UUID.getMappedName(), to.getSystemUuid());
-        systemProperties.put(UltipaSystemProperty.FROM.getMappedName(), String.format("\"%s\"", from.getSystemId()));
-        systemProperties.put(UltipaSystemProperty.TO.getMappedName(), String.format("\"%s\"", to.getSystemId()));
-
-        return systemProperties.entrySet().stream()
-                .filter(it -> it.getValue() != null)
-                .map(it -> String.format(SETTER_CLAUSE, it.getKey(), it.getValue()))
-                .collect(Collectors.joining(SETTER_DELIMITER));
+    protected void appendSystemPropertySetterClause(StringBuilder builder, int start) {
+        Long fromUuid = from.getSystemUuid();
+        if (fromUuid != null) {
+            appendSetterClause(builder, start, UltipaSystemProperty.FROM_UUID.getMappedName(), fromUuid);
+        }
+        Long toUuid = to.getSystemUuid();
+        if (toUuid != null) {
+            appendSetterClause(builder, start, UltipaSystemProperty.TO_UUID.getMappedName(), toUuid);
+        }
+        appendSetterClause(builder, start, UltipaSystemProperty.FROM.getMappedName(), "\"" + from.getSystemId() + "\"");
+        appendSetterClause(builder, start, UltipaSystemProperty.TO.getMappedName(), "\"" + to.getSystemId() + "\"");
     }
 }
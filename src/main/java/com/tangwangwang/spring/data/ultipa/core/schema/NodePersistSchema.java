@@ -1,13 +1,11 @@
 package com.tangwangwang.spring.data.ultipa.core.schema;
 
 import org.springframework.lang.Nullable;
-import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -17,9 +15,12 @@ import java.util.stream.Stream;
  * @since 1.0
  */
 class NodePersistSchema extends AbstractPersistSchema implements NodeSchema {
-    private static final String INSERT_UQL = "insert().into(%s).nodes({ %s }) as nodes return nodes{*}";
-    private static final String UPDATE_UQL = "update().nodes({ %s }).set({ %s }) as nodes return nodes{*}";
-    private static final String QUERY_UQL = "find().nodes({ %s }) as nodes return nodes{*}";
+    private static final String INSERT_UQL_PREFIX = "insert().into(";
+    private static final String INSERT_UQL_SETTER_PREFIX = ").nodes({ ";
+    private static final String UPDATE_UQL_PREFIX = "update().nodes({ ";
+    private static final String UPDATE_UQL_SETTER_PREFIX = " }).set({ ";
+    private static final String QUERY_UQL_PREFIX = "find().nodes({ ";
+    private static final String UQL_SUFFIX = " }) as nodes return nodes{*}";
     private final List<EdgeSchema> left = new ArrayList<>();
     private final List<EdgeSchema> right = new ArrayList<>();
     private @Nullable String systemId;
@@ -121,10 +122,9 @@ class NodePersistSchema extends AbstractPersistSchema implements NodeSchema {
     }
 
     protected String getQueryUql() {
-        String filterClause = Stream.of(getSchemaFilterClause(), getIdentifierFilterClause())
-                .filter(StringUtils::hasText)
-                .collect(Collectors.joining(FILTER_DELIMITER));
-        return String.format(QUERY_UQL, filterClause);
+        StringBuilder builder = new StringBuilder(QUERY_UQL_PREFIX);
+        appendFilterClause(builder);
+        return builder.append(UQL_SUFFIX).toString();
     }
 
     @Override
@@ -133,11 +133,18 @@ class NodePersistSchema extends AbstractPersistSchema implements NodeSchema {
             return getQueryUql();
         }
 
-        String setterClause = Stream.of(getIdentifierSetterClause(), getPropertySetterClause())
-                .filter(StringUtils::hasText)
-                .collect(Collectors.joining(SETTER_DELIMITER));
+        StringBuilder builder = new StringBuilder(INSERT_UQL_PREFIX);
+        appendSchemaFilterClause(builder);
+        builder.append(INSERT_UQL_SETTER_PREFIX);
+        appendInsertSetterClause(builder);
+        return builder.append(UQL_SUFFIX).toString();
+    }
 
-        return String.format(INSERT_UQL, getSchemaFilterClause(), setterClause);
+    @Override
+    protected void appendInsertSetterClause(StringBuilder builder) {
+        int start = builder.length();
+        appendIdentifierSetterClause(builder, start);
+        appendPropertySetterClause(builder, start);
     }
 
     @Override
@@ -146,11 +153,11 @@ class NodePersistSchema extends AbstractPersistSchema implements NodeSchema {
             return getQueryUql();
         }
 
-        String filterClause = Stream.of(getSchemaFilterClause(), getIdentifierFilterClause())
-                .filter(StringUtils::hasText)
-                .collect(Collectors.joining(FILTER_DELIMITER));
-
-        return String.format(UPDATE_UQL, filterClause, getPropertySetterClause());
+        StringBuilder builder = new StringBuilder(UPDATE_UQL_PREFIX);
+        appendFilterClause(builder);
+        builder.append(UPDATE_UQL_SETTER_PREFIX);
+        appendPropertySetterClause(builder, builder.length());
+        return builder.append(UQL_SUFFIX).toString();
     }
 
 }
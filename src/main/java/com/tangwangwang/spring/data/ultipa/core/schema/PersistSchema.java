@@ -57,4 +57,11 @@ public interface PersistSchema extends Schema {
     PersistSchema find(String schema, Object source);
 
     String toUqlString();
+
+    /**
+     * Returns the value clause of this schema as it appears in a multi-row insert, e.g. {@code { name: "foo" }}.
+     *
+     * @return the rendered value clause.
+     */
+    String toValueUqlString();
 }
@@ -0,0 +1,44 @@
+package com.tangwangwang.spring.data.ultipa.repository;
+
+import com.tangwangwang.spring.data.ultipa.core.query.ScrollPosition;
+import com.tangwangwang.spring.data.ultipa.core.query.Window;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Ultipa specific {@link Repository} interface with reactive support.
+ *
+ * @param <T>  type of the domain class to map
+ * @param <ID> identifier type in the domain class
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+@NoRepositoryBean
+public interface ReactiveUltipaRepository<T, ID> extends ReactiveCrudRepository<T, ID>, ReactiveSortingRepository<T, ID> {
+
+    /**
+     * Returns the window of at most {@code size} entities after the given position, ordered by {@code _uuid}, see
+     * {@link UltipaRepository#scroll(ScrollPosition, int)}.
+     *
+     * @param position the position to continue after, {@link ScrollPosition#initial()} for the first window.
+     * @param size     the maximum number of entities, must be greater than zero.
+     * @return a {@link Mono} emitting the window of entities.
+     */
+    Mono<Window<T>> scroll(ScrollPosition position, int size);
+
+    /**
+     * Returns the window of at most {@code size} entities after the given position, ordered by the given sort, see
+     * {@link UltipaRepository#scroll(ScrollPosition, Sort, int)}.
+     *
+     * @param position the position to continue after, {@link ScrollPosition#initial()} for the first window.
+     * @param sort     the sort to scroll along, must not be {@literal null}.
+     * @param size     the maximum number of entities, must be greater than zero.
+     * @return a {@link Mono} emitting the window of entities.
+     */
+    Mono<Window<T>> scroll(ScrollPosition position, Sort sort, int size);
+
+}
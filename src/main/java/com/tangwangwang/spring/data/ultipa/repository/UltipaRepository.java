@@ -1,5 +1,8 @@
 package com.tangwangwang.spring.data.ultipa.repository;
 
+import com.tangwangwang.spring.data.ultipa.core.query.ScrollPosition;
+import com.tangwangwang.spring.data.ultipa.core.query.Window;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.NoRepositoryBean;
@@ -47,4 +50,25 @@ public interface UltipaRepository<T, ID> extends CrudRepository<T, ID>, PagingAn
     @Override
     List<T> findAll(Sort sort);
 
+    /**
+     * Returns the window of at most {@code size} entities after the given position, ordered by {@code _uuid}. Unlike
+     * {@link #findAll(Pageable)}, reading deep windows does not skip the previous rows.
+     *
+     * @param position the position to continue after, {@link ScrollPosition#initial()} for the first window.
+     * @param size     the maximum number of entities, must be greater than zero.
+     * @return the window of entities, use {@link Window#getNextPosition()} to read the next one.
+     */
+    Window<T> scroll(ScrollPosition position, int size);
+
+    /**
+     * Returns the window of at most {@code size} entities after the given position, ordered by the given sort. The sort
+     * may contain a single property besides {@code _uuid}, which should be indexed, ties are broken by {@code _uuid}.
+     *
+     * @param position the position to continue after, {@link ScrollPosition#initial()} for the first window.
+     * @param sort     the sort to scroll along, must not be {@literal null}.
+     * @param size     the maximum number of entities, must be greater than zero.
+     * @return the window of entities, use {@link Window#getNextPosition()} to read the next one.
+     */
+    Window<T> scroll(ScrollPosition position, Sort sort, int size);
+
 }
@@ -2,6 +2,7 @@ package com.tangwangwang.spring.data.ultipa.repository.config;
 
 import com.tangwangwang.spring.data.ultipa.annotation.Edge;
 import com.tangwangwang.spring.data.ultipa.annotation.Node;
+import com.tangwangwang.spring.data.ultipa.repository.ReactiveUltipaRepository;
 import com.tangwangwang.spring.data.ultipa.repository.UltipaRepository;
 import com.tangwangwang.spring.data.ultipa.repository.support.UltipaRepositoryFactoryBean;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
@@ -11,12 +12,12 @@ import org.springframework.data.repository.config.AnnotationRepositoryConfigurat
 import org.springframework.data.repository.config.RepositoryConfigurationExtension;
 import org.springframework.data.repository.config.RepositoryConfigurationExtensionSupport;
 import org.springframework.data.repository.config.XmlRepositoryConfigurationSource;
+import org.springframework.data.repository.core.RepositoryMetadata;
 import org.w3c.dom.Element;
 
 import java.lang.annotation.Annotation;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 
 /**
  * {@link RepositoryConfigurationExtension} implementation to configure Ultipa repository configuration support,
@@ -64,7 +65,16 @@ public class UltipaRepositoryConfigurationExtension extends RepositoryConfigurat
      */
     @Override
     protected Collection<Class<?>> getIdentifyingTypes() {
-        return Collections.singleton(UltipaRepository.class);
+        return Arrays.asList(UltipaRepository.class, ReactiveUltipaRepository.class);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.springframework.data.repository.config.RepositoryConfigurationExtensionSupport#useRepositoryConfiguration(org.springframework.data.repository.core.RepositoryMetadata)
+     */
+    @Override
+    protected boolean useRepositoryConfiguration(RepositoryMetadata metadata) {
+        return true;
     }
 
     /*
@@ -42,6 +42,10 @@ public abstract class AbstractUltipaQuery implements RepositoryQuery {
     public Object execute(Object[] parameters) {
         UltipaParametersParameterAccessor accessor = new UltipaParametersParameterAccessor(method.getParameters(), parameters);
 
+        if (method.isAsyncQuery()) {
+            return doExecute(UltipaQueryExecution.asyncExecution(getExecution()), accessor);
+        }
+
         ResultProcessor processor = method.getResultProcessor().withDynamicProjection(accessor);
         return processor.processResult(doExecute(getExecution(), accessor));
     }
@@ -52,7 +56,9 @@ public abstract class AbstractUltipaQuery implements RepositoryQuery {
     }
 
     protected UltipaQueryExecution getExecution() {
-        if (method.isCollectionQuery()) {
+        if (method.isStreamQuery()) {
+            return UltipaQueryExecution.streamExecution();
+        } else if (method.isCollectionQuery()) {
             return UltipaQueryExecution.collectionExecution();
         } else if (method.isSliceQuery()) {
             return UltipaQueryExecution.slicedExecution();
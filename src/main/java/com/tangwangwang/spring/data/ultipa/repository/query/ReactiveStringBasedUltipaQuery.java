@@ -0,0 +1,123 @@
+package com.tangwangwang.spring.data.ultipa.repository.query;
+
+import com.tangwangwang.spring.data.ultipa.core.ReactiveUltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.query.Query;
+import org.reactivestreams.Publisher;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.data.repository.query.ResultProcessor;
+import org.springframework.data.repository.util.ReactiveWrapperConverters;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reactive query to use a plain uql String to create the {@link Query} to actually execute. The query runs as a
+ * blocking call, see {@link ReactiveUltipaOperations}, results of multi value methods are converted as they are
+ * requested by the subscriber once the response was received.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class ReactiveStringBasedUltipaQuery implements RepositoryQuery {
+
+    private final ReactiveUltipaQueryMethod method;
+    private final ReactiveUltipaOperations operations;
+
+    /**
+     * Creates a new {@link ReactiveStringBasedUltipaQuery} for the given {@link ReactiveUltipaQueryMethod},
+     * {@link ReactiveUltipaOperations}.
+     *
+     * @param method     must not be {@literal null}.
+     * @param operations must not be {@literal null}.
+     */
+    public ReactiveStringBasedUltipaQuery(ReactiveUltipaQueryMethod method, ReactiveUltipaOperations operations) {
+
+        Assert.notNull(method, "ReactiveUltipaQueryMethod must not be null!");
+        Assert.notNull(operations, "ReactiveUltipaOperations must not be null!");
+
+        this.method = method;
+        this.operations = operations;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.springframework.data.repository.query.RepositoryQuery#execute(java.lang.Object[])
+     */
+    @Override
+    public Object execute(Object[] parameters) {
+        UltipaParametersParameterAccessor accessor = new UltipaParametersParameterAccessor(method.getParameters(), parameters);
+
+        ResultProcessor processor = method.getResultProcessor().withDynamicProjection(accessor);
+        Object result = processor.processResult(doExecute(accessor));
+
+        if (method.getReturnType().isInstance(result)) {
+            return result;
+        }
+        return ReactiveWrapperConverters.toWrapper(result, method.getReturnType());
+    }
+
+    private Publisher<?> doExecute(UltipaParametersParameterAccessor accessor) {
+        if (method.isCount()) {
+            return operations.count(createCountQuery(accessor));
+        }
+        if (method.isExists()) {
+            return operations.exists(createExistsQuery(accessor));
+        }
+
+        Class<?> returnedType = ClassUtils.resolvePrimitiveIfNecessary(method.getResultProcessor().getReturnedType().getReturnedType());
+        if (method.isCollectionQuery()) {
+            return operations.findAll(createQuery(accessor), returnedType);
+        }
+
+        Class<?> domainType = method.getResultProcessor().getReturnedType().getDomainType();
+        if (domainType == returnedType) {
+            return operations.findOne(createQuery(accessor), domainType);
+        }
+        if (returnedType == Boolean.class) {
+            return operations.exists(createQuery(accessor));
+        }
+        if (Number.class.isAssignableFrom(returnedType)) {
+            return operations.count(createQuery(accessor));
+        }
+        return operations.findOne(createQuery(accessor), returnedType);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.springframework.data.repository.query.RepositoryQuery#getQueryMethod()
+     */
+    @Override
+    public ReactiveUltipaQueryMethod getQueryMethod() {
+        return method;
+    }
+
+    protected Query createQuery(UltipaParametersParameterAccessor accessor) {
+        String query = method.getAnnotatedQuery();
+        if (!StringUtils.hasText(query)) {
+            throw new IllegalArgumentException(String.format("Not found uql string for query on method for '%s'.", method));
+        }
+
+        String[] fetchPaths = method.getAnnotatedFetchPaths();
+        if (accessor.getSort().isSorted()) {
+            return operations.createQuery(query, accessor.getParamMap(), accessor.getSort(), method.getAnnotatedSortPrefix())
+                    .fetch(fetchPaths);
+        }
+        return operations.createQuery(query, accessor.getParamMap()).fetch(fetchPaths);
+    }
+
+    protected Query createCountQuery(UltipaParametersParameterAccessor accessor) {
+        String query = method.getAnnotatedCountQuery();
+        if (!StringUtils.hasText(query)) {
+            throw new IllegalArgumentException(String.format("Not found uql string for count query on method for '%s'.", method));
+        }
+        return operations.createQuery(query, accessor.getParamMap());
+    }
+
+    protected Query createExistsQuery(UltipaParametersParameterAccessor accessor) {
+        String query = method.getAnnotatedExistsQuery();
+        if (!StringUtils.hasText(query)) {
+            throw new IllegalArgumentException(String.format("Not found uql string for exists query on method for '%s'.", method));
+        }
+        return operations.createQuery(query, accessor.getParamMap());
+    }
+}
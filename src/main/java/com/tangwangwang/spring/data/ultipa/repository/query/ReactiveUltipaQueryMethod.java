@@ -0,0 +1,80 @@
+package com.tangwangwang.spring.data.ultipa.repository.query;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.util.ReactiveWrappers;
+
+import java.lang.reflect.Method;
+
+/**
+ * Reactive specific implementation of {@link UltipaQueryMethod}. Paging is not supported by reactive query methods,
+ * use a {@link org.springframework.data.domain.Sort} parameter and limit the returned {@link reactor.core.publisher.Flux}
+ * instead.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class ReactiveUltipaQueryMethod extends UltipaQueryMethod {
+
+    private final Class<?> returnType;
+
+    /**
+     * Creates a new {@link ReactiveUltipaQueryMethod} from the given {@link Method}.
+     *
+     * @param method   must not be {@literal null}.
+     * @param metadata must not be {@literal null}.
+     * @param factory  must not be {@literal null}.
+     */
+    public ReactiveUltipaQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory) {
+        super(method, metadata, factory);
+
+        if (hasParameterOfType(method, Pageable.class) || isPageQuery() || isSliceQuery()) {
+            throw new IllegalStateException(String.format("Method %s must not use paging, reactive query methods do not support Pageable, Page or Slice!", method));
+        }
+
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (ReactiveWrappers.supports(parameterType)) {
+                throw new IllegalStateException(String.format("Method %s must not use reactive wrapper parameter of type %s!", method, parameterType.getName()));
+            }
+        }
+
+        this.returnType = method.getReturnType();
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.springframework.data.repository.query.QueryMethod#isCollectionQuery()
+     */
+    @Override
+    public boolean isCollectionQuery() {
+        return ReactiveWrappers.isMultiValueType(returnType);
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see org.springframework.data.repository.query.QueryMethod#isStreamQuery()
+     */
+    @Override
+    public boolean isStreamQuery() {
+        return false;
+    }
+
+    /**
+     * Returns the declared reactive wrapper type of the method.
+     *
+     * @return never {@literal null}.
+     */
+    Class<?> getReturnType() {
+        return returnType;
+    }
+
+    private static boolean hasParameterOfType(Method method, Class<?> type) {
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (type.isAssignableFrom(parameterType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -39,13 +39,16 @@ public class StringBasedUltipaQuery extends AbstractUltipaQuery {
             throw new IllegalArgumentException(String.format("Not found uql string for query on method for '%s'.", getQueryMethod()));
         }
 
+        String[] fetchPaths = getQueryMethod().getAnnotatedFetchPaths();
         if (accessor.getPageable().isPaged()) {
-            return getOperations().createQuery(query, accessor.getParamMap(), accessor.getPageable(), getQueryMethod().getAnnotatedSortPrefix());
+            return getOperations().createQuery(query, accessor.getParamMap(), accessor.getPageable(), getQueryMethod().getAnnotatedSortPrefix())
+                    .fetch(fetchPaths);
         }
         if (accessor.getSort().isSorted()) {
-            return getOperations().createQuery(query, accessor.getParamMap(), accessor.getSort(), getQueryMethod().getAnnotatedSortPrefix());
+            return getOperations().createQuery(query, accessor.getParamMap(), accessor.getSort(), getQueryMethod().getAnnotatedSortPrefix())
+                    .fetch(fetchPaths);
         }
-        return getOperations().createQuery(query, accessor.getParamMap());
+        return getOperations().createQuery(query, accessor.getParamMap()).fetch(fetchPaths);
     }
 
     @Override
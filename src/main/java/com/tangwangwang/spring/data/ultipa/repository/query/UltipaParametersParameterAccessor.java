@@ -1,8 +1,10 @@
 package com.tangwangwang.spring.data.ultipa.repository.query;
 
+import com.tangwangwang.spring.data.ultipa.core.query.ScrollPosition;
 import org.springframework.data.repository.query.Parameter;
 import org.springframework.data.repository.query.Parameters;
 import org.springframework.data.repository.query.ParametersParameterAccessor;
+import org.springframework.lang.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -33,5 +35,16 @@ public class UltipaParametersParameterAccessor extends ParametersParameterAccess
         return paramMap;
     }
 
-
+    /**
+     * Returns the {@link ScrollPosition} passed to the query method, {@literal null} if there is none.
+     */
+    @Nullable
+    public ScrollPosition getScrollPosition() {
+        for (Object value : getValues()) {
+            if (value instanceof ScrollPosition) {
+                return (ScrollPosition) value;
+            }
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -1,13 +1,17 @@
 package com.tangwangwang.spring.data.ultipa.repository.query;
 
 import com.tangwangwang.spring.data.ultipa.core.query.Query;
+import com.tangwangwang.spring.data.ultipa.core.query.ScrollPosition;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.repository.query.ResultProcessor;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * @author Wangwang Tang
@@ -40,10 +44,38 @@ public interface UltipaQueryExecution {
         };
     }
 
+    static UltipaQueryExecution streamExecution() {
+        return (ultipaQuery, accessor) -> {
+            Query query = ultipaQuery.createQuery(accessor);
+            Class<?> returnedType = ClassUtils.resolvePrimitiveIfNecessary(ultipaQuery.getQueryMethod().getResultProcessor().getReturnedType().getReturnedType());
+            return query.stream(returnedType);
+        };
+    }
+
+    static UltipaQueryExecution asyncExecution(UltipaQueryExecution delegate) {
+        return (ultipaQuery, accessor) -> {
+            ResultProcessor processor = ultipaQuery.getQueryMethod().getResultProcessor().withDynamicProjection(accessor);
+            Executor executor = ultipaQuery.getOperations().async().getExecutor();
+            return CompletableFuture.supplyAsync(() -> processor.processResult(delegate.execute(ultipaQuery, accessor)), executor);
+        };
+    }
+
     static UltipaQueryExecution slicedExecution() {
         return (ultipaQuery, accessor) -> {
             Class<?> domainType = ultipaQuery.getQueryMethod().getResultProcessor().getReturnedType().getDomainType();
             Pageable pageable = accessor.getPageable();
+            ScrollPosition position = accessor.getScrollPosition();
+            if (position != null) {
+                if (pageable.isUnpaged()) {
+                    throw new IllegalArgumentException(String.format("Scrolling query method %s needs a paged Pageable parameter for the window size.", ultipaQuery.getQueryMethod()));
+                }
+                Query query = ultipaQuery.createQuery(accessor);
+                if (!query.references("after")) {
+                    // without filtering on the position every call would return the first window again
+                    throw new IllegalStateException(String.format("Scrolling query method %s must filter on the #{after} keys.", ultipaQuery.getQueryMethod()));
+                }
+                return query.after(position).scroll(domainType, pageable.getPageSize());
+            }
             int pageSize = 0;
             if (pageable.isPaged()) {
                 pageSize = pageable.getPageSize();
@@ -2,6 +2,7 @@ package com.tangwangwang.spring.data.ultipa.repository.query;
 
 import com.tangwangwang.spring.data.ultipa.annotation.CountQuery;
 import com.tangwangwang.spring.data.ultipa.annotation.ExistsQuery;
+import com.tangwangwang.spring.data.ultipa.annotation.FetchPlan;
 import com.tangwangwang.spring.data.ultipa.annotation.Query;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.data.projection.ProjectionFactory;
@@ -12,6 +13,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Ultipa specific implementation of {@link QueryMethod}.
@@ -24,6 +26,8 @@ public class UltipaQueryMethod extends QueryMethod {
     private final Lazy<Query> query;
     private final Lazy<CountQuery> countQuery;
     private final Lazy<ExistsQuery> existsQuery;
+    private final Lazy<FetchPlan> fetchPlan;
+    private final boolean asyncQuery;
 
     /**
      * Creates a new {@link UltipaQueryMethod} from the given {@link Method}.
@@ -37,6 +41,9 @@ public class UltipaQueryMethod extends QueryMethod {
         this.query = Lazy.of(() -> AnnotatedElementUtils.findMergedAnnotation(method, Query.class));
         this.countQuery = Lazy.of(() -> AnnotatedElementUtils.findMergedAnnotation(method, CountQuery.class));
         this.existsQuery = Lazy.of(() -> AnnotatedElementUtils.findMergedAnnotation(method, ExistsQuery.class));
+        this.fetchPlan = Lazy.of(() -> AnnotatedElementUtils.findMergedAnnotation(method, FetchPlan.class));
+        this.asyncQuery = method.getReturnType().isAssignableFrom(CompletableFuture.class)
+                && method.getReturnType() != Object.class;
     }
 
     /**
@@ -103,6 +110,16 @@ public class UltipaQueryMethod extends QueryMethod {
         return query.getOptional().map(Query::sortPrefix).orElse(null);
     }
 
+    /**
+     * Returns the reference paths declared in a {@link FetchPlan} annotation or an empty array if the annotation was
+     * not found.
+     *
+     * @return The reference paths
+     */
+    String[] getAnnotatedFetchPaths() {
+        return fetchPlan.getOptional().map(FetchPlan::value).orElse(new String[0]);
+    }
+
     /**
      * Returns whether the method has an annotated query.
      *
@@ -133,4 +150,14 @@ public class UltipaQueryMethod extends QueryMethod {
         return query.getOptional().map(Query::exists).orElse(false)
                 || existsQuery.getOptional().isPresent();
     }
+
+    /**
+     * Returns whether the method returns a {@link CompletableFuture} or one of its supertypes and should be executed
+     * asynchronously.
+     *
+     * @return The async query return true, otherwise return false
+     */
+    boolean isAsyncQuery() {
+        return asyncQuery;
+    }
 }
@@ -0,0 +1,74 @@
+package com.tangwangwang.spring.data.ultipa.repository.support;
+
+import com.tangwangwang.spring.data.ultipa.core.ReactiveUltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentEntity;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
+import com.tangwangwang.spring.data.ultipa.repository.ReactiveUltipaRepository;
+import com.tangwangwang.spring.data.ultipa.repository.query.ReactiveUltipaQueryLookupStrategy;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.repository.core.EntityInformation;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.ReactiveRepositoryFactorySupport;
+import org.springframework.data.repository.query.QueryLookupStrategy;
+import org.springframework.data.repository.query.QueryLookupStrategy.Key;
+import org.springframework.data.repository.query.QueryMethodEvaluationContextProvider;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.Optional;
+
+/**
+ * Factory to create {@link ReactiveUltipaRepository} instances.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class ReactiveUltipaRepositoryFactory extends ReactiveRepositoryFactorySupport {
+
+    private final ReactiveUltipaOperations operations;
+
+    private final MappingContext<? extends UltipaPersistentEntity<?>, UltipaPersistentProperty> mappingContext;
+
+    /**
+     * Creates a new {@link ReactiveUltipaRepositoryFactory} with the given {@link ReactiveUltipaOperations}.
+     *
+     * @param reactiveUltipaOperations must not be {@literal null}.
+     */
+    public ReactiveUltipaRepositoryFactory(ReactiveUltipaOperations reactiveUltipaOperations) {
+        Assert.notNull(reactiveUltipaOperations, "ReactiveUltipaOperations must not be null!");
+        this.operations = reactiveUltipaOperations;
+        this.mappingContext = operations.getConverter().getMappingContext();
+    }
+
+    @Override
+    public <T, ID> EntityInformation<T, ID> getEntityInformation(Class<T> domainClass) {
+        UltipaPersistentEntity<?> persistentEntity = mappingContext.getRequiredPersistentEntity(domainClass);
+
+        return UltipaEntityInformationSupport.getEntityInformation(persistentEntity);
+    }
+
+    @Override
+    protected final ReactiveUltipaRepository<?, ?> getTargetRepository(RepositoryInformation information) {
+        return getTargetRepository(information, operations);
+    }
+
+    protected ReactiveUltipaRepository<?, ?> getTargetRepository(RepositoryInformation information, ReactiveUltipaOperations operations) {
+        EntityInformation<?, Object> entityInformation = getEntityInformation(information.getDomainType());
+        ReactiveUltipaRepository<?, ?> repository = getTargetRepositoryViaReflection(information, entityInformation, operations);
+
+        Assert.isInstanceOf(ReactiveUltipaRepository.class, repository);
+
+        return repository;
+    }
+
+    @Override
+    protected Class<?> getRepositoryBaseClass(RepositoryMetadata metadata) {
+        return SimpleReactiveUltipaRepository.class;
+    }
+
+    @Override
+    protected Optional<QueryLookupStrategy> getQueryLookupStrategy(@Nullable Key key, QueryMethodEvaluationContextProvider evaluationContextProvider) {
+        return Optional.of(ReactiveUltipaQueryLookupStrategy.create(operations, key, evaluationContextProvider));
+    }
+}
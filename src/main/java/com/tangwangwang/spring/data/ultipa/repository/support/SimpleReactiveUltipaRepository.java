@@ -0,0 +1,192 @@
+package com.tangwangwang.spring.data.ultipa.repository.support;
+
+import com.tangwangwang.spring.data.ultipa.core.ReactiveUltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.query.ScrollPosition;
+import com.tangwangwang.spring.data.ultipa.core.query.Window;
+import com.tangwangwang.spring.data.ultipa.repository.ReactiveUltipaRepository;
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive repository base implementation for Ultipa.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+@NoRepositoryBean
+public class SimpleReactiveUltipaRepository<T, ID> implements ReactiveUltipaRepository<T, ID> {
+
+    private final UltipaEntityInformation<T, ID> information;
+    private final ReactiveUltipaOperations operations;
+    private final UltipaEntityStatements<T, ID> statements;
+
+    public SimpleReactiveUltipaRepository(UltipaEntityInformation<T, ID> information, ReactiveUltipaOperations operations) {
+        Assert.notNull(information, "MappingUltipaEntityInformation must not be null!");
+        Assert.notNull(operations, "ReactiveUltipaOperations must not be null!");
+        this.information = information;
+        this.operations = operations;
+        this.statements = new UltipaEntityStatements<>(information, operations);
+    }
+
+    @Override
+    public <S extends T> Mono<S> save(S entity) {
+        Assert.notNull(entity, "Entity must not be null!");
+
+        if (information.isNew(entity)) {
+            return operations.save(entity);
+        } else {
+            return operations.update(entity);
+        }
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+        Assert.notNull(entities, "Entities must not be null!");
+
+        return operations.saveAll(entities);
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+        Assert.notNull(entityStream, "Entity stream must not be null!");
+
+        return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public Mono<T> findById(ID id) {
+        Assert.notNull(id, "Id must not be null!");
+
+        return operations.findOne(statements.findById(id), information.getJavaType());
+    }
+
+    @Override
+    public Mono<T> findById(Publisher<ID> publisher) {
+        Assert.notNull(publisher, "Id publisher must not be null!");
+
+        return Mono.from(publisher).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(ID id) {
+        Assert.notNull(id, "Id must not be null!");
+
+        return operations.exists(statements.existsById(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<ID> publisher) {
+        Assert.notNull(publisher, "Id publisher must not be null!");
+
+        return Mono.from(publisher).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<T> findAll() {
+        return operations.findAll(statements.findAll(), information.getJavaType());
+    }
+
+    @Override
+    public Flux<T> findAllById(Iterable<ID> ids) {
+        Assert.notNull(ids, "Ids must not be null!");
+
+        return operations.findAll(statements.findAllById(ids), information.getJavaType());
+    }
+
+    @Override
+    public Flux<T> findAllById(Publisher<ID> idStream) {
+        Assert.notNull(idStream, "Id stream must not be null!");
+
+        return Flux.from(idStream).buffer().concatMap(this::findAllById);
+    }
+
+    @Override
+    public Flux<T> findAll(Sort sort) {
+        Assert.notNull(sort, "Sort must not be null!");
+
+        return operations.findAll(statements.findAll(sort), information.getJavaType());
+    }
+
+    @Override
+    public Mono<Window<T>> scroll(ScrollPosition position, int size) {
+        return scroll(position, Sort.unsorted(), size);
+    }
+
+    @Override
+    public Mono<Window<T>> scroll(ScrollPosition position, Sort sort, int size) {
+        return Mono.defer(() -> operations.scroll(statements.scroll(position, sort), information.getJavaType(), size));
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return operations.count(statements.count());
+    }
+
+    @Override
+    public Mono<Void> deleteById(ID id) {
+        Assert.notNull(id, "Id must not be null!");
+
+        return evictAfter(operations.execute(statements.deleteById(id)));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<ID> publisher) {
+        Assert.notNull(publisher, "Id publisher must not be null!");
+
+        return Mono.from(publisher).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(T entity) {
+        Assert.notNull(entity, "Entity must not be null!");
+
+        ID id = information.getId(entity);
+        return id == null ? Mono.empty() : deleteById(id);
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends ID> ids) {
+        Assert.notNull(ids, "Ids must not be null!");
+
+        return evictAfter(operations.execute(statements.deleteAllById(ids)));
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+        Assert.notNull(entities, "Entities must not be null!");
+
+        return deleteAll(Flux.fromIterable(entities));
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends T> entityStream) {
+        Assert.notNull(entityStream, "Entity stream must not be null!");
+
+        return Flux.from(entityStream)
+                .<ID>handle((entity, sink) -> {
+                    ID id = information.getId(entity);
+                    if (id != null) {
+                        sink.next(id);
+                    }
+                })
+                .collectList()
+                .flatMap(ids -> ids.isEmpty() ? Mono.empty() : deleteAllById(ids));
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return evictAfter(operations.execute(statements.deleteAll()));
+    }
+
+    /**
+     * Evicts the cached adjacencies of the schema once the given delete completed, like
+     * {@link SimpleUltipaRepository} does.
+     */
+    private Mono<Void> evictAfter(Mono<Void> delete) {
+        return delete.then(Mono.fromRunnable(() -> operations.getAdjacencyCache().evictSchema(information.getSchemaName())));
+    }
+}
@@ -1,6 +1,8 @@
 package com.tangwangwang.spring.data.ultipa.repository.support;
 
 import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.query.ScrollPosition;
+import com.tangwangwang.spring.data.ultipa.core.query.Window;
 import com.tangwangwang.spring.data.ultipa.repository.UltipaRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -10,7 +12,8 @@ import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.util.StreamUtils;
 import org.springframework.util.Assert;
 
-import java.util.*;
+import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -20,21 +23,16 @@ import java.util.stream.Collectors;
 @NoRepositoryBean
 public class SimpleUltipaRepository<T, ID> implements UltipaRepository<T, ID> {
 
-    private static final String REMOVE_NODES_UQL = "delete().nodes({ %s })";
-    private static final String REMOVE_EDGES_UQL = "delete().edges({ %s })";
-    private static final String FIND_NODES_UQL = "find().nodes({ %s }) as nodes return nodes{*}";
-    private static final String FIND_EDGES_UQL = "find().edges({ %s }) as edges return edges{*}";
-    private static final String COUNT_NODES_UQL = "find().nodes({ %s }) as nodes return count(nodes)";
-    private static final String COUNT_EDGES_UQL = "find().edges({ %s }) as edges return count(edges)";
-
     private final UltipaEntityInformation<T, ID> information;
     private final UltipaOperations operations;
+    private final UltipaEntityStatements<T, ID> statements;
 
     public SimpleUltipaRepository(UltipaEntityInformation<T, ID> information, UltipaOperations operations) {
         Assert.notNull(information, "MappingUltipaEntityInformation must not be null!");
         Assert.notNull(operations, "UltipaOperations must not be null!");
         this.information = information;
         this.operations = operations;
+        this.statements = new UltipaEntityStatements<>(information, operations);
     }
 
     @Override
@@ -52,71 +50,38 @@ public class SimpleUltipaRepository<T, ID> implements UltipaRepository<T, ID> {
     public <S extends T> List<S> saveAll(Iterable<S> entities) {
         Assert.notNull(entities, "Entities must not be null!");
 
-        List<S> result = new ArrayList<>();
-
-        for (S entity : entities) {
-            result.add(save(entity));
-        }
-
-        return result;
+        return operations.saveAll(entities);
     }
 
     @Override
     public Optional<T> findById(ID id) {
-        return Optional.ofNullable(operations.getById(id, information.getJavaType()));
+        return Optional.ofNullable(statements.findById(id).findOne(information.getJavaType()));
     }
 
     @Override
     public boolean existsById(ID id) {
-        return findById(id).isPresent();
+        return statements.existsById(id).exists();
     }
 
     @Override
     public List<T> findAll() {
-        return operations.getAll(information.getJavaType());
+        return statements.findAll().findAll(information.getJavaType());
     }
 
     @Override
     public List<T> findAllById(Iterable<ID> ids) {
-        String schemaFilter = "@" + information.getSchemaName();
-        String idFilter = generateIdFilter(schemaFilter, true);
-
-        Map<String, Object> paramMap = new HashMap<>();
-        paramMap.put("ids", ids);
-
-        if (information.isNode()) {
-            return operations.createQuery(String.format(FIND_NODES_UQL, schemaFilter + " && " + idFilter), paramMap)
-                    .findAll(information.getJavaType());
-        } else {
-            return operations.createQuery(String.format(FIND_EDGES_UQL, schemaFilter + " && " + idFilter), paramMap)
-                    .findAll(information.getJavaType());
-        }
+        return statements.findAllById(ids).findAll(information.getJavaType());
     }
 
     @Override
     public long count() {
-        String schemaFilter = "@" + information.getSchemaName();
-
-        if (information.isNode()) {
-            return operations.createQuery(String.format(COUNT_NODES_UQL, schemaFilter)).count();
-        } else {
-            return operations.createQuery(String.format(COUNT_EDGES_UQL, schemaFilter)).count();
-        }
+        return statements.count().count();
     }
 
     @Override
     public void deleteById(ID id) {
-        String schemaFilter = "@" + information.getSchemaName();
-        String idFilter = generateIdFilter(schemaFilter, false);
-
-        Map<String, Object> paramMap = new HashMap<>();
-        paramMap.put("id", id);
-
-        if (information.isNode()) {
-            operations.createQuery(String.format(REMOVE_NODES_UQL, schemaFilter + " && " + idFilter), paramMap).execute();
-        } else {
-            operations.createQuery(String.format(REMOVE_EDGES_UQL, schemaFilter + " && " + idFilter), paramMap).execute();
-        }
+        statements.deleteById(id).execute();
+        operations.getAdjacencyCache().evictSchema(information.getSchemaName());
     }
 
     @Override
@@ -130,17 +95,8 @@ public class SimpleUltipaRepository<T, ID> implements UltipaRepository<T, ID> {
 
     @Override
     public void deleteAllById(Iterable<? extends ID> ids) {
-        String schemaFilter = "@" + information.getSchemaName();
-        String idFilter = generateIdFilter(schemaFilter, true);
-
-        Map<String, Object> paramMap = new HashMap<>();
-        paramMap.put("ids", ids);
-
-        if (information.isNode()) {
-            operations.createQuery(String.format(REMOVE_NODES_UQL, schemaFilter + " && " + idFilter), paramMap).execute();
-        } else {
-            operations.createQuery(String.format(REMOVE_EDGES_UQL, schemaFilter + " && " + idFilter), paramMap).execute();
-        }
+        statements.deleteAllById(ids).execute();
+        operations.getAdjacencyCache().evictSchema(information.getSchemaName());
     }
 
     @Override
@@ -153,48 +109,28 @@ public class SimpleUltipaRepository<T, ID> implements UltipaRepository<T, ID> {
 
     @Override
     public void deleteAll() {
-        String schemaFilter = "@" + information.getSchemaName();
-        if (information.isNode()) {
-            operations.createQuery(String.format(REMOVE_NODES_UQL, schemaFilter)).execute();
-        } else {
-            operations.createQuery(String.format(REMOVE_EDGES_UQL, schemaFilter)).execute();
-        }
+        statements.deleteAll().execute();
+        operations.getAdjacencyCache().evictSchema(information.getSchemaName());
     }
 
     @Override
     public List<T> findAll(Sort sort) {
-        String schemaFilter = "@" + information.getSchemaName();
-        if (information.isNode()) {
-            return operations.createQuery(String.format(FIND_NODES_UQL, schemaFilter), sort, "nodes")
-                    .findAll(information.getJavaType());
-        } else {
-            return operations.createQuery(String.format(FIND_EDGES_UQL, schemaFilter), sort, "edges")
-                    .findAll(information.getJavaType());
-        }
+        return statements.findAll(sort).findAll(information.getJavaType());
     }
 
     @Override
-    public Page<T> findAll(Pageable pageable) {
-        String schemaFilter = "@" + information.getSchemaName();
-        List<T> result;
-        if (information.isNode()) {
-            result = operations.createQuery(String.format(FIND_NODES_UQL, schemaFilter), pageable, "nodes")
-                    .findAll(information.getJavaType());
-        } else {
-            result = operations.createQuery(String.format(FIND_EDGES_UQL, schemaFilter), pageable, "edges")
-                    .findAll(information.getJavaType());
-        }
-        return new PageImpl<>(result, pageable, count());
+    public Window<T> scroll(ScrollPosition position, int size) {
+        return scroll(position, Sort.unsorted(), size);
     }
 
-    private String generateIdFilter(String schemaFilter, boolean batch) {
-        String symbols = batch ? " in #{ids} " : " == #{id} ";
-        String idFilter;
-        if (information.isSystemId()) {
-            idFilter = information.getIdPropertyName() + symbols;
-        } else {
-            idFilter = schemaFilter + "." + information.getIdPropertyName() + symbols;
-        }
-        return idFilter;
+    @Override
+    public Window<T> scroll(ScrollPosition position, Sort sort, int size) {
+        return statements.scroll(position, sort).scroll(information.getJavaType(), size);
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> result = statements.findAll(pageable).findAll(information.getJavaType());
+        return new PageImpl<>(result, pageable, count());
     }
 }
@@ -0,0 +1,242 @@
+package com.tangwangwang.spring.data.ultipa.repository.support;
+
+import com.tangwangwang.spring.data.ultipa.core.ReactiveUltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.convert.UltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentEntity;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
+import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaSystemProperty;
+import com.tangwangwang.spring.data.ultipa.core.query.PreparedQuery;
+import com.tangwangwang.spring.data.ultipa.core.query.Query;
+import com.tangwangwang.spring.data.ultipa.core.query.ScrollPosition;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * The CRUD statements of an entity type, rendered and prepared once per entity type so executing one of them only
+ * binds the parameters.
+ *
+ * @param <T>  type of the domain class to map
+ * @param <ID> identifier type in the domain class
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+public class UltipaEntityStatements<T, ID> {
+
+    private static final String REMOVE_NODES_UQL = "delete().nodes({ %s })";
+    private static final String REMOVE_EDGES_UQL = "delete().edges({ %s })";
+    private static final String FIND_NODES_UQL = "find().nodes({ %s }) as nodes return nodes{*}";
+    private static final String FIND_EDGES_UQL = "find().edges({ %s }) as edges return edges{*}";
+    private static final String COUNT_NODES_UQL = "find().nodes({ %s }) as nodes return count(nodes)";
+    private static final String COUNT_EDGES_UQL = "find().edges({ %s }) as edges return count(edges)";
+    private static final String EXISTS_NODES_UQL = "find().nodes({ %s }) as nodes return nodes._uuid";
+    private static final String EXISTS_EDGES_UQL = "find().edges({ %s }) as edges return edges._uuid";
+    private static final String SCROLL_FILTER = "%s %s #{after.k%d}";
+    private static final String SCROLL_PROPERTY_FILTER = "(%1$s %2$s #{after.k0} || (%1$s == #{after.k0} && %3$s))";
+    private static final String ID_PARAMETER = "id";
+    private static final String IDS_PARAMETER = "ids";
+
+    private final UltipaEntityInformation<T, ID> information;
+    private final PreparedQuery findById;
+    private final PreparedQuery findAllById;
+    private final PreparedQuery findAll;
+    private final PreparedQuery existsById;
+    private final PreparedQuery count;
+    private final PreparedQuery deleteById;
+    private final PreparedQuery deleteAllById;
+    private final PreparedQuery deleteAll;
+    private final Map<String, String> sortProperties = new HashMap<>();
+    private final Map<String, PreparedQuery> scrollStatements = new ConcurrentHashMap<>();
+    private final BiFunction<String, String, PreparedQuery> preparer;
+
+    public UltipaEntityStatements(UltipaEntityInformation<T, ID> information, UltipaOperations operations) {
+        this(information, operations.getConverter(), operations::prepare);
+    }
+
+    public UltipaEntityStatements(UltipaEntityInformation<T, ID> information, ReactiveUltipaOperations operations) {
+        this(information, operations.getConverter(), operations::prepare);
+    }
+
+    private UltipaEntityStatements(UltipaEntityInformation<T, ID> information, UltipaConverter converter,
+                                   BiFunction<String, String, PreparedQuery> preparer) {
+        Assert.notNull(information, "UltipaEntityInformation must not be null!");
+
+        this.information = information;
+        this.preparer = preparer;
+
+        UltipaPersistentEntity<?> entity = converter.getMappingContext()
+                .getRequiredPersistentEntity(information.getJavaType());
+        for (UltipaPersistentProperty property : entity) {
+            if (!property.isReferenceProperty()) {
+                sortProperties.put(property.getName(), property.getPropertyName());
+                sortProperties.put(property.getPropertyName(), property.getPropertyName());
+            }
+        }
+        String uuid = UltipaSystemProperty.UUID.getMappedName();
+        sortProperties.put(uuid, uuid);
+
+        String schemaFilter = "@" + information.getSchemaName();
+        String idFilter = schemaFilter + " && " + generateIdFilter(schemaFilter, false);
+        String idsFilter = schemaFilter + " && " + generateIdFilter(schemaFilter, true);
+
+        if (information.isNode()) {
+            this.findById = preparer.apply(String.format(FIND_NODES_UQL, idFilter), null);
+            this.findAllById = preparer.apply(String.format(FIND_NODES_UQL, idsFilter), null);
+            this.findAll = preparer.apply(String.format(FIND_NODES_UQL, schemaFilter), "nodes");
+            this.existsById = preparer.apply(String.format(EXISTS_NODES_UQL, idFilter), null);
+            this.count = preparer.apply(String.format(COUNT_NODES_UQL, schemaFilter), null);
+            this.deleteById = preparer.apply(String.format(REMOVE_NODES_UQL, idFilter), null);
+            this.deleteAllById = preparer.apply(String.format(REMOVE_NODES_UQL, idsFilter), null);
+            this.deleteAll = preparer.apply(String.format(REMOVE_NODES_UQL, schemaFilter), null);
+        } else {
+            this.findById = preparer.apply(String.format(FIND_EDGES_UQL, idFilter), null);
+            this.findAllById = preparer.apply(String.format(FIND_EDGES_UQL, idsFilter), null);
+            this.findAll = preparer.apply(String.format(FIND_EDGES_UQL, schemaFilter), "edges");
+            this.existsById = preparer.apply(String.format(EXISTS_EDGES_UQL, idFilter), null);
+            this.count = preparer.apply(String.format(COUNT_EDGES_UQL, schemaFilter), null);
+            this.deleteById = preparer.apply(String.format(REMOVE_EDGES_UQL, idFilter), null);
+            this.deleteAllById = preparer.apply(String.format(REMOVE_EDGES_UQL, idsFilter), null);
+            this.deleteAll = preparer.apply(String.format(REMOVE_EDGES_UQL, schemaFilter), null);
+        }
+    }
+
+    public UltipaEntityInformation<T, ID> getInformation() {
+        return information;
+    }
+
+    public Query findById(Object id) {
+        return findById.bind(Collections.singletonMap(ID_PARAMETER, id));
+    }
+
+    public Query findAllById(Iterable<?> ids) {
+        return findAllById.bind(Collections.singletonMap(IDS_PARAMETER, ids));
+    }
+
+    public Query findAll() {
+        return findAll.bind();
+    }
+
+    public Query findAll(Sort sort) {
+        return findAll.with(sort).bind();
+    }
+
+    public Query findAll(Pageable pageable) {
+        return findAll.with(pageable).bind();
+    }
+
+    /**
+     * Returns the query reading the entities after the given keyset position. The entities are ordered by
+     * {@code _uuid}, or by the single sort property of the given sort with {@code _uuid} breaking ties. The sort
+     * property is resolved against the properties of the entity, so sorts taken from requests can be passed as is.
+     *
+     * @param position must not be {@literal null}.
+     * @param sort     must not be {@literal null}.
+     * @return the query to read the next window with.
+     * @throws IllegalArgumentException if the sort property is not a property of the entity, or the position lacks
+     *                                  a key of the sort or holds a null key.
+     */
+    public Query scroll(ScrollPosition position, Sort sort) {
+        Assert.notNull(position, "ScrollPosition must not be null!");
+        Assert.notNull(sort, "Sort must not be null!");
+
+        String uuid = UltipaSystemProperty.UUID.getMappedName();
+        List<Sort.Order> orders = sort.map(this::resolveSortOrder).filter(order -> !uuid.equals(order.getProperty())).toList();
+        if (orders.size() > 1) {
+            throw new IllegalArgumentException(String.format("Scrolling supports a single sort property besides %s, but got %s.", uuid, sort));
+        }
+
+        Sort.Order order = orders.isEmpty() ? Optional.ofNullable(sort.getOrderFor(uuid)).orElse(Sort.Order.asc(uuid)) : orders.get(0);
+        if (!position.isInitial()) {
+            for (String property : new String[]{order.getProperty(), uuid}) {
+                if (!position.getKeys().containsKey(property)) {
+                    throw new IllegalArgumentException(String.format("%s has no key for sort property %s.", position, property));
+                }
+                // a null key renders as a comparison with null, which matches no row
+                if (position.getKeys().get(property) == null) {
+                    throw new IllegalArgumentException(String.format("%s has a null key for sort property %s, scrolling does not support null sort keys.", position, property));
+                }
+            }
+        }
+
+        // the sort property is resolved, so the number of statements is bound by the properties of the entity
+        String key = (position.isInitial() ? "initial " : "after ") + order.getProperty() + " " + order.getDirection();
+        return scrollStatements.computeIfAbsent(key, it -> prepareScroll(order, position.isInitial()))
+                .bind()
+                .after(position);
+    }
+
+    private Sort.Order resolveSortOrder(Sort.Order order) {
+        String property = sortProperties.get(order.getProperty());
+        if (property == null) {
+            throw new IllegalArgumentException(String.format("No property %s found on %s to scroll by!",
+                    order.getProperty(), information.getJavaType().getName()));
+        }
+        return new Sort.Order(order.getDirection(), property);
+    }
+
+    private PreparedQuery prepareScroll(Sort.Order order, boolean initial) {
+        String uuid = UltipaSystemProperty.UUID.getMappedName();
+        Sort sort = uuid.equals(order.getProperty()) ? Sort.by(order) : Sort.by(order, new Sort.Order(order.getDirection(), uuid));
+        if (initial) {
+            return findAll.with(sort);
+        }
+
+        String schemaFilter = "@" + information.getSchemaName();
+        String operator = order.isAscending() ? ">" : "<";
+        // the keys are bound by their position in the sort, the i-th key as after.k<i>
+        String filter;
+        if (uuid.equals(order.getProperty())) {
+            filter = String.format(SCROLL_FILTER, uuid, operator, 0);
+        } else {
+            String property = UltipaSystemProperty.isSystemProperty(order.getProperty()) ? order.getProperty()
+                    : schemaFilter + "." + order.getProperty();
+            filter = String.format(SCROLL_PROPERTY_FILTER, property, operator, String.format(SCROLL_FILTER, uuid, operator, 1));
+        }
+
+        if (information.isNode()) {
+            return preparer.apply(String.format(FIND_NODES_UQL, schemaFilter + " && " + filter), "nodes").with(sort);
+        } else {
+            return preparer.apply(String.format(FIND_EDGES_UQL, schemaFilter + " && " + filter), "edges").with(sort);
+        }
+    }
+
+    public Query existsById(Object id) {
+        return existsById.bind(Collections.singletonMap(ID_PARAMETER, id));
+    }
+
+    public Query count() {
+        return count.bind();
+    }
+
+    public Query deleteById(Object id) {
+        return deleteById.bind(Collections.singletonMap(ID_PARAMETER, id));
+    }
+
+    public Query deleteAllById(Iterable<?> ids) {
+        return deleteAllById.bind(Collections.singletonMap(IDS_PARAMETER, ids));
+    }
+
+    public Query deleteAll() {
+        return deleteAll.bind();
+    }
+
+    private String generateIdFilter(String schemaFilter, boolean batch) {
+        String symbols = batch ? " in #{ids} " : " == #{id} ";
+        String idFilter;
+        if (information.isSystemId()) {
+            idFilter = information.getIdPropertyName() + symbols;
+        } else {
+            idFilter = schemaFilter + "." + information.getIdPropertyName() + symbols;
+        }
+        return idFilter;
+    }
+}
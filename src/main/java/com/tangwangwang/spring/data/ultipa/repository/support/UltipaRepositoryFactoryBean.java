@@ -1,8 +1,11 @@
 package com.tangwangwang.spring.data.ultipa.repository.support;
 
+import com.tangwangwang.spring.data.ultipa.core.ReactiveUltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.ReactiveUltipaTemplate;
 import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
 import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
 import org.springframework.lang.Nullable;
@@ -24,6 +27,7 @@ public class UltipaRepositoryFactoryBean<T extends Repository<S, ID>, S, ID exte
         extends RepositoryFactoryBeanSupport<T, S, ID> {
 
     private @Nullable UltipaOperations operations;
+    private @Nullable ReactiveUltipaOperations reactiveOperations;
 
     /**
      * Creates a new {@link UltipaRepositoryFactoryBean} for the given repository interface.
@@ -42,6 +46,10 @@ public class UltipaRepositoryFactoryBean<T extends Repository<S, ID>, S, ID exte
     protected RepositoryFactorySupport createRepositoryFactory() {
         Assert.notNull(operations, "operations are not initialized");
 
+        if (AbstractRepositoryMetadata.getMetadata(getObjectType()).isReactiveRepository()) {
+            return new ReactiveUltipaRepositoryFactory(reactiveOperations != null ? reactiveOperations
+                    : new ReactiveUltipaTemplate(operations));
+        }
         return new UltipaRepositoryFactory(operations);
     }
 
@@ -66,4 +74,15 @@ public class UltipaRepositoryFactoryBean<T extends Repository<S, ID>, S, ID exte
         setMappingContext(operations.getConverter().getMappingContext());
         this.operations = operations;
     }
+
+    /**
+     * Configures the {@link ReactiveUltipaOperations} to be used to create reactive Ultipa repositories. Defaults to a
+     * {@link ReactiveUltipaTemplate} on top of the configured {@link UltipaOperations}.
+     *
+     * @param reactiveOperations the reactive operations to set
+     */
+    public void setReactiveUltipaOperations(ReactiveUltipaOperations reactiveOperations) {
+        Assert.notNull(reactiveOperations, "ReactiveUltipaOperations must not be null!");
+        this.reactiveOperations = reactiveOperations;
+    }
 }
@@ -0,0 +1,74 @@
+package com.tangwangwang.spring.data.ultipa.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link AsyncUltipaTemplate}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class AsyncUltipaTemplateTests {
+
+    private final UltipaOperations operations = mock(UltipaOperations.class);
+
+    @Test
+    void runsOperationsOnTheExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            new AsyncUltipaTemplate(operations, executor).execute("return 1").get();
+
+            verify(operations).execute("return 1");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shutsDownTheDefaultExecutorOnDestroy() {
+        AsyncUltipaTemplate template = new AsyncUltipaTemplate(operations);
+        ExecutorService executor = (ExecutorService) template.getExecutor();
+
+        assertThat(template.getExecutor()).isSameAs(executor);
+
+        template.destroy();
+
+        assertThat(executor.isShutdown()).isTrue();
+        assertThatIllegalStateException().isThrownBy(template::getExecutor);
+    }
+
+    @Test
+    void createsTheDefaultExecutorPerTemplate() {
+        AsyncUltipaTemplate first = new AsyncUltipaTemplate(operations);
+        AsyncUltipaTemplate second = new AsyncUltipaTemplate(operations);
+        try {
+            assertThat(first.getExecutor()).isNotSameAs(second.getExecutor());
+        } finally {
+            first.destroy();
+            second.destroy();
+        }
+    }
+
+    @Test
+    void leavesConfiguredExecutorsToTheirOwner() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AsyncUltipaTemplate template = new AsyncUltipaTemplate(operations, executor);
+
+            template.destroy();
+
+            assertThat(executor.isShutdown()).isFalse();
+            assertThat(template.getExecutor()).isSameAs(executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.tangwangwang.spring.data.ultipa.core;
+
+import com.tangwangwang.spring.data.ultipa.annotation.PropertyType;
+import com.tangwangwang.spring.data.ultipa.core.convert.MappingUltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import com.ultipa.Ultipa;
+import com.ultipa.sdk.operate.entity.Node;
+import com.ultipa.sdk.operate.response.InsertResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mapping.MappingException;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+
+/**
+ * Unit tests for {@link DefaultUltipaBulkOperations}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class DefaultUltipaBulkOperationsTests {
+
+    private final UltipaMappingContext mappingContext = new UltipaMappingContext();
+    private final UltipaTemplate template = mock(UltipaTemplate.class);
+    private final List<List<Node>> chunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mappingContext.afterPropertiesSet();
+        MappingUltipaConverter converter = new MappingUltipaConverter(mappingContext);
+        converter.afterPropertiesSet();
+
+        when(template.getConverter()).thenReturn(converter);
+        when(template.maybeCallBeforeConvert(any(), any())).then(returnsFirstArg());
+    }
+
+    @Test
+    void alignsPerRowValuesAndNullsFailedRows() {
+        List<String> target = new ArrayList<>();
+
+        DefaultUltipaBulkOperations.alignToChunk(Arrays.asList("a", "b", "c"), 3, Collections.singleton(1), target);
+
+        assertThat(target).containsExactly("a", null, "c");
+    }
+
+    @Test
+    void alignsValuesOfInsertedRowsOnly() {
+        List<String> target = new ArrayList<>(Collections.singletonList("x"));
+
+        DefaultUltipaBulkOperations.alignToChunk(Arrays.asList("a", "c"), 4, new HashSet<>(Arrays.asList(1, 3)), target);
+
+        assertThat(target).containsExactly("x", "a", null, "c", null);
+    }
+
+    @Test
+    void alignsMissingValuesAsNulls() {
+        List<Long> target = new ArrayList<>();
+
+        DefaultUltipaBulkOperations.alignToChunk(null, 2, Collections.emptySet(), target);
+
+        assertThat(target).containsExactly(null, null);
+    }
+
+    @Test
+    void splitsEntitiesIntoChunksOfTheBatchSize() {
+        stubInsert(Collections.singletonMap(1, 7));
+
+        UltipaBulkWriteResult result = bulkOps(2).insert(persons("a", "b", "c", "d", "e")).execute();
+
+        assertThat(chunks).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(chunks.stream().flatMap(List::stream).map(Node::getID)).containsExactly("a", "b", "c", "d", "e");
+        assertThat(result.getInsertedCount()).isEqualTo(3);
+        assertThat(result.getIds()).containsExactly("a", null, "c", null, "e");
+        assertThat(result.getErrors()).containsOnly(entry(1, 7), entry(3, 7));
+    }
+
+    @Test
+    void consumesTheInsertsOnExecute() {
+        stubInsert(Collections.emptyMap());
+        UltipaBulkOperations operations = bulkOps(10).insert(persons("a"));
+
+        operations.execute();
+        UltipaBulkWriteResult result = operations.execute();
+
+        assertThat(chunks).hasSize(1);
+        assertThat(result.getInsertedCount()).isZero();
+    }
+
+    @Test
+    void convertsValuesToTheDeclaredPropertyType() {
+        stubInsert(Collections.emptyMap());
+        Person person = new Person("a");
+        person.age = 42L;
+        person.score = 1;
+
+        bulkOps(10).insert(person).execute();
+
+        Node node = chunks.get(0).get(0);
+        assertThat(node.get("age")).isEqualTo(42);
+        assertThat(node.get("score")).isEqualTo(1.0d);
+    }
+
+    @Test
+    void rejectsValuesNotConvertibleToTheDeclaredPropertyType() {
+        stubInsert(Collections.emptyMap());
+        Person person = new Person("a");
+        person.code = "not a number";
+
+        assertThatExceptionOfType(MappingException.class).isThrownBy(() -> bulkOps(10).insert(person).execute())
+                .withMessageContaining("person").withMessageContaining("not a number");
+    }
+
+    private UltipaBulkOperations bulkOps(int batchSize) {
+        return new DefaultUltipaBulkOperations(template, mappingContext.getRequiredPersistentEntity(Person.class),
+                UltipaBulkOperations.InsertType.NORMAL, batchSize);
+    }
+
+    private void stubInsert(Map<Integer, Integer> errorItem) {
+        when(template.doInsertNodes(any(), anyList(), any(Ultipa.InsertType.class))).then(invocation -> {
+            List<Node> nodes = new ArrayList<>(invocation.getArgument(1));
+            chunks.add(nodes);
+
+            Map<Integer, Integer> errors = errorItem.entrySet().stream().filter(error -> error.getKey() < nodes.size())
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            InsertResponse response = mock(InsertResponse.class);
+            when(response.getIds()).thenReturn(nodes.stream().map(Node::getID).collect(Collectors.toList()));
+            when(response.getErrorItem()).thenReturn(errors);
+            return response;
+        });
+    }
+
+    private static List<Person> persons(String... ids) {
+        return Arrays.stream(ids).map(Person::new).collect(Collectors.toList());
+    }
+
+    @com.tangwangwang.spring.data.ultipa.annotation.Node("person")
+    static class Person {
+        @Id
+        @com.tangwangwang.spring.data.ultipa.annotation.Property("_id")
+        String id;
+        @com.tangwangwang.spring.data.ultipa.annotation.Property(type = PropertyType.INT32)
+        Long age;
+        @com.tangwangwang.spring.data.ultipa.annotation.Property(type = PropertyType.DOUBLE)
+        Integer score;
+        @com.tangwangwang.spring.data.ultipa.annotation.Property(type = PropertyType.INT64)
+        String code;
+
+        Person(String id) {
+            this.id = id;
+        }
+    }
+}
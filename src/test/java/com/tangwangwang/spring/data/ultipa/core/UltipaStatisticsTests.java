@@ -0,0 +1,126 @@
+package com.tangwangwang.spring.data.ultipa.core;
+
+import com.tangwangwang.spring.data.ultipa.annotation.Node;
+import com.tangwangwang.spring.data.ultipa.annotation.Right;
+import com.tangwangwang.spring.data.ultipa.core.exception.LazyLoadingThresholdException;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Unit tests for {@link UltipaStatistics}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class UltipaStatisticsTests {
+
+    private final UltipaPersistentProperty friends = getProperty("friends");
+
+    @AfterEach
+    void tearDown() {
+        UltipaStatistics.stop();
+        UltipaStatistics.setMode(UltipaStatistics.Mode.OFF);
+        UltipaStatistics.setLazyLoadThreshold(10);
+        UltipaStatistics.setSampleRate(1.0d);
+    }
+
+    @Test
+    void collectsQueriesRowsAndLazyLoadsWithinAScope() {
+        UltipaStatistics.start();
+
+        UltipaStatistics.recordQuery();
+        UltipaStatistics.recordQuery();
+        UltipaStatistics.recordRows(3);
+        UltipaStatistics.recordLazyLoad(friends);
+        UltipaStatistics statistics = UltipaStatistics.stop();
+
+        assertThat(statistics).isNotNull();
+        assertThat(statistics.getQueries()).isEqualTo(2);
+        assertThat(statistics.getRows()).isEqualTo(3);
+        assertThat(statistics.getLazyLoads()).containsOnly(entry("Person.friends", 1));
+        assertThat(UltipaStatistics.current()).isNull();
+    }
+
+    @Test
+    void collectsNothingOutsideAScope() {
+        UltipaStatistics.setMode(UltipaStatistics.Mode.FAIL);
+        UltipaStatistics.setLazyLoadThreshold(1);
+
+        UltipaStatistics.recordQuery();
+        UltipaStatistics.recordLazyLoad(friends);
+        UltipaStatistics.recordLazyLoad(friends);
+
+        assertThat(UltipaStatistics.stop()).isNull();
+    }
+
+    @Test
+    void failsOnceTheLazyLoadsExceedTheThreshold() {
+        UltipaStatistics.setMode(UltipaStatistics.Mode.FAIL);
+        UltipaStatistics.setLazyLoadThreshold(2);
+        UltipaStatistics.start();
+
+        UltipaStatistics.recordLazyLoad(friends);
+        UltipaStatistics.recordLazyLoad(friends);
+
+        assertThatExceptionOfType(LazyLoadingThresholdException.class)
+                .isThrownBy(() -> UltipaStatistics.recordLazyLoad(friends))
+                .satisfies(e -> {
+                    assertThat(e.getProperty()).isEqualTo("Person.friends");
+                    assertThat(e.getLazyLoads()).isEqualTo(3);
+                })
+                .withMessageContaining("more than 2 times")
+                .withMessageContaining("triggered at");
+
+        // reported once per scope
+        UltipaStatistics.recordLazyLoad(friends);
+        assertThat(UltipaStatistics.current().getLazyLoads()).containsOnly(entry("Person.friends", 4));
+    }
+
+    @Test
+    void onlyCountsTheLazyLoadsInModeOffAndLog() {
+        UltipaStatistics.setLazyLoadThreshold(1);
+        UltipaStatistics.start();
+
+        UltipaStatistics.recordLazyLoad(friends);
+        UltipaStatistics.recordLazyLoad(friends);
+        UltipaStatistics.setMode(UltipaStatistics.Mode.LOG);
+        UltipaStatistics.recordLazyLoad(friends);
+
+        assertThat(UltipaStatistics.current().getLazyLoads()).containsOnly(entry("Person.friends", 3));
+    }
+
+    @Test
+    void skipsScopesWhichAreNotSampled() {
+        UltipaStatistics.setSampleRate(0.0d);
+
+        assertThat(UltipaStatistics.start()).isFalse();
+        UltipaStatistics.recordQuery();
+        assertThat(UltipaStatistics.current()).isNull();
+
+        UltipaStatistics.setSampleRate(1.0d);
+        assertThat(UltipaStatistics.start()).isTrue();
+    }
+
+    private static UltipaPersistentProperty getProperty(String name) {
+        UltipaMappingContext mappingContext = new UltipaMappingContext();
+        mappingContext.afterPropertiesSet();
+        return mappingContext.getRequiredPersistentEntity(Person.class).getRequiredPersistentProperty(name);
+    }
+
+    @Node("person")
+    static class Person {
+        @Id
+        String id;
+        @Right(edge = "knows")
+        List<Person> friends;
+    }
+}
@@ -0,0 +1,150 @@
+package com.tangwangwang.spring.data.ultipa.core;
+
+import com.tangwangwang.spring.data.ultipa.annotation.Property;
+import com.tangwangwang.spring.data.ultipa.core.convert.MappingUltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.exception.QueryException;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import com.ultipa.Ultipa;
+import com.ultipa.sdk.connect.Connection;
+import com.ultipa.sdk.connect.driver.UltipaClientDriver;
+import com.ultipa.sdk.operate.entity.DataItem;
+import com.ultipa.sdk.operate.entity.Node;
+import com.ultipa.sdk.operate.response.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the multi-row inserts of {@link UltipaTemplate#saveAll(Iterable)}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class UltipaTemplateSaveAllTests {
+
+    private static final Pattern NAME = Pattern.compile("\"(p\\d+)\"");
+
+    private final Connection connection = mock(Connection.class);
+    private final List<String> executed = new ArrayList<>();
+    private UltipaTemplate template;
+    private int droppedRows;
+
+    @BeforeEach
+    void setUp() {
+        UltipaMappingContext mappingContext = new UltipaMappingContext();
+        mappingContext.afterPropertiesSet();
+        MappingUltipaConverter converter = new MappingUltipaConverter(mappingContext);
+        converter.afterPropertiesSet();
+
+        UltipaClientDriver clientDriver = mock(UltipaClientDriver.class);
+        when(clientDriver.getConnection()).thenReturn(connection);
+        when(connection.uql(anyString())).then(invocation -> respond(invocation.getArgument(0)));
+
+        template = new UltipaTemplate(clientDriver, converter);
+    }
+
+    @Test
+    void splitsNewEntitiesIntoChunksOfTheBatchSize() {
+        template.setBatchSize(2);
+
+        List<Person> saved = template.saveAll(persons(5));
+
+        assertThat(executed).hasSize(3).allMatch(uql -> uql.startsWith("insert().into(@person).nodes(["));
+        assertThat(executed).extracting(UltipaTemplateSaveAllTests::names)
+                .containsExactly(Arrays.asList("p0", "p1"), Arrays.asList("p2", "p3"), Collections.singletonList("p4"));
+        assertThat(saved).extracting(person -> person.name).containsExactly("p0", "p1", "p2", "p3", "p4");
+        assertThat(saved).extracting(person -> person.id).containsExactly("id-p0", "id-p1", "id-p2", "id-p3", "id-p4");
+    }
+
+    @Test
+    void splitsChunksBeforeTheyExceedTheMaxUqlLength() {
+        template.saveAll(persons(1));
+        int singleRowLength = executed.remove(0).length();
+
+        template.setMaxUqlLength(singleRowLength + 5);
+        template.saveAll(persons(3));
+
+        assertThat(executed).hasSize(3).allMatch(uql -> uql.length() <= singleRowLength + 5);
+        assertThat(executed).extracting(UltipaTemplateSaveAllTests::names).flatExtracting(names -> names)
+                .containsExactly("p0", "p1", "p2");
+    }
+
+    @Test
+    void insertsAllNewEntitiesOfASchemaIntoOneChunkByDefault() {
+        template.saveAll(persons(10));
+
+        assertThat(executed).hasSize(1);
+        assertThat(names(executed.get(0))).hasSize(10);
+    }
+
+    @Test
+    void rejectsResponsesNotReturningARowPerEntity() {
+        droppedRows = 1;
+
+        assertThatExceptionOfType(QueryException.class).isThrownBy(() -> template.saveAll(persons(3)))
+                .withMessageContaining("expected 3 rows but got 2");
+    }
+
+    private Response respond(String uql) {
+        executed.add(uql);
+
+        List<String> names = names(uql);
+        List<Object> rows = new ArrayList<>();
+        for (int index = 0; index < names.size() - droppedRows; index++) {
+            Node node = new Node();
+            node.setSchema("person");
+            node.setID("id-" + names.get(index));
+            node.setUUID((long) index + 1);
+            node.set("name", names.get(index));
+            rows.add(node);
+        }
+
+        DataItem dataItem = mock(DataItem.class);
+        when(dataItem.getEntities()).thenReturn(rows);
+        Response.Status status = mock(Response.Status.class);
+        when(status.getErrorCode()).thenReturn(Ultipa.ErrorCode.SUCCESS);
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getItems()).thenReturn(Collections.singletonMap("nodes", dataItem));
+        return response;
+    }
+
+    private static List<String> names(String uql) {
+        List<String> names = new ArrayList<>();
+        Matcher matcher = NAME.matcher(uql);
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        return names;
+    }
+
+    private static List<Person> persons(int count) {
+        return IntStream.range(0, count).mapToObj(index -> Person.of("p" + index)).collect(Collectors.toList());
+    }
+
+    @com.tangwangwang.spring.data.ultipa.annotation.Node("person")
+    static class Person {
+        @Id
+        @Property("_id")
+        String id;
+        String name;
+
+        static Person of(String name) {
+            Person person = new Person();
+            person.name = name;
+            return person;
+        }
+    }
+}
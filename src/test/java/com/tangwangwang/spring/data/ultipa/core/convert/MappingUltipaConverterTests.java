@@ -0,0 +1,157 @@
+package com.tangwangwang.spring.data.ultipa.core.convert;
+
+import com.tangwangwang.spring.data.ultipa.annotation.FetchType;
+import com.tangwangwang.spring.data.ultipa.annotation.Property;
+import com.tangwangwang.spring.data.ultipa.annotation.Right;
+import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.UltipaTemplate;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import com.ultipa.Ultipa;
+import com.ultipa.sdk.connect.Connection;
+import com.ultipa.sdk.connect.driver.UltipaClientDriver;
+import com.ultipa.sdk.operate.entity.DataItem;
+import com.ultipa.sdk.operate.entity.Node;
+import com.ultipa.sdk.operate.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.annotation.Id;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the eagerly loaded references of {@link MappingUltipaConverter}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class MappingUltipaConverterTests {
+
+    private final List<String> executed = new ArrayList<>();
+    private final GenericApplicationContext applicationContext = new GenericApplicationContext();
+    private UltipaTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        UltipaMappingContext mappingContext = new UltipaMappingContext();
+        mappingContext.afterPropertiesSet();
+        MappingUltipaConverter converter = new MappingUltipaConverter(mappingContext);
+        converter.afterPropertiesSet();
+
+        Connection connection = mock(Connection.class);
+        UltipaClientDriver clientDriver = mock(UltipaClientDriver.class);
+        when(clientDriver.getConnection()).thenReturn(connection);
+        when(connection.uql(anyString())).then(invocation -> respond(invocation.getArgument(0)));
+
+        template = new UltipaTemplate(clientDriver, converter);
+        applicationContext.registerBean(UltipaOperations.class, () -> template);
+        applicationContext.refresh();
+        converter.setApplicationContext(applicationContext);
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationContext.close();
+    }
+
+    @Test
+    void loadsEagerReferencesOfTheReadEntitiesWithOneQuery() {
+        List<Person> persons = template.findAll("find().nodes({@person}) as nodes return nodes{*}", Person.class);
+
+        assertThat(persons).hasSize(2).allSatisfy(person -> {
+            assertThat(person.friends).isNotInstanceOf(Factory.class);
+            assertThat(person.friends).extracting(friend -> friend.id).containsExactly("c");
+        });
+        assertThat(executed).hasSize(2);
+    }
+
+    @Test
+    void loadsEagerReferencesOfImmutablePropertiesBeforeReturningTheEntity() {
+        List<ImmutablePerson> persons = template.findAll("find().nodes({@person}) as nodes return nodes{*}", ImmutablePerson.class);
+
+        assertThat(persons).hasSize(2).allSatisfy(person -> {
+            assertThat(person.friends).isNotInstanceOf(Factory.class);
+            assertThat(person.friends).extracting(friend -> friend.id).containsExactly("c");
+        });
+    }
+
+    private Response respond(String uql) {
+        executed.add(uql);
+
+        Map<String, DataItem> items = new LinkedHashMap<>();
+        if (uql.contains(" as sources")) {
+            items.put("sources", dataItem(Arrays.asList(node("a"), node("b"))));
+            items.put("targets", dataItem(Arrays.asList(node("c"), node("c"))));
+        } else if (uql.contains("re({@knows})")) {
+            items.put("nodes", dataItem(Collections.singletonList(node("c"))));
+        } else {
+            items.put("nodes", dataItem(Arrays.asList(node("a"), node("b"))));
+        }
+
+        Response.Status status = mock(Response.Status.class);
+        when(status.getErrorCode()).thenReturn(Ultipa.ErrorCode.SUCCESS);
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getItems()).thenReturn(items);
+        return response;
+    }
+
+    private static Node node(String id) {
+        Node node = new Node();
+        node.setSchema("person");
+        node.setID(id);
+        node.setUUID((long) id.charAt(0));
+        return node;
+    }
+
+    private static DataItem dataItem(List<Object> entities) {
+        DataItem dataItem = mock(DataItem.class);
+        when(dataItem.getEntities()).thenReturn(entities);
+        return dataItem;
+    }
+
+    @com.tangwangwang.spring.data.ultipa.annotation.Node("person")
+    static class Person {
+        @Id
+        @Property("_id")
+        String id;
+        @Right(edge = "knows", fetch = FetchType.EAGER)
+        List<Friend> friends;
+    }
+
+    @com.tangwangwang.spring.data.ultipa.annotation.Node("person")
+    static class ImmutablePerson {
+        @Id
+        @Property("_id")
+        String id;
+        @Right(edge = "knows", fetch = FetchType.EAGER)
+        final List<Friend> friends;
+
+        ImmutablePerson() {
+            this.friends = null;
+        }
+
+        private ImmutablePerson(String id, List<Friend> friends) {
+            this.id = id;
+            this.friends = friends;
+        }
+
+        ImmutablePerson withFriends(List<Friend> friends) {
+            return new ImmutablePerson(id, friends);
+        }
+    }
+
+    @com.tangwangwang.spring.data.ultipa.annotation.Node("person")
+    static class Friend {
+        @Id
+        @Property("_id")
+        String id;
+    }
+}
@@ -0,0 +1,128 @@
+package com.tangwangwang.spring.data.ultipa.core.mapping.model;
+
+import com.tangwangwang.spring.data.ultipa.annotation.EnumId;
+import com.tangwangwang.spring.data.ultipa.annotation.EnumType;
+import com.tangwangwang.spring.data.ultipa.core.mapping.model.UltipaEnumTypeHolder.EnumTable;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for the {@link EnumTable} lookups of {@link UltipaEnumTypeHolder}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class UltipaEnumTypeHolderTests {
+
+    @Test
+    void looksUpConstantsByNameOrdinalAndFieldValue() {
+        EnumTable<Level> table = UltipaEnumTypeHolder.getEnumTable(Level.class);
+
+        assertThat(table.hasField()).isTrue();
+        assertThat(table.getConstantByName("HIGH")).isEqualTo(Level.HIGH);
+        assertThat(table.getConstantByOrdinal(0)).isEqualTo(Level.LOW);
+        assertThat(table.getConstantByFieldValue(2)).isEqualTo(Level.HIGH);
+    }
+
+    @Test
+    void returnsThePersistedValueOfAConstant() {
+        EnumTable<Level> table = UltipaEnumTypeHolder.getEnumTable(Level.class);
+
+        assertThat(table.getValue(Level.HIGH, EnumType.FIELD)).isEqualTo(2);
+        assertThat(table.getValue(Level.HIGH, EnumType.NAME)).isEqualTo("HIGH");
+        assertThat(table.getValue(Level.HIGH, EnumType.ORDINAL)).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackToTheNameWithoutEnumIdField() {
+        EnumTable<Color> table = UltipaEnumTypeHolder.getEnumTable(Color.class);
+
+        assertThat(table.hasField()).isFalse();
+        assertThat(table.getField()).isNull();
+        assertThat(table.getValue(Color.BLUE, EnumType.FIELD)).isEqualTo("BLUE");
+    }
+
+    @Test
+    void resolvesTheTableOfConstantsWithBodies() {
+        @SuppressWarnings("unchecked")
+        Class<Operation> constantType = (Class<Operation>) Operation.PLUS.getClass();
+
+        EnumTable<Operation> table = UltipaEnumTypeHolder.getEnumTable(constantType);
+
+        assertThat(constantType.isEnum()).isFalse();
+        assertThat(table).isSameAs(UltipaEnumTypeHolder.getEnumTable(Operation.class));
+        assertThat(table.getConstantByFieldValue("+")).isEqualTo(Operation.PLUS);
+        assertThat(table.getValue(Operation.MINUS, EnumType.FIELD)).isEqualTo("-");
+    }
+
+    @Test
+    void mapsDuplicateFieldValuesToTheFirstConstant() {
+        EnumTable<Duplicate> table = UltipaEnumTypeHolder.getEnumTable(Duplicate.class);
+
+        assertThat(table.getConstantByFieldValue("x")).isEqualTo(Duplicate.FIRST);
+        assertThat(table.getValue(Duplicate.SECOND, EnumType.FIELD)).isEqualTo("x");
+    }
+
+    @Test
+    void rejectsUnknownValues() {
+        EnumTable<Level> table = UltipaEnumTypeHolder.getEnumTable(Level.class);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> table.getConstantByName("MEDIUM"));
+        assertThatIllegalArgumentException().isThrownBy(() -> table.getConstantByOrdinal(2));
+        assertThatIllegalArgumentException().isThrownBy(() -> table.getConstantByOrdinal(-1));
+        assertThatIllegalArgumentException().isThrownBy(() -> table.getConstantByFieldValue(3));
+        assertThatIllegalArgumentException().isThrownBy(() -> table.getConstantByFieldValue("2"));
+    }
+
+    enum Color {
+        RED, BLUE
+    }
+
+    enum Level {
+        LOW(1), HIGH(2);
+
+        @EnumId
+        private final int value;
+
+        Level(int value) {
+            this.value = value;
+        }
+    }
+
+    enum Operation {
+        PLUS("+") {
+            @Override
+            int apply(int left, int right) {
+                return left + right;
+            }
+        },
+        MINUS("-") {
+            @Override
+            int apply(int left, int right) {
+                return left - right;
+            }
+        };
+
+        @EnumId
+        private final String symbol;
+
+        Operation(String symbol) {
+            this.symbol = symbol;
+        }
+
+        abstract int apply(int left, int right);
+    }
+
+    enum Duplicate {
+        FIRST("x"), SECOND("x");
+
+        @EnumId
+        private final String value;
+
+        Duplicate(String value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.tangwangwang.spring.data.ultipa.core.proxy;
+
+import com.tangwangwang.spring.data.ultipa.annotation.Property;
+import com.tangwangwang.spring.data.ultipa.annotation.Right;
+import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.UltipaTemplate;
+import com.tangwangwang.spring.data.ultipa.core.convert.MappingUltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import com.ultipa.Ultipa;
+import com.ultipa.sdk.connect.Connection;
+import com.ultipa.sdk.connect.driver.UltipaClientDriver;
+import com.ultipa.sdk.operate.entity.Attr;
+import com.ultipa.sdk.operate.entity.DataItem;
+import com.ultipa.sdk.operate.entity.Node;
+import com.ultipa.sdk.operate.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.annotation.Id;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ChunkedList}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class ChunkedListTests {
+
+    private static final Pattern AFTER = Pattern.compile("_uuid > (\\d+)");
+    private static final Pattern SKIP = Pattern.compile("SKIP (\\d+)");
+    private static final Pattern LIMIT = Pattern.compile("LIMIT (\\d+)");
+
+    /**
+     * The targets of the source by the {@code _uuid} of their edges, {@code c} is reached over two parallel edges.
+     */
+    private final SortedMap<Long, String> knows = new TreeMap<>();
+    private final List<String> executed = new ArrayList<>();
+    private final GenericApplicationContext applicationContext = new GenericApplicationContext();
+    private UltipaTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        knows.put(1L, "b");
+        knows.put(2L, "c");
+        knows.put(3L, "c");
+        knows.put(4L, "d");
+        knows.put(5L, "e");
+
+        UltipaMappingContext mappingContext = new UltipaMappingContext();
+        mappingContext.afterPropertiesSet();
+        MappingUltipaConverter converter = new MappingUltipaConverter(mappingContext);
+        converter.afterPropertiesSet();
+
+        Connection connection = mock(Connection.class);
+        UltipaClientDriver clientDriver = mock(UltipaClientDriver.class);
+        when(clientDriver.getConnection()).thenReturn(connection);
+        when(connection.uql(anyString())).then(invocation -> respond(invocation.getArgument(0)));
+
+        template = new UltipaTemplate(clientDriver, converter);
+        applicationContext.registerBean(UltipaOperations.class, () -> template);
+        applicationContext.refresh();
+        converter.setApplicationContext(applicationContext);
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationContext.close();
+    }
+
+    @Test
+    void iteratesTheTargetsOncePerEdgeInChunksAfterTheLastKey() {
+        List<Person> friends = friends();
+
+        List<String> ids = new ArrayList<>();
+        friends.forEach(friend -> ids.add(friend.id));
+
+        assertThat(ids).containsExactly("b", "c", "c", "d", "e");
+        assertThat(executed).containsExactly("after 0 limit 2", "after 2 limit 2", "after 4 limit 2");
+
+        assertThat(friends).hasSize(5);
+        assertThat(executed).hasSize(3);
+    }
+
+    @Test
+    void loadsTheChunkOfAnIndexBySkippingUnlessThePrecedingKeyIsKnown() {
+        List<Person> friends = friends();
+
+        assertThat(friends.get(3).id).isEqualTo("d");
+        assertThat(friends.get(2).id).isEqualTo("c");
+        assertThat(friends.get(4).id).isEqualTo("e");
+
+        assertThat(executed).containsExactly("skip 2 limit 2", "after 4 limit 2");
+    }
+
+    @Test
+    void keepsTheCurrentAndThePreviousChunkOnly() {
+        List<Person> friends = friends();
+        friends.forEach(friend -> {
+        });
+        executed.clear();
+
+        assertThat(friends.get(4).id).isEqualTo("e");
+        assertThat(friends.get(3).id).isEqualTo("d");
+        assertThat(executed).isEmpty();
+
+        assertThat(friends.get(0).id).isEqualTo("b");
+        assertThat(friends.get(3).id).isEqualTo("d");
+        assertThat(executed).containsExactly("after 0 limit 2");
+
+        assertThat(friends.get(4).id).isEqualTo("e");
+        assertThat(executed).containsExactly("after 0 limit 2", "after 4 limit 2");
+    }
+
+    @Test
+    void countsAndChecksForTargetsOnce() {
+        List<Person> friends = friends();
+
+        assertThat(friends.isEmpty()).isFalse();
+        assertThat(friends.isEmpty()).isFalse();
+        assertThat(friends.size()).isEqualTo(5);
+        assertThat(friends.size()).isEqualTo(5);
+
+        assertThat(executed).containsExactly("exists", "count");
+    }
+
+    @Test
+    void answersSizeOfEmptyListsWithoutCounting() {
+        knows.clear();
+        List<Person> friends = friends();
+
+        assertThat(friends.isEmpty()).isTrue();
+        assertThat(friends.size()).isZero();
+        assertThat(friends.iterator().hasNext()).isFalse();
+        assertThat(executed).containsExactly("exists");
+    }
+
+    @Test
+    void rejectsIndexesOutOfTheList() {
+        List<Person> friends = friends();
+
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> friends.get(-1));
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> friends.get(5))
+                .withMessage("Index: 5, Size: 5");
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> friends.get(6))
+                .withMessage("Index: 6, Size: 5");
+    }
+
+    private List<Person> friends() {
+        List<Person> friends = template.findAll("find().nodes({@person}) as nodes return nodes{*}", Person.class).get(0).friends;
+        executed.clear();
+        return friends;
+    }
+
+    private Response respond(String uql) {
+        Map<String, DataItem> items = new LinkedHashMap<>();
+        if (uql.contains("count(nodes)")) {
+            executed.add("count");
+            items.put("count", attrs("count", Collections.singletonList(knows.size())));
+        } else if (uql.contains("as chunkKeys")) {
+            long after = find(AFTER, uql, 0);
+            long skip = find(SKIP, uql, 0);
+            long limit = find(LIMIT, uql, Integer.MAX_VALUE);
+            executed.add(limit == 1 ? "exists" : skip > 0 ? "skip " + skip + " limit " + limit : "after " + after + " limit " + limit);
+
+            List<Map.Entry<Long, String>> edges = knows.tailMap(after + 1).entrySet().stream()
+                    .skip(skip).limit(limit).collect(Collectors.toList());
+            items.put("nodes", nodes(edges.stream().map(Map.Entry::getValue).collect(Collectors.toList())));
+            items.put("chunkKeys", attrs("chunkKeys", edges.stream().map(Map.Entry::getKey).collect(Collectors.toList())));
+        } else {
+            items.put("nodes", nodes(Collections.singletonList("a")));
+        }
+
+        Response.Status status = mock(Response.Status.class);
+        when(status.getErrorCode()).thenReturn(Ultipa.ErrorCode.SUCCESS);
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getItems()).thenReturn(items);
+        return response;
+    }
+
+    private static long find(Pattern pattern, String uql, long defaultValue) {
+        Matcher matcher = pattern.matcher(uql);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : defaultValue;
+    }
+
+    private static DataItem nodes(List<String> ids) {
+        List<Object> nodes = new ArrayList<>();
+        for (String id : ids) {
+            Node node = new Node();
+            node.setSchema("person");
+            node.setID(id);
+            node.setUUID((long) id.charAt(0));
+            nodes.add(node);
+        }
+        DataItem dataItem = mock(DataItem.class);
+        when(dataItem.getEntities()).thenReturn(nodes);
+        return dataItem;
+    }
+
+    private static DataItem attrs(String name, List<?> values) {
+        Attr attr = mock(Attr.class);
+        when(attr.getName()).thenReturn(name);
+        when(attr.getValues()).thenReturn(new ArrayList<>(values));
+        DataItem dataItem = mock(DataItem.class);
+        when(dataItem.getEntities()).thenReturn(Collections.singletonList(attr));
+        return dataItem;
+    }
+
+    @com.tangwangwang.spring.data.ultipa.annotation.Node("person")
+    static class Person {
+        @Id
+        @Property("_id")
+        String id;
+        @Right(edge = "knows", chunkSize = 2)
+        List<Person> friends;
+    }
+}
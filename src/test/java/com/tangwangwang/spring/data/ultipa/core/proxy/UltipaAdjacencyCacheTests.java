@@ -0,0 +1,208 @@
+package com.tangwangwang.spring.data.ultipa.core.proxy;
+
+import com.tangwangwang.spring.data.ultipa.annotation.AdjacencyCache;
+import com.tangwangwang.spring.data.ultipa.annotation.Left;
+import com.tangwangwang.spring.data.ultipa.annotation.Node;
+import com.tangwangwang.spring.data.ultipa.annotation.Right;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentEntity;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentProperty;
+import com.tangwangwang.spring.data.ultipa.core.proxy.UltipaAdjacencyCache.Region;
+import com.tangwangwang.spring.data.ultipa.core.schema.Schema;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link UltipaAdjacencyCache}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class UltipaAdjacencyCacheTests {
+
+    private static final UltipaPersistentEntity<?> ENTITY = createEntity();
+
+    private final Map<String, AtomicInteger> loads = new HashMap<>();
+    private final Map<Region, String> names = new IdentityHashMap<>();
+
+    @Test
+    void cachesTheRowsPerSource() {
+        Region region = region("friends", false);
+
+        List<Schema> rows = get(region, "a");
+
+        assertThat(get(region, "a")).isSameAs(rows);
+        get(region, "b");
+        assertThat(loads("friends", "a")).isEqualTo(1);
+        assertThat(loads("friends", "b")).isEqualTo(1);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedSourceBeyondTheMaxSize() {
+        Region region = region("friends", false);
+
+        get(region, "a");
+        get(region, "b");
+        get(region, "a");
+        get(region, "c");
+        get(region, "a");
+        get(region, "b");
+
+        assertThat(loads("friends", "a")).isEqualTo(1);
+        assertThat(loads("friends", "b")).isEqualTo(2);
+        assertThat(loads("friends", "c")).isEqualTo(1);
+    }
+
+    @Test
+    void reloadsExpiredRows() throws InterruptedException {
+        Region region = region("likes", false);
+
+        get(region, "a");
+        TimeUnit.MILLISECONDS.sleep(20);
+        get(region, "a");
+
+        assertThat(loads("likes", "a")).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheRowsLoadedWhileTheRegionIsEvicted() {
+        Region region = region("friends", false);
+
+        region.get("a", () -> {
+            region.evict("b");
+            return rows(region, "a");
+        });
+        get(region, "a");
+        get(region, "a");
+
+        assertThat(loads("friends", "a")).isEqualTo(2);
+    }
+
+    @Test
+    void evictsTheSourceOfTheDirectionOfASavedEdge() {
+        UltipaAdjacencyCache cache = new UltipaAdjacencyCache();
+        Region friends = cache.getRegion(property("friends"), it -> region("friends", false));
+        Region followers = cache.getRegion(property("followers"), it -> region("followers", true));
+        get(friends, "a");
+        get(friends, "b");
+        get(followers, "a");
+        get(followers, "b");
+
+        cache.evictEdge("knows", "person", "a", "person", "b");
+        get(friends, "a");
+        get(friends, "b");
+        get(followers, "a");
+        get(followers, "b");
+
+        // friends are cached by the from node, followers by the to node
+        assertThat(loads("friends", "a")).isEqualTo(2);
+        assertThat(loads("friends", "b")).isEqualTo(1);
+        assertThat(loads("followers", "a")).isEqualTo(1);
+        assertThat(loads("followers", "b")).isEqualTo(2);
+    }
+
+    @Test
+    void clearsRegionsOnUnknownEdges() {
+        UltipaAdjacencyCache cache = new UltipaAdjacencyCache();
+        Region friends = cache.getRegion(property("friends"), it -> region("friends", false));
+        get(friends, "a");
+
+        cache.evictEdge("likes", "person", "a", "person", "b");
+        get(friends, "a");
+        cache.evictEdge("knows", null, null, "person", "b");
+        get(friends, "a");
+        cache.evictEdge(null, null, null, null, null);
+        get(friends, "a");
+
+        assertThat(loads("friends", "a")).isEqualTo(3);
+    }
+
+    @Test
+    void evictsRegionsBySchema() {
+        UltipaAdjacencyCache cache = new UltipaAdjacencyCache();
+        Region friends = cache.getRegion(property("friends"), it -> region("friends", false));
+        get(friends, "a");
+
+        cache.evictSchema("city");
+        get(friends, "a");
+        cache.evictSchema("knows");
+        get(friends, "a");
+        cache.evictSchema("person");
+        get(friends, "a");
+        cache.clear();
+        get(friends, "a");
+
+        assertThat(loads("friends", "a")).isEqualTo(4);
+    }
+
+    @Test
+    void keepsOneRegionPerProperty() {
+        UltipaAdjacencyCache cache = new UltipaAdjacencyCache();
+        Region region = cache.getRegion(property("friends"), it -> region("friends", false));
+
+        assertThat(cache.getRegion(property("friends"), it -> region("friends", false))).isSameAs(region);
+    }
+
+    private List<Schema> get(Region region, String sourceId) {
+        return region.get(sourceId, () -> rows(region, sourceId));
+    }
+
+    private List<Schema> rows(Region region, String sourceId) {
+        loads.computeIfAbsent(names.get(region) + ":" + sourceId, it -> new AtomicInteger()).incrementAndGet();
+        return new ArrayList<>(Collections.singletonList(Schema.of(Collections.singletonMap("_id", sourceId + "-friend"))));
+    }
+
+    private int loads(String property, String sourceId) {
+        AtomicInteger count = loads.get(property + ":" + sourceId);
+        return count == null ? 0 : count.get();
+    }
+
+    private Region region(String property, boolean left) {
+        try {
+            Field field = Person.class.getDeclaredField(property);
+            String edgeSchema = left ? field.getAnnotation(Left.class).edge() : field.getAnnotation(Right.class).edge();
+            Region region = new Region("person", edgeSchema, "person", left, field.getAnnotation(AdjacencyCache.class));
+            names.put(region, property);
+            return region;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static UltipaPersistentProperty property(String name) {
+        return ENTITY.getRequiredPersistentProperty(name);
+    }
+
+    private static UltipaPersistentEntity<?> createEntity() {
+        UltipaMappingContext mappingContext = new UltipaMappingContext();
+        mappingContext.afterPropertiesSet();
+        return mappingContext.getRequiredPersistentEntity(Person.class);
+    }
+
+    @Node("person")
+    static class Person {
+        @Id
+        String id;
+        @Right(edge = "knows")
+        @AdjacencyCache(maxSize = 2)
+        List<Person> friends;
+        @Left(edge = "knows")
+        @AdjacencyCache
+        List<Person> followers;
+        @Right(edge = "likes")
+        @AdjacencyCache(ttl = 5, timeUnit = TimeUnit.MILLISECONDS)
+        List<Person> likes;
+    }
+}
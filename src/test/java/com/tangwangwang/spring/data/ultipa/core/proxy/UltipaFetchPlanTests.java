@@ -0,0 +1,210 @@
+package com.tangwangwang.spring.data.ultipa.core.proxy;
+
+import com.tangwangwang.spring.data.ultipa.annotation.Property;
+import com.tangwangwang.spring.data.ultipa.annotation.Right;
+import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.UltipaTemplate;
+import com.tangwangwang.spring.data.ultipa.core.convert.MappingUltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import com.ultipa.Ultipa;
+import com.ultipa.sdk.connect.Connection;
+import com.ultipa.sdk.connect.driver.UltipaClientDriver;
+import com.ultipa.sdk.operate.entity.DataItem;
+import com.ultipa.sdk.operate.entity.Node;
+import com.ultipa.sdk.operate.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.annotation.Id;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link UltipaFetchPlan}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class UltipaFetchPlanTests {
+
+    private static final String ROOTS_UQL = "find().nodes({@person}) as nodes return nodes{*}";
+    private static final Pattern SOURCE_IDS = Pattern.compile("_id in \\[([^]]*)]");
+    private static final Pattern ID = Pattern.compile("\"(\\w+)\"");
+
+    private final Map<String, List<String>> knows = new HashMap<>();
+    private final List<String> rootIds = new ArrayList<>(Arrays.asList("a", "b"));
+    private final List<String> executed = new ArrayList<>();
+    private final GenericApplicationContext applicationContext = new GenericApplicationContext();
+    private MappingUltipaConverter converter;
+    private UltipaTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        knows.put("a", Collections.singletonList("c"));
+        knows.put("b", Collections.singletonList("c"));
+        knows.put("c", Collections.singletonList("d"));
+        knows.put("d", Collections.emptyList());
+
+        UltipaMappingContext mappingContext = new UltipaMappingContext();
+        mappingContext.afterPropertiesSet();
+        converter = new MappingUltipaConverter(mappingContext);
+        converter.afterPropertiesSet();
+
+        Connection connection = mock(Connection.class);
+        UltipaClientDriver clientDriver = mock(UltipaClientDriver.class);
+        when(clientDriver.getConnection()).thenReturn(connection);
+        when(connection.uql(anyString())).then(invocation -> respond(invocation.getArgument(0)));
+
+        template = new UltipaTemplate(clientDriver, converter);
+        applicationContext.registerBean(UltipaOperations.class, () -> template);
+        applicationContext.refresh();
+        converter.setApplicationContext(applicationContext);
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationContext.close();
+    }
+
+    @Test
+    void loadsEachLevelWithOneQueryAndResolvesTheSameIdToOneInstance() {
+        List<Person> roots = template.findAll(ROOTS_UQL, Person.class);
+
+        UltipaFetchPlan.of("friends.friends").apply(template, roots);
+
+        assertThat(executed).hasSize(3);
+        assertThat(sourceIds(executed.get(1))).containsExactlyInAnyOrder("a", "b");
+        assertThat(sourceIds(executed.get(2))).containsExactly("c");
+
+        Person a = roots.get(0);
+        Person b = roots.get(1);
+        assertThat(a.friends).extracting(person -> person.id).containsExactly("c");
+        assertThat(a.friends.get(0)).isSameAs(b.friends.get(0));
+        assertThat(a.friends.get(0).friends).extracting(person -> person.id).containsExactly("d");
+        assertThat(executed).hasSize(3);
+    }
+
+    @Test
+    void completesEveryRootOfTheSameId() {
+        List<Person> first = template.findAll(ROOTS_UQL, Person.class);
+        List<Person> second = template.findAll(ROOTS_UQL, Person.class);
+        executed.clear();
+
+        UltipaFetchPlan.of("friends").apply(template, Arrays.asList(first.get(0), second.get(0), first.get(0)));
+
+        assertThat(executed).hasSize(1);
+        assertThat(sourceIds(executed.get(0))).containsExactly("a");
+        assertThat(first.get(0).friends.get(0)).isSameAs(second.get(0).friends.get(0));
+        assertThat(executed).hasSize(1);
+    }
+
+    @Test
+    void loadsStreamedEntitiesInWindowsOfTheBatchSize() {
+        knows.put("e", Collections.singletonList("c"));
+        rootIds.addAll(Arrays.asList("c", "d", "e"));
+        converter.setLazyLoadingBatchSize(2);
+
+        List<Person> roots;
+        try (Stream<Person> stream = UltipaFetchPlan.of("friends").apply(template, template.stream(ROOTS_UQL, Person.class))) {
+            roots = stream.collect(Collectors.toList());
+        }
+
+        assertThat(roots).extracting(person -> person.id).containsExactly("a", "b", "c", "d", "e");
+        assertThat(executed.subList(1, executed.size())).<Set<String>>extracting(uql -> new HashSet<>(sourceIds(uql)))
+                .containsExactly(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(Arrays.asList("c", "d")),
+                        Collections.singleton("e"));
+    }
+
+    @Test
+    void parsesDotSeparatedPaths() {
+        assertThat(UltipaFetchPlan.of().isEmpty()).isTrue();
+        assertThat(UltipaFetchPlan.of(" friends.friends ", "friends").toString())
+                .isEqualTo("UltipaFetchPlan [friends.friends, friends]");
+        assertThatIllegalArgumentException().isThrownBy(() -> UltipaFetchPlan.of("friends", " "));
+    }
+
+    @Test
+    void rejectsPathsOfUnknownReferences() {
+        List<Person> roots = template.findAll(ROOTS_UQL, Person.class);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> UltipaFetchPlan.of("name").apply(template, roots))
+                .withMessageContaining("No reference property name found");
+        assertThatIllegalArgumentException().isThrownBy(() -> UltipaFetchPlan.of("friends.enemies").apply(template, roots))
+                .withMessageContaining("No reference property enemies found");
+    }
+
+    private Response respond(String uql) {
+        executed.add(uql);
+
+        Map<String, DataItem> items = new LinkedHashMap<>();
+        if (uql.contains(" as sources")) {
+            List<Object> sources = new ArrayList<>();
+            List<Object> targets = new ArrayList<>();
+            for (String sourceId : sourceIds(uql)) {
+                for (String targetId : knows.getOrDefault(sourceId, Collections.emptyList())) {
+                    sources.add(node(sourceId));
+                    targets.add(node(targetId));
+                }
+            }
+            items.put("sources", dataItem(sources));
+            items.put("targets", dataItem(targets));
+        } else {
+            items.put("nodes", dataItem(rootIds.stream().map(UltipaFetchPlanTests::node).collect(Collectors.toList())));
+        }
+
+        Response.Status status = mock(Response.Status.class);
+        when(status.getErrorCode()).thenReturn(Ultipa.ErrorCode.SUCCESS);
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getItems()).thenReturn(items);
+        return response;
+    }
+
+    private static List<String> sourceIds(String uql) {
+        Matcher matcher = SOURCE_IDS.matcher(uql);
+        List<String> ids = new ArrayList<>();
+        if (matcher.find()) {
+            Matcher id = ID.matcher(matcher.group(1));
+            while (id.find()) {
+                ids.add(id.group(1));
+            }
+        }
+        return ids;
+    }
+
+    private static Node node(String id) {
+        Node node = new Node();
+        node.setSchema("person");
+        node.setID(id);
+        node.setUUID((long) id.charAt(0));
+        node.set("name", id.toUpperCase(Locale.ROOT));
+        return node;
+    }
+
+    private static DataItem dataItem(List<Object> entities) {
+        DataItem dataItem = mock(DataItem.class);
+        when(dataItem.getEntities()).thenReturn(entities);
+        return dataItem;
+    }
+
+    @com.tangwangwang.spring.data.ultipa.annotation.Node("person")
+    static class Person {
+        @Id
+        @Property("_id")
+        String id;
+        String name;
+        @Right(edge = "knows")
+        List<Person> friends;
+    }
+}
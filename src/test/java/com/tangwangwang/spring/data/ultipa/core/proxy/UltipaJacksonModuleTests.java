@@ -0,0 +1,158 @@
+package com.tangwangwang.spring.data.ultipa.core.proxy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tangwangwang.spring.data.ultipa.annotation.Edge;
+import com.tangwangwang.spring.data.ultipa.annotation.From;
+import com.tangwangwang.spring.data.ultipa.annotation.Node;
+import com.tangwangwang.spring.data.ultipa.annotation.Property;
+import com.tangwangwang.spring.data.ultipa.annotation.Right;
+import com.tangwangwang.spring.data.ultipa.annotation.To;
+import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.convert.MappingUltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentEntity;
+import com.tangwangwang.spring.data.ultipa.core.schema.Schema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.annotation.Id;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link UltipaJacksonModule}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class UltipaJacksonModuleTests {
+
+    private final UltipaOperations operations = mock(UltipaOperations.class);
+    private final GenericApplicationContext applicationContext = new GenericApplicationContext();
+    private UltipaMappingContext mappingContext;
+    private MappingUltipaConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        mappingContext = new UltipaMappingContext();
+        mappingContext.afterPropertiesSet();
+        converter = new MappingUltipaConverter(mappingContext);
+        converter.afterPropertiesSet();
+        when(operations.getConverter()).thenReturn(converter);
+
+        applicationContext.registerBean(UltipaOperations.class, () -> operations);
+        applicationContext.refresh();
+        converter.setApplicationContext(applicationContext);
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationContext.close();
+    }
+
+    @Test
+    void omitsUninitializedReferences() throws Exception {
+        Person person = person();
+        Holder holder = new Holder();
+        holder.person = person.friend;
+
+        ObjectMapper mapper = mapper(UltipaJacksonModule.Policy.OMIT);
+
+        assertThat(mapper.writeValueAsString(person)).isEqualTo("{\"id\":\"p\",\"name\":\"P\",\"likes\":[]}");
+        assertThat(mapper.writeValueAsString(holder)).isEqualTo("{\"person\":null}");
+        verify(operations, never()).createQuery(anyString(), anyMap());
+    }
+
+    @Test
+    void writesNullForUninitializedReferences() throws Exception {
+        assertThat(mapper(UltipaJacksonModule.Policy.NULL).writeValueAsString(person()))
+                .isEqualTo("{\"id\":\"p\",\"name\":\"P\",\"friend\":null,\"likes\":[]}");
+        verify(operations, never()).createQuery(anyString(), anyMap());
+    }
+
+    @Test
+    void writesKnownTargetIdsOfUninitializedReferences() throws Exception {
+        Map<String, Object> row = new HashMap<>();
+        row.put("_uuid", 1L);
+        row.put("_from", "a");
+        row.put("_to", "b");
+        Knows knows = converter.read(Knows.class, Schema.of(row));
+
+        ObjectMapper mapper = mapper(UltipaJacksonModule.Policy.ID);
+
+        assertThat(mapper.writeValueAsString(knows)).isEqualTo("{\"uuid\":1,\"from\":\"a\",\"to\":\"b\"}");
+        assertThat(mapper.writeValueAsString(person()))
+                .isEqualTo("{\"id\":\"p\",\"name\":\"P\",\"friend\":null,\"likes\":[]}");
+        verify(operations, never()).createQuery(anyString(), anyMap());
+    }
+
+    @Test
+    void writesTheTargetOfInitializedReferences() throws Exception {
+        Person person = person();
+        Person friend = new Person();
+        friend.id = "f";
+        friend.name = "F";
+        friend.likes = new ArrayList<>();
+        ((AbstractUltipaProxy) UltipaProxyFactory.getProxy(person.friend)).complete(Collections.singletonList(friend));
+
+        for (UltipaJacksonModule.Policy policy : UltipaJacksonModule.Policy.values()) {
+            assertThat(mapper(policy).writeValueAsString(person)).isEqualTo("{\"id\":\"p\",\"name\":\"P\","
+                    + "\"friend\":{\"id\":\"f\",\"name\":\"F\",\"friend\":null,\"likes\":[]},\"likes\":[]}");
+        }
+    }
+
+    private ObjectMapper mapper(UltipaJacksonModule.Policy policy) {
+        return new ObjectMapper().registerModule(new UltipaJacksonModule(mappingContext, policy));
+    }
+
+    private Person person() {
+        UltipaPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(Person.class);
+        Person person = new Person();
+        person.id = "p";
+        person.name = "P";
+        person.friend = (Person) new UltipaProxyFactory().createLazyLoadingProxy(operations,
+                entity.getRequiredPersistentProperty("friend"), person);
+        person.likes = new ArrayList<>();
+        return person;
+    }
+
+    @Node("person")
+    public static class Person {
+        @Id
+        @Property("_id")
+        public String id;
+        public String name;
+        @Right(edge = "knows")
+        public Person friend;
+        @Right(edge = "likes")
+        public List<Person> likes;
+    }
+
+    @Edge("knows")
+    public static class Knows {
+        @Id
+        @Property("_uuid")
+        public Long uuid;
+        @From
+        public Person from;
+        @To
+        public Person to;
+    }
+
+    static class Holder {
+        public Person person;
+    }
+}
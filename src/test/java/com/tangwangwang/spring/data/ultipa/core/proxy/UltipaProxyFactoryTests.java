@@ -0,0 +1,107 @@
+package com.tangwangwang.spring.data.ultipa.core.proxy;
+
+import com.tangwangwang.spring.data.ultipa.annotation.Node;
+import com.tangwangwang.spring.data.ultipa.annotation.Property;
+import com.tangwangwang.spring.data.ultipa.annotation.Right;
+import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.convert.MappingUltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.annotation.Id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link UltipaProxyFactory}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class UltipaProxyFactoryTests {
+
+    private final UltipaOperations operations = mock(UltipaOperations.class);
+    private final GenericApplicationContext applicationContext = new GenericApplicationContext();
+    private final UltipaProxyFactory proxyFactory = new UltipaProxyFactory();
+    private UltipaPersistentEntity<?> entity;
+
+    @BeforeEach
+    void setUp() {
+        UltipaMappingContext mappingContext = new UltipaMappingContext();
+        mappingContext.afterPropertiesSet();
+        MappingUltipaConverter converter = new MappingUltipaConverter(mappingContext);
+        converter.afterPropertiesSet();
+        when(operations.getConverter()).thenReturn(converter);
+
+        applicationContext.registerBean(UltipaOperations.class, () -> operations);
+        applicationContext.refresh();
+        converter.setApplicationContext(applicationContext);
+
+        entity = mappingContext.getRequiredPersistentEntity(Person.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        applicationContext.close();
+    }
+
+    @Test
+    void proxiesOfTheSamePropertyAndSourceIdAreEqual() {
+        Object proxy = proxy("friend", person("p"));
+        Object other = proxy("friend", person("p"));
+
+        assertThat(proxy).isEqualTo(other);
+        assertThat(proxy.hashCode()).isEqualTo(other.hashCode());
+        assertThat(proxy).isEqualTo(UltipaProxyFactory.getProxy(other));
+        verify(operations, never()).createQuery(anyString(), anyMap());
+    }
+
+    @Test
+    void proxiesOfOtherPropertiesOrSourceIdsAreNotEqual() {
+        Object proxy = proxy("friend", person("p"));
+
+        assertThat(proxy).isNotEqualTo(proxy("enemy", person("p")));
+        assertThat(proxy).isNotEqualTo(proxy("friend", person("q")));
+        assertThat(proxy).isNotEqualTo("Person$UltipaNodeProxy (sourceId = p)");
+        verify(operations, never()).createQuery(anyString(), anyMap());
+    }
+
+    @Test
+    void proxiesWithoutSourceIdAreOnlyEqualToThemselves() {
+        Object proxy = proxy("friend", person(null));
+
+        assertThat(proxy).isEqualTo(proxy);
+        assertThat(proxy.hashCode()).isEqualTo(proxy.hashCode());
+        assertThat(proxy).isNotEqualTo(proxy("friend", person(null)));
+    }
+
+    private Object proxy(String property, Person source) {
+        return proxyFactory.createLazyLoadingProxy(operations, entity.getRequiredPersistentProperty(property), source);
+    }
+
+    private static Person person(String id) {
+        Person person = new Person();
+        person.id = id;
+        return person;
+    }
+
+    @Node("person")
+    public static class Person {
+        @Id
+        @Property("_id")
+        public String id;
+        @Right(edge = "knows")
+        public Person friend;
+        @Right(edge = "hates")
+        public Person enemy;
+    }
+}
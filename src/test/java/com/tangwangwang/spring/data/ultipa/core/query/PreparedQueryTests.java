@@ -0,0 +1,119 @@
+package com.tangwangwang.spring.data.ultipa.core.query;
+
+import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.convert.MappingUltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.exception.ParameterBindingException;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link PreparedQuery}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class PreparedQueryTests {
+
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private final UltipaOperations operations = mock(UltipaOperations.class);
+
+    @BeforeEach
+    void setUp() {
+        UltipaMappingContext mappingContext = new UltipaMappingContext();
+        mappingContext.afterPropertiesSet();
+        MappingUltipaConverter converter = new MappingUltipaConverter(mappingContext);
+        converter.afterPropertiesSet();
+
+        when(operations.getConverter()).thenReturn(converter);
+    }
+
+    @Test
+    void rejectsEmptyPlaceholders() {
+        assertThatExceptionOfType(ParameterBindingException.class)
+                .isThrownBy(() -> PreparedQuery.of(operations, "find().nodes({name == #{ }}) return n", parser, null))
+                .withMessageContaining("No content");
+    }
+
+    @Test
+    void rejectsUnparsablePlaceholders() {
+        assertThatExceptionOfType(ParameterBindingException.class)
+                .isThrownBy(() -> PreparedQuery.of(operations, "find().nodes({name == #{a b}}) return n", parser, null))
+                .withMessageContaining("'a b'");
+    }
+
+    @Test
+    void rejectsNestedAndUnclosedPlaceholders() {
+        assertThatExceptionOfType(ParameterBindingException.class)
+                .isThrownBy(() -> PreparedQuery.of(operations, "return #{${key}}", parser, null))
+                .withMessageContaining("nested or unclosed");
+        assertThatExceptionOfType(ParameterBindingException.class)
+                .isThrownBy(() -> PreparedQuery.of(operations, "return #{name", parser, null))
+                .withMessageContaining("nested or unclosed");
+    }
+
+    @Test
+    void bindsParametersPerExecution() {
+        PreparedQuery prepared = PreparedQuery.of(operations, "find().nodes({name == #{name}}) as n return n", parser, null);
+
+        prepared.bind(Collections.singletonMap("name", "a")).execute();
+        prepared.bind(Collections.singletonMap("name", "b")).execute();
+
+        assertThat(executed()).containsExactly("find().nodes({name == \"a\"}) as n return n",
+                "find().nodes({name == \"b\"}) as n return n");
+    }
+
+    @Test
+    void returnsNewInstancesForSortSkipAndLimit() {
+        PreparedQuery prepared = PreparedQuery.of(operations, "find().nodes() as n return n", parser, "n");
+
+        PreparedQuery sorted = prepared.with(Sort.by("name"));
+        PreparedQuery paged = sorted.with(PageRequest.of(2, 10));
+
+        assertThat(sorted).isNotSameAs(prepared);
+        assertThat(paged).isNotSameAs(sorted);
+        assertThat(prepared.with(Sort.unsorted())).isSameAs(prepared);
+
+        prepared.bind().execute();
+        sorted.bind().execute();
+        paged.bind().execute();
+        prepared.skip(5).limit(1).bind().execute();
+
+        assertThat(executed()).containsExactly(
+                "find().nodes() as n return n",
+                "find().nodes() as n return n ORDER BY n.name ASC",
+                "find().nodes() as n return n ORDER BY n.name ASC SKIP 20  LIMIT 10 ",
+                "find().nodes() as n return n SKIP 5  LIMIT 1 ");
+    }
+
+    @Test
+    void sharesTheCompiledTemplate() {
+        PreparedQuery first = PreparedQuery.of(operations, "return #{a}", parser, null);
+        PreparedQuery second = PreparedQuery.of(operations, "return #{a}", parser, null);
+
+        assertThat(first.getQueryString()).isEqualTo("return #{a}");
+        assertThat(first.bind().references("a")).isTrue();
+        assertThat(UqlTemplate.of(first.getQueryString(), parser)).isSameAs(UqlTemplate.of(second.getQueryString(), parser));
+    }
+
+    private List<String> executed() {
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(operations, atLeastOnce()).execute(captor.capture());
+        return captor.getAllValues();
+    }
+}
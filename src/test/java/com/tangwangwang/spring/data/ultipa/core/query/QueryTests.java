@@ -0,0 +1,90 @@
+package com.tangwangwang.spring.data.ultipa.core.query;
+
+import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.convert.MappingUltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the limits {@link Query} pushes into single result and existence queries.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class QueryTests {
+
+    private final UltipaOperations operations = mock(UltipaOperations.class);
+
+    @BeforeEach
+    void setUp() {
+        UltipaMappingContext mappingContext = new UltipaMappingContext();
+        mappingContext.afterPropertiesSet();
+        MappingUltipaConverter converter = new MappingUltipaConverter(mappingContext);
+        converter.afterPropertiesSet();
+
+        when(operations.getConverter()).thenReturn(converter);
+    }
+
+    @Test
+    void pushesLimitOfTwoIntoSingleResultQueries() {
+        assertThat(findOne(query("find().nodes() as n return n"))).isEqualTo("find().nodes() as n return n LIMIT 2 ");
+    }
+
+    @Test
+    void pushesLimitOfOneIntoExistenceQueries() {
+        query("find().nodes() as n return n").exists();
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(operations).findAll(captor.capture());
+        assertThat(captor.getValue()).isEqualTo("find().nodes() as n return n LIMIT 1 ");
+    }
+
+    @Test
+    void keepsTrailingLimitOfTheUql() {
+        assertThat(findOne(query("find().nodes() as n return n limit 5"))).isEqualTo("find().nodes() as n return n limit 5");
+        assertThat(findOne(query("find().nodes() as n return n LIMIT 1 \n"))).isEqualTo("find().nodes() as n return n LIMIT 1 \n");
+    }
+
+    @Test
+    void pushesLimitPastLimitsWhichDoNotEndTheUql() {
+        assertThat(findOne(query("find().nodes() as n limit 5 return n")))
+                .isEqualTo("find().nodes() as n limit 5 return n LIMIT 2 ");
+        assertThat(findOne(query("find().nodes() as n return n.unlimit 5")))
+                .isEqualTo("find().nodes() as n return n.unlimit 5 LIMIT 2 ");
+    }
+
+    @Test
+    void capsGreaterLimitsOfTheQuery() {
+        assertThat(findOne(query("find().nodes() as n return n").limit(10))).isEqualTo("find().nodes() as n return n LIMIT 2 ");
+        assertThat(findOne(query("find().nodes() as n return n").limit(1))).isEqualTo("find().nodes() as n return n LIMIT 1 ");
+    }
+
+    @Test
+    void doesNotLimitQueriesReadingAllRows() {
+        query("find().nodes() as n return n").findAll();
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(operations).findAll(captor.capture());
+        assertThat(captor.getValue()).isEqualTo("find().nodes() as n return n");
+    }
+
+    private Query query(String uql) {
+        return new Query(operations, uql, null, null, null);
+    }
+
+    private String findOne(Query query) {
+        query.findOne();
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(operations, atLeastOnce()).findOne(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,91 @@
+package com.tangwangwang.spring.data.ultipa.core.query;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Unit tests for {@link ScrollPosition}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class ScrollPositionTests {
+
+    @Test
+    void roundTripsKeysThroughToken() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("name", "a&b=c d/\u00e9");
+        keys.put("age", 42L);
+        keys.put("score", 1.5d);
+        keys.put("nickname", null);
+        keys.put("_uuid", 7L);
+        ScrollPosition position = ScrollPosition.of(keys);
+
+        String token = position.toToken();
+        ScrollPosition restored = ScrollPosition.fromToken(token);
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(restored).isEqualTo(position);
+        assertThat(restored.getKeys()).containsExactly(entry("name", "a&b=c d/\u00e9"), entry("age", 42L),
+                entry("score", 1.5d), entry("nickname", null), entry("_uuid", 7L));
+    }
+
+    @Test
+    void restoresIntegralKeysAsLongAndFloatKeysAsFloat() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("int", 1);
+        keys.put("float", 0.1f);
+        keys.put("double", 0.1d);
+
+        ScrollPosition restored = ScrollPosition.fromToken(ScrollPosition.of(keys).toToken());
+
+        assertThat(restored.getKeys()).containsExactly(entry("int", 1L), entry("float", 0.1f), entry("double", 0.1d));
+    }
+
+    @Test
+    void mapsEmptyTokenToInitialPosition() {
+        assertThat(ScrollPosition.initial().toToken()).isEmpty();
+        assertThat(ScrollPosition.fromToken("")).isSameAs(ScrollPosition.initial());
+        assertThat(ScrollPosition.fromToken(null)).isSameAs(ScrollPosition.initial());
+        assertThat(ScrollPosition.of(Collections.emptyMap()).isInitial()).isTrue();
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ScrollPosition.fromToken("not base64!"));
+        assertThatIllegalArgumentException().isThrownBy(() -> ScrollPosition.fromToken(encode("name")));
+        assertThatIllegalArgumentException().isThrownBy(() -> ScrollPosition.fromToken(encode("name=Xvalue")));
+        assertThatIllegalArgumentException().isThrownBy(() -> ScrollPosition.fromToken(encode("age=Lnan")));
+    }
+
+    @Test
+    void bindsKeysByNameAndSortPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("name", "a");
+        keys.put("_uuid", 7L);
+
+        Map<String, Object> parameters = ScrollPosition.of(keys).getParameters(Sort.by("name", "_uuid"));
+
+        assertThat(parameters).containsOnly(entry("name", "a"), entry("_uuid", 7L), entry("k0", "a"), entry("k1", 7L));
+    }
+
+    @Test
+    void bindsZeroUuidForInitialPosition() {
+        Map<String, Object> parameters = ScrollPosition.initial().getParameters(Sort.by("_uuid"));
+
+        assertThat(parameters).containsOnly(entry("_uuid", 0L), entry("k0", 0L));
+    }
+
+    private static String encode(String decoded) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes());
+    }
+}
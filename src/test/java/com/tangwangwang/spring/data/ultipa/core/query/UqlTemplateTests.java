@@ -0,0 +1,152 @@
+package com.tangwangwang.spring.data.ultipa.core.query;
+
+import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.convert.MappingUltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link UqlTemplate} and the rendering of compiled templates by {@link Query}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class UqlTemplateTests {
+
+    private final ExpressionParser parser = new SpelExpressionParser();
+
+    @Test
+    void splitsUqlIntoLiteralAndPlaceholderSegments() {
+        UqlTemplate template = UqlTemplate.compile("find().nodes({@${schema} && name == #{name:json}}) return n", parser);
+
+        assertThat(template.isCompiled()).isTrue();
+        assertThat(template.getSegments())
+                .extracting(UqlTemplate.Segment::getLiteral, UqlTemplate.Segment::getExpressionString,
+                        UqlTemplate.Segment::getDirective, UqlTemplate.Segment::isAntiInjection)
+                .containsExactly(
+                        tuple("find().nodes({@", null, null, false),
+                        tuple(null, "schema", null, false),
+                        tuple(" && name == ", null, null, false),
+                        tuple(null, "name", "json", true),
+                        tuple("}) return n", null, null, false));
+    }
+
+    @Test
+    void keepsBracesOfTheExpressionInsideThePlaceholder() {
+        UqlTemplate template = UqlTemplate.compile("return #{{1, 2}.size()}", parser);
+
+        assertThat(template.isCompiled()).isTrue();
+        assertThat(template.getSegments()).extracting(UqlTemplate.Segment::getExpressionString)
+                .containsExactly(null, "{1, 2}.size()");
+    }
+
+    @Test
+    void keepsEmptyAndUnparsablePlaceholdersForBindingErrors() {
+        UqlTemplate template = UqlTemplate.compile("return #{} ${a b}", parser);
+
+        assertThat(template.isCompiled()).isTrue();
+        List<UqlTemplate.Segment> segments = template.getSegments();
+        assertThat(segments.get(1).getExpressionString()).isNull();
+        assertThat(segments.get(3).getExpressionString()).isEqualTo("a b");
+        assertThat(segments.get(3).getExpression()).isNull();
+    }
+
+    @Test
+    void doesNotCompileNestedPlaceholders() {
+        UqlTemplate template = UqlTemplate.compile("return #{${key}}", parser);
+
+        assertThat(template.isCompiled()).isFalse();
+        assertThat(template.getSegments()).isEmpty();
+        assertThat(template.getSource()).isEqualTo("return #{${key}}");
+    }
+
+    @Test
+    void doesNotCompileUnclosedPlaceholders() {
+        assertThat(UqlTemplate.compile("return #{name", parser).isCompiled()).isFalse();
+    }
+
+    @Test
+    void compilesUqlWithoutPlaceholdersIntoOneLiteral() {
+        UqlTemplate template = UqlTemplate.compile("find().nodes() return n", parser);
+
+        assertThat(template.isCompiled()).isTrue();
+        assertThat(template.getSegments()).extracting(UqlTemplate.Segment::getLiteral)
+                .containsExactly("find().nodes() return n");
+    }
+
+    @Test
+    void cachesTemplatesPerParserAndUql() {
+        UqlTemplate template = UqlTemplate.of("return #{a}", parser);
+
+        assertThat(UqlTemplate.of("return #{a}", parser)).isSameAs(template);
+        assertThat(UqlTemplate.of("return #{a}", new SpelExpressionParser())).isNotSameAs(template);
+    }
+
+    @Test
+    void findsReferencedParametersByName() {
+        UqlTemplate template = UqlTemplate.compile("find().nodes({_uuid > #{after._uuid}}) return n limit #{afterwards}", parser);
+
+        assertThat(template.references("after")).isTrue();
+        assertThat(template.references("afterwards")).isTrue();
+        assertThat(template.references("aft")).isFalse();
+        assertThat(template.references("_uuid")).isFalse();
+        assertThat(UqlTemplate.compile("return #{${after}}", parser).references("after")).isTrue();
+    }
+
+    @Test
+    void rendersCompiledPlaceholders() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("schema", "person");
+        parameters.put("name", "Tom");
+
+        String uql = render("find().nodes({@${schema} && name == #{name}}) return n", parameters);
+
+        assertThat(uql).isEqualTo("find().nodes({@person && name == \"Tom\"}) return n");
+    }
+
+    @Test
+    void rendersNestedPlaceholdersPassByPass() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("key", "name");
+        parameters.put("name", "Tom");
+
+        assertThat(render("return #{${key}}", parameters)).isEqualTo("return \"Tom\"");
+    }
+
+    @Test
+    void rendersUnclosedPlaceholdersVerbatim() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("name", "Tom");
+
+        assertThat(render("return ${name} #{name", parameters)).isEqualTo("return Tom #{name");
+    }
+
+    private static String render(String uql, Map<String, Object> parameters) {
+        UltipaMappingContext mappingContext = new UltipaMappingContext();
+        mappingContext.afterPropertiesSet();
+        MappingUltipaConverter converter = new MappingUltipaConverter(mappingContext);
+        converter.afterPropertiesSet();
+
+        UltipaOperations operations = mock(UltipaOperations.class);
+        when(operations.getConverter()).thenReturn(converter);
+
+        new Query(operations, uql, null, parameters, null).execute();
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(operations).execute(captor.capture());
+        return captor.getValue();
+    }
+}
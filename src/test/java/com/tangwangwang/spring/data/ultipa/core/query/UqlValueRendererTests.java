@@ -0,0 +1,122 @@
+package com.tangwangwang.spring.data.ultipa.core.query;
+
+import com.tangwangwang.spring.data.ultipa.annotation.EnumId;
+import com.tangwangwang.spring.data.ultipa.core.convert.UltipaCustomConversions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link UqlValueRenderer}, pinning the literals rendered before values were rendered per type.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class UqlValueRendererTests {
+
+    private final ConversionService conversionService = createConversionService();
+
+    @Test
+    void rendersNullAsNullLiteral() {
+        assertThat(render(null, true)).isEqualTo("null");
+        assertThat(render(null, false)).isEqualTo("null");
+    }
+
+    @Test
+    void rendersNumbersAndBooleansUnquoted() {
+        assertThat(render(1L, true)).isEqualTo("1");
+        assertThat(render(2, true)).isEqualTo("2");
+        assertThat(render((short) 3, true)).isEqualTo("3");
+        assertThat(render((byte) 4, true)).isEqualTo("4");
+        assertThat(render(1.5d, true)).isEqualTo("1.5");
+        assertThat(render(2.5f, true)).isEqualTo("2.5");
+        assertThat(render(true, true)).isEqualTo("true");
+    }
+
+    @Test
+    void quotesStringsOnlyForAntiInjection() {
+        assertThat(render("name", true)).isEqualTo("\"name\"");
+        assertThat(render("name", false)).isEqualTo("name");
+    }
+
+    @Test
+    void escapesBackslashesAndQuotesInOnePass() {
+        assertThat(render("a\"b", true)).isEqualTo("\"a\\\"b\"");
+        assertThat(render("a\\tb", true)).isEqualTo("\"a\\\\tb\"");
+        // the backslash added for a quote is not escaped again
+        assertThat(render("\\\"", true)).isEqualTo("\"\\\\\\\"\"");
+        assertThat(render("a\"b", false)).isEqualTo("a\\\"b");
+    }
+
+    @Test
+    void quotesCharactersUuidsAndDates() {
+        UUID uuid = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+        LocalDateTime dateTime = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+
+        assertThat(render('"', true)).isEqualTo("\"\\\"\"");
+        assertThat(render(uuid, true)).isEqualTo("\"123e4567-e89b-12d3-a456-426614174000\"");
+        assertThat(render(dateTime, true)).isEqualTo("\"2024-01-02 03:04:05.000000\"");
+        assertThat(render(dateTime, false)).isEqualTo("2024-01-02 03:04:05.000000");
+    }
+
+    @Test
+    void rendersEnumsByTheirFieldValueQuoted() {
+        assertThat(render(Color.RED, true)).isEqualTo("\"RED\"");
+        assertThat(render(Level.HIGH, true)).isEqualTo("\"2\"");
+        assertThat(render(Level.HIGH, false)).isEqualTo("2");
+    }
+
+    @Test
+    void rendersObjectArraysAndIterablesAsLists() {
+        assertThat(render(new Object[]{"a", 1, null}, true)).isEqualTo("[\"a\",1,null]");
+        assertThat(render(Arrays.asList("a", "b\"c"), true)).isEqualTo("[\"a\",\"b\\\"c\"]");
+        assertThat(render(Arrays.asList("a", "b"), false)).isEqualTo("[a,b]");
+        assertThat(render(Collections.emptyList(), true)).isEqualTo("[]");
+    }
+
+    @Test
+    void rendersPrimitiveArraysAsLists() {
+        assertThat(render(new long[]{1, 2}, true)).isEqualTo("[1,2]");
+        assertThat(render(new int[]{3}, true)).isEqualTo("[3]");
+        assertThat(render(new double[]{1.5, 2}, true)).isEqualTo("[1.5,2.0]");
+        assertThat(render(new boolean[]{true, false}, true)).isEqualTo("[true,false]");
+        assertThat(render(new char[]{'a', '"'}, true)).isEqualTo("[\"a\",\"\\\"\"]");
+        assertThat(render(new char[]{'a'}, false)).isEqualTo("[a]");
+        assertThat(render(new int[0], true)).isEqualTo("[]");
+    }
+
+    private static ConversionService createConversionService() {
+        DefaultConversionService conversionService = new DefaultConversionService();
+        new UltipaCustomConversions().registerConvertersIn(conversionService);
+        return conversionService;
+    }
+
+    private String render(@Nullable Object value, boolean antiInjection) {
+        StringBuilder target = new StringBuilder();
+        UqlValueRenderer.append(target, value, antiInjection, conversionService);
+        return target.toString();
+    }
+
+    enum Color {
+        RED
+    }
+
+    enum Level {
+        LOW(1), HIGH(2);
+
+        @EnumId
+        private final int value;
+
+        Level(int value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.tangwangwang.spring.data.ultipa.core.schema;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the uql rendered by {@link NodePersistSchema} and {@link EdgePersistSchema}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class PersistSchemaTests {
+
+    @Test
+    void rendersNodeInsertAndUpdateUql() {
+        NodePersistSchema node = node("person", "\"a\"");
+        node.put("name", "\"Tom\"");
+        node.put("age", 3);
+
+        node.setIsNew(true);
+        assertThat(node.toUqlString())
+                .isEqualTo("insert().into(@person).nodes({ _id: \"a\", name: \"Tom\", age: 3 }) as nodes return nodes{*}");
+        assertThat(node.toValueUqlString()).isEqualTo("{ _id: \"a\", name: \"Tom\", age: 3 }");
+
+        node.setIsNew(false);
+        assertThat(node.toUqlString())
+                .isEqualTo("update().nodes({ @person && _id == \"a\" }).set({ name: \"Tom\", age: 3 }) as nodes return nodes{*}");
+    }
+
+    @Test
+    void rendersQueryUqlForQueriedNodes() {
+        NodePersistSchema node = node("person", "\"a\"");
+        node.put("name", "\"Tom\"");
+        node.queried();
+
+        assertThat(node.toUqlString()).isEqualTo("find().nodes({ @person && _id == \"a\" }) as nodes return nodes{*}");
+    }
+
+    @Test
+    void rendersNodeUqlWithoutSchemaOrIdentifier() {
+        NodePersistSchema node = new NodePersistSchema();
+        node.put("name", "\"Tom\"");
+        node.setIsNew(false);
+
+        assertThat(node.toUqlString()).isEqualTo("update().nodes({  }).set({ name: \"Tom\" }) as nodes return nodes{*}");
+
+        node.setIdName("_id");
+        node.setIdValue("\"a\"");
+        assertThat(node.toUqlString()).isEqualTo("update().nodes({ _id == \"a\" }).set({ name: \"Tom\" }) as nodes return nodes{*}");
+    }
+
+    @Test
+    void rendersEdgeInsertAndUpdateUql() {
+        EdgePersistSchema edge = edge();
+        edge.put("weight", 2);
+
+        edge.setIsNew(true);
+        assertThat(edge.toUqlString()).isEqualTo("insert().into(@knows).edges({ _from_uuid: 1, _to_uuid: 2, _from: \"a\", "
+                + "_to: \"b\", weight: 2 }) as edges return edges{*}");
+
+        edge.setIsNew(false);
+        assertThat(edge.toUqlString()).isEqualTo("update().edges({ @knows }).set({ _from_uuid: 1, _to_uuid: 2, _from: \"a\", "
+                + "_to: \"b\", weight: 2 }) as edges return edges{*}");
+    }
+
+    @Test
+    void rendersEdgeInsertIfAbsentUql() {
+        EdgePersistSchema edge = edge();
+
+        assertThat(edge.toUqlString()).isEqualTo("find().nodes(1) as from find().nodes(2) as to WITH from, to "
+                + "OPTIONAL n(from).re({ @knows }).n(to) as paths with count(paths) as count where count == 0 "
+                + "insert().into(@knows).edges({ _from_uuid: from._uuid, _to_uuid: to._uuid })");
+    }
+
+    private static NodePersistSchema node(String schema, Object id) {
+        NodePersistSchema node = new NodePersistSchema();
+        node.setSchema(schema);
+        node.setIdName("_id");
+        node.setIdValue(id);
+        return node;
+    }
+
+    private static EdgePersistSchema edge() {
+        NodePersistSchema from = node("person", "\"a\"");
+        from.setSystemId("a");
+        from.setSystemUuid(1L);
+        NodePersistSchema to = node("person", "\"b\"");
+        to.setSystemId("b");
+        to.setSystemUuid(2L);
+
+        EdgePersistSchema edge = new EdgePersistSchema();
+        edge.setSchema("knows");
+        edge.from(from);
+        edge.to(to);
+        return edge;
+    }
+}
@@ -0,0 +1,78 @@
+package com.tangwangwang.spring.data.ultipa.repository.query;
+
+import com.tangwangwang.spring.data.ultipa.annotation.Node;
+import com.tangwangwang.spring.data.ultipa.annotation.Query;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link UltipaQueryMethod}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class UltipaQueryMethodTests {
+
+    @Test
+    void detectsCompletableFutureReturnTypesAsAsync() {
+        assertThat(queryMethod("findAllAsync").isAsyncQuery()).isTrue();
+        assertThat(queryMethod("findOneAsync").isAsyncQuery()).isTrue();
+    }
+
+    @Test
+    void detectsSupertypesOfCompletableFutureAsAsync() {
+        assertThat(queryMethod("findFuture").isAsyncQuery()).isTrue();
+    }
+
+    @Test
+    void doesNotDetectBlockingReturnTypesAsAsync() {
+        assertThat(queryMethod("findAll").isAsyncQuery()).isFalse();
+        assertThat(queryMethod("findOne").isAsyncQuery()).isFalse();
+        assertThat(queryMethod("count").isAsyncQuery()).isFalse();
+    }
+
+    private static UltipaQueryMethod queryMethod(String name) {
+        Method method = ReflectionUtils.findMethod(PersonRepository.class, name);
+        assertThat(method).isNotNull();
+        return new UltipaQueryMethod(method, new DefaultRepositoryMetadata(PersonRepository.class),
+                new SpelAwareProxyProjectionFactory());
+    }
+
+    @Node("person")
+    static class Person {
+        @Id
+        String id;
+    }
+
+    interface PersonRepository extends Repository<Person, String> {
+
+        @Query("find().nodes({@person}) as n return n{*}")
+        CompletableFuture<List<Person>> findAllAsync();
+
+        @Query("find().nodes({@person}) as n return n{*} limit 1")
+        CompletableFuture<Person> findOneAsync();
+
+        @Query("find().nodes({@person}) as n return n{*}")
+        Future<List<Person>> findFuture();
+
+        @Query("find().nodes({@person}) as n return n{*}")
+        List<Person> findAll();
+
+        @Query("find().nodes({@person}) as n return n{*} limit 1")
+        Person findOne();
+
+        @Query(value = "find().nodes({@person}) as n return count(n)", count = true)
+        long count();
+    }
+}
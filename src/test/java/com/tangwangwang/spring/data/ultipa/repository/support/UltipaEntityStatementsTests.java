@@ -0,0 +1,98 @@
+package com.tangwangwang.spring.data.ultipa.repository.support;
+
+import com.tangwangwang.spring.data.ultipa.annotation.Node;
+import com.tangwangwang.spring.data.ultipa.annotation.Property;
+import com.tangwangwang.spring.data.ultipa.core.UltipaOperations;
+import com.tangwangwang.spring.data.ultipa.core.convert.MappingUltipaConverter;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaMappingContext;
+import com.tangwangwang.spring.data.ultipa.core.mapping.UltipaPersistentEntity;
+import com.tangwangwang.spring.data.ultipa.core.query.PreparedQuery;
+import com.tangwangwang.spring.data.ultipa.core.query.ScrollPosition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.domain.Sort;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the scroll queries of {@link UltipaEntityStatements}.
+ *
+ * @author Wangwang Tang
+ * @since 1.0
+ */
+class UltipaEntityStatementsTests {
+
+    private final UltipaOperations operations = mock(UltipaOperations.class);
+    private UltipaEntityStatements<Person, String> statements;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        UltipaMappingContext mappingContext = new UltipaMappingContext();
+        mappingContext.afterPropertiesSet();
+        MappingUltipaConverter converter = new MappingUltipaConverter(mappingContext);
+        converter.afterPropertiesSet();
+
+        SpelExpressionParser parser = new SpelExpressionParser();
+        when(operations.getConverter()).thenReturn(converter);
+        when(operations.prepare(anyString(), any())).then(invocation ->
+                PreparedQuery.of(operations, invocation.getArgument(0), parser, invocation.getArgument(1)));
+
+        UltipaPersistentEntity<Person> entity = (UltipaPersistentEntity<Person>) mappingContext.getRequiredPersistentEntity(Person.class);
+        statements = new UltipaEntityStatements<>(new MappingUltipaEntityInformation<>(entity), operations);
+    }
+
+    @Test
+    void seeksAfterTheKeysOfThePosition() {
+        statements.scroll(position("Tom", 7L), Sort.by("name")).findAll();
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(operations).findAll(captor.capture());
+        assertThat(captor.getValue()).startsWith("find().nodes({ @person && (@person.name > \"Tom\" "
+                + "|| (@person.name == \"Tom\" && _uuid > 7)) }) as nodes return nodes{*}");
+    }
+
+    @Test
+    void rejectsPositionsWithoutKeyOfTheSort() {
+        Map<String, Object> keys = new HashMap<>();
+        keys.put("_uuid", 7L);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> statements.scroll(ScrollPosition.of(keys), Sort.by("name")))
+                .withMessageContaining("has no key for sort property name");
+    }
+
+    @Test
+    void rejectsNullSortKeys() {
+        assertThatIllegalArgumentException().isThrownBy(() -> statements.scroll(position(null, 7L), Sort.by("name")))
+                .withMessageContaining("null key for sort property name");
+        assertThatIllegalArgumentException().isThrownBy(() -> statements.scroll(position("Tom", null), Sort.by("name")))
+                .withMessageContaining("null key for sort property _uuid");
+    }
+
+    private static ScrollPosition position(String name, Long uuid) {
+        Map<String, Object> keys = new HashMap<>();
+        keys.put("name", name);
+        keys.put("_uuid", uuid);
+        return ScrollPosition.of(keys);
+    }
+
+    @Node("person")
+    static class Person {
+        @Id
+        @Property("_id")
+        String id;
+        String name;
+    }
+}